@@ -0,0 +1,167 @@
+package model;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * 堆外列存储的路径表，用于千万级候选路径、不宜创建大量 Path 对象的实例
+ *
+ * 路径按顾客顺序连续编号，四列分别保存在 MemorySegment 中：
+ *   offsets            int[n + 1]，顾客i的路径为 [offsets[i], offsets[i + 1])
+ *   distance/cost/time double[总路径数]
+ * 段由调用方的 Arena 分配（allocate、copyOf），或来自映射的文件（util.ColumnarProblemFormat），
+ * 堆上只有本对象和几个段句柄，与实例规模无关。
+ *
+ * 同时实现 PathColumns：展开编号就是列中的下标，求解算法经 Problem.getPathColumns() 直接读段，不复制到堆上。
+ *
+ * 生命周期由 Arena 决定：Arena 关闭后再访问会抛出 IllegalStateException。
+ * 多线程求解（并行评估、批量模式）需使用 Arena.ofShared()。
+ * 数值按大端序存放，与映射文件的字节布局一致。
+ *
+ * JDK 21 中FFM API仍为预览特性，本类位于 src/main/java-ffm，用 -P ffm 构建，运行时加 --enable-preview。
+ */
+public final class OffHeapPathTable implements PathTable, PathColumns {
+    public static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.BIG_ENDIAN);
+    public static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final int customerCount;
+    private final MemorySegment offsets;
+    private final MemorySegment distances;
+    private final MemorySegment costs;
+    private final MemorySegment times;
+
+    private OffHeapPathTable(MemorySegment offsets, MemorySegment distances, MemorySegment costs, MemorySegment times) {
+        this.customerCount = (int) (offsets.byteSize() / INT.byteSize()) - 1;
+        this.offsets = offsets;
+        this.distances = distances;
+        this.costs = costs;
+        this.times = times;
+    }
+
+    /**
+     * 包装已有的列段（如文件映射），检查各段长度是否一致
+     */
+    public static OffHeapPathTable wrap(MemorySegment offsets, MemorySegment distances,
+                                        MemorySegment costs, MemorySegment times) {
+        long count = offsets.byteSize() / INT.byteSize();
+        if (count < 1 || offsets.byteSize() % INT.byteSize() != 0) {
+            throw new IllegalArgumentException("Offset column must hold customerCount + 1 ints");
+        }
+        if (offsets.getAtIndex(INT, 0) != 0) {
+            throw new IllegalArgumentException("Offset column must start at 0");
+        }
+        long total = offsets.getAtIndex(INT, count - 1);
+        long columnBytes = total * DOUBLE.byteSize();
+        if (distances.byteSize() != columnBytes || costs.byteSize() != columnBytes || times.byteSize() != columnBytes) {
+            throw new IllegalArgumentException("Path columns do not match offset column: expected "
+                + total + " paths");
+        }
+        return new OffHeapPathTable(offsets, distances, costs, times);
+    }
+
+    /**
+     * 在arena中分配空表，第i个顾客有 pathCounts[i] 条路径，随后用 set 填入数值
+     */
+    public static OffHeapPathTable allocate(Arena arena, int[] pathCounts) {
+        MemorySegment offsets = arena.allocate(INT.byteSize() * (pathCounts.length + 1), Long.BYTES);
+        int total = 0;
+        for (int i = 0; i < pathCounts.length; i++) {
+            offsets.setAtIndex(INT, i, total);
+            total = Math.addExact(total, pathCounts[i]);
+        }
+        offsets.setAtIndex(INT, pathCounts.length, total);
+        return allocateColumns(arena, offsets, total);
+    }
+
+    /**
+     * 把任意路径表（通常是堆上实例）复制到arena中
+     */
+    public static OffHeapPathTable copyOf(PathTable source, Arena arena) {
+        int n = source.customerCount();
+        MemorySegment offsets = arena.allocate(INT.byteSize() * (n + 1), Long.BYTES);
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            offsets.setAtIndex(INT, i, total);
+            total = Math.addExact(total, source.pathCount(i));
+        }
+        offsets.setAtIndex(INT, n, total);
+        OffHeapPathTable table = allocateColumns(arena, offsets, total);
+        for (int i = 0; i < n; i++) {
+            for (int p = 0; p < source.pathCount(i); p++) {
+                table.set(i, p, source.distance(i, p), source.cost(i, p), source.time(i, p));
+            }
+        }
+        return table;
+    }
+
+    private static OffHeapPathTable allocateColumns(Arena arena, MemorySegment offsets, int total) {
+        long columnBytes = DOUBLE.byteSize() * total;
+        return new OffHeapPathTable(offsets,
+            arena.allocate(columnBytes, Long.BYTES),
+            arena.allocate(columnBytes, Long.BYTES),
+            arena.allocate(columnBytes, Long.BYTES));
+    }
+
+    public void set(int customer, int path, double distance, double cost, double time) {
+        long index = index(customer, path);
+        distances.setAtIndex(DOUBLE, index, distance);
+        costs.setAtIndex(DOUBLE, index, cost);
+        times.setAtIndex(DOUBLE, index, time);
+    }
+
+    private long index(int customer, int path) {
+        return offsets.getAtIndex(INT, customer) + path;
+    }
+
+    @Override
+    public int customerCount() {
+        return customerCount;
+    }
+
+    @Override
+    public int pathCount(int customer) {
+        return offsets.getAtIndex(INT, customer + 1) - offsets.getAtIndex(INT, customer);
+    }
+
+    @Override
+    public long totalPathCount() {
+        return offsets.getAtIndex(INT, customerCount);
+    }
+
+    @Override
+    public double distance(int customer, int path) {
+        return distances.getAtIndex(DOUBLE, index(customer, path));
+    }
+
+    @Override
+    public double cost(int customer, int path) {
+        return costs.getAtIndex(DOUBLE, index(customer, path));
+    }
+
+    @Override
+    public double time(int customer, int path) {
+        return times.getAtIndex(DOUBLE, index(customer, path));
+    }
+
+    @Override
+    public PathColumns columns() {
+        return this;
+    }
+
+    @Override
+    public int firstRow(int customer) {
+        return offsets.getAtIndex(INT, customer);
+    }
+
+    @Override
+    public double rowCost(int row) {
+        return distances.getAtIndex(DOUBLE, row) + costs.getAtIndex(DOUBLE, row);
+    }
+
+    @Override
+    public double rowTime(int row) {
+        return times.getAtIndex(DOUBLE, row);
+    }
+}
@@ -0,0 +1,178 @@
+package util;
+
+import metrics.ProblemLoadEvent;
+import model.*;
+import java.io.*;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 可直接内存映射的列式问题文件，映射后路径表位于堆外（OffHeapPathTable），不创建 Path 对象
+ *
+ * 布局（大端序，各段起点按8字节对齐）：
+ *   int    魔数 0x504B5543 ("PKUC")
+ *   int    版本号 1
+ *   int    顾客数 n
+ *   int    路径总数 m
+ *   double 时间约束
+ *   int    offsets[n + 1]，n为偶数时补一个0
+ *   double distance[m]，cost[m]，time[m]
+ *   int    组合优惠条数 d，随后 d 组 (顾客1, 路径1, 顾客2, 路径2, 优惠值)
+ *
+ * 路径列只映射不复制；组合优惠通常远少于路径，读入堆上的 SparseDiscountIndex。
+ * 转换：java --enable-preview util.ColumnarProblemFormat --input 实例.json|实例.bin --output 实例.cols
+ */
+public final class ColumnarProblemFormat {
+    public static final String EXTENSION = ".cols";
+    private static final int MAGIC = 0x504B5543;
+    private static final int VERSION = 1;
+    private static final long HEADER_BYTES = 24;
+
+    private ColumnarProblemFormat() {
+    }
+
+    public static void write(Problem problem, java.nio.file.Path file) throws IOException {
+        int customerCount = problem.getCustomerCount();
+        long total = problem.getPathTable().totalPathCount();
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Too many paths for columnar format: " + total);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(customerCount);
+            out.writeInt((int) total);
+            out.writeDouble(problem.getTimeConstraint());
+            int offset = 0;
+            for (int i = 0; i < customerCount; i++) {
+                out.writeInt(offset);
+                offset += problem.getPathCount(i);
+            }
+            out.writeInt(offset);
+            if (customerCount % 2 == 0) {
+                out.writeInt(0);
+            }
+            for (int i = 0; i < customerCount; i++) {
+                for (int p = 0; p < problem.getPathCount(i); p++) {
+                    out.writeDouble(problem.getPathDistance(i, p));
+                }
+            }
+            for (int i = 0; i < customerCount; i++) {
+                for (int p = 0; p < problem.getPathCount(i); p++) {
+                    out.writeDouble(problem.getPathCost(i, p));
+                }
+            }
+            for (int i = 0; i < customerCount; i++) {
+                for (int p = 0; p < problem.getPathCount(i); p++) {
+                    out.writeDouble(problem.getPathTime(i, p));
+                }
+            }
+            BinaryProblemFormat.writeDiscounts(problem, out);
+        }
+    }
+
+    /**
+     * 映射文件，返回的实例在arena关闭前有效
+     */
+    public static Problem map(java.nio.file.Path file, Arena arena) throws IOException {
+        ProblemLoadEvent event = new ProblemLoadEvent();
+        event.begin();
+        MemorySegment segment;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+        if (segment.byteSize() < HEADER_BYTES || segment.get(OffHeapPathTable.INT, 0) != MAGIC) {
+            throw new IOException("Not a columnar problem file: " + file);
+        }
+        int version = segment.get(OffHeapPathTable.INT, 4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported columnar problem version: " + version);
+        }
+        int customerCount = segment.get(OffHeapPathTable.INT, 8);
+        int total = segment.get(OffHeapPathTable.INT, 12);
+        double timeConstraint = segment.get(OffHeapPathTable.DOUBLE, 16);
+
+        long offsetBytes = Integer.BYTES * (customerCount + 1L);
+        long columnStart = (HEADER_BYTES + offsetBytes + 7) & ~7L;
+        long columnBytes = Double.BYTES * (long) total;
+        long discountStart = columnStart + 3 * columnBytes;
+        if (customerCount < 0 || total < 0 || segment.byteSize() < discountStart + Integer.BYTES) {
+            throw new IOException("Truncated columnar problem file: " + file);
+        }
+        OffHeapPathTable table;
+        try {
+            table = OffHeapPathTable.wrap(segment.asSlice(HEADER_BYTES, offsetBytes),
+                segment.asSlice(columnStart, columnBytes),
+                segment.asSlice(columnStart + columnBytes, columnBytes),
+                segment.asSlice(columnStart + 2 * columnBytes, columnBytes));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt columnar problem file: " + e.getMessage());
+        }
+        SparseDiscountIndex discounts = readDiscounts(segment, discountStart, table);
+        if (event.shouldCommit()) {
+            event.source = file.toString();
+            event.customers = customerCount;
+            event.commit();
+        }
+        return new Problem(table, timeConstraint, discounts);
+    }
+
+    /**
+     * 用自动回收的Arena映射，实例不再可达后由GC解除映射，供一次性命令行求解使用
+     */
+    public static Problem open(java.nio.file.Path file) throws IOException {
+        return map(file, Arena.ofAuto());
+    }
+
+    private static SparseDiscountIndex readDiscounts(MemorySegment segment, long start, PathTable table)
+            throws IOException {
+        int discountCount = segment.get(OffHeapPathTable.INT, start);
+        if (discountCount == 0) {
+            return null;
+        }
+        if (segment.byteSize() < start + Integer.BYTES * (1 + 5L * discountCount)) {
+            throw new IOException("Truncated discount section");
+        }
+        int maxPaths = 0;
+        for (int i = 0; i < table.customerCount(); i++) {
+            maxPaths = Math.max(maxPaths, table.pathCount(i));
+        }
+        SparseDiscountIndex.Builder builder = new SparseDiscountIndex.Builder(table.customerCount(), maxPaths);
+        long position = start + Integer.BYTES;
+        for (int k = 0; k < discountCount; k++) {
+            builder.add(segment.get(OffHeapPathTable.INT, position),
+                segment.get(OffHeapPathTable.INT, position + 4),
+                segment.get(OffHeapPathTable.INT, position + 8),
+                segment.get(OffHeapPathTable.INT, position + 12),
+                segment.get(OffHeapPathTable.INT, position + 16));
+            position += 20;
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String input = getArg(args, "--input", "delivery_data.json");
+        String output = getArg(args, "--output", "delivery_data" + EXTENSION);
+        double timeConstraint = Double.parseDouble(getArg(args, "--time-constraint", "120"));
+
+        Problem problem = ProblemFiles.load(input, timeConstraint);
+        if (problem == null) {
+            throw new IOException("Cannot load instance file: " + input);
+        }
+        write(problem, java.nio.file.Path.of(output));
+        System.out.printf("已写入列式实例: %s (顾客 %d, 路径 %d)\n",
+            output, problem.getCustomerCount(), problem.getPathTable().totalPathCount());
+    }
+
+    private static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,69 @@
+package algorithm;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+import model.ArrayPathColumns;
+import model.Problem;
+
+/**
+ * 批量评估的Vector API实现
+ * 每个向量通道对应一个解，按顾客顺序用gather从展开的路径表取值并在寄存器中累加，
+ * 累加顺序与标量实现相同，结果逐位一致。gather需要堆上数组，堆外实例退回标量实现。
+ *
+ * 仅在 -P vector 构建时编译，由BatchEvaluator.create反射加载。
+ */
+final class VectorBatchEvaluator extends BatchEvaluator {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final int[] pathOffsets;
+    private final double[] pathCosts;
+    private final double[] pathTimes;
+
+    VectorBatchEvaluator(Problem problem) {
+        super(problem);
+        if (SPECIES.length() < 2) {
+            throw new UnsupportedOperationException("No multi-lane double vectors on this CPU");
+        }
+        if (!(columns instanceof ArrayPathColumns array)) {
+            throw new UnsupportedOperationException("Vector gather needs on-heap path columns");
+        }
+        this.pathOffsets = array.offsets();
+        this.pathCosts = array.costs();
+        this.pathTimes = array.times();
+    }
+
+    @Override
+    protected void accumulate(int[] paths, int batchSize, double[] costs, double[] times) {
+        int lanes = SPECIES.length();
+        int k = 0;
+        for (; k <= batchSize - lanes; k += lanes) {
+            DoubleVector cost = DoubleVector.zero(SPECIES);
+            DoubleVector time = DoubleVector.zero(SPECIES);
+            for (int i = 0; i < customerCount; i++) {
+                int mapOffset = i * batchSize + k;
+                cost = cost.add(DoubleVector.fromArray(SPECIES, pathCosts, pathOffsets[i], paths, mapOffset));
+                time = time.add(DoubleVector.fromArray(SPECIES, pathTimes, pathOffsets[i], paths, mapOffset));
+            }
+            cost.intoArray(costs, k);
+            time.intoArray(times, k);
+        }
+
+        // 不足一个向量的剩余解按标量处理
+        for (; k < batchSize; k++) {
+            double cost = 0;
+            double time = 0;
+            for (int i = 0; i < customerCount; i++) {
+                int row = pathOffsets[i] + paths[i * batchSize + k];
+                cost += pathCosts[row];
+                time += pathTimes[row];
+            }
+            costs[k] = cost;
+            times[k] = time;
+        }
+    }
+
+    @Override
+    public String getImplementationName() {
+        return "vector(" + SPECIES.length() + " lanes)";
+    }
+}
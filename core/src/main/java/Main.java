@@ -0,0 +1,164 @@
+import util.AlgorithmConfig;
+import util.DataGenerator;
+import util.ExperimentLogger;
+import util.ProblemFiles;
+import algorithm.*;
+import metrics.Metrics;
+import metrics.SolveEvent;
+import model.*;
+import java.util.*;
+
+/**
+ * 命令行入口
+ *
+ * 默认模式：按config.yml重新生成 delivery_data.json 后求解，结果记录到 experiment_results 下的Excel。
+ * 单次求解模式（--input）：直接求解给定的实例文件，不重新生成数据，只有指定 --excel 时才记录Excel，
+ * 否则不会加载Apache POI，适合定时任务大量调用。.bin 文件按 BinaryProblemFormat 读取、.cols 文件按
+ * ColumnarProblemFormat 映射到堆外（需 -P ffm），两者使用文件中的时间约束；
+ * 其余按JSON读取，时间约束取 --time-constraint，缺省为 dataGeneration.timeConstraint。
+ * 两种模式都只解析一次config.yml。
+ *
+ * 用法：
+ *   java Main [--algorithm ACO]
+ *   java Main --input instance.json|instance.bin|instance.cols [--algorithm ACO] [--time-constraint 120] [--excel]
+ *
+ * 结束时打印从JVM进程启动到得到解的总耗时，用于比较使用 -P cds 构建的AppCDS归档前后的冷启动时间。
+ */
+public class Main {
+    public static void main(String[] args) {
+        long mainStartMillis = System.currentTimeMillis();
+        long processStartMillis = ProcessHandle.current().info().startInstant()
+            .map(java.time.Instant::toEpochMilli).orElse(mainStartMillis);
+        Metrics.histogram("phase_duration_seconds", "Time spent in non-solver phases", "phase", "startup")
+            .record((mainStartMillis - processStartMillis) * 1_000_000);
+
+        // 解析命令行参数，配置文件只读取一次
+        String algorithmType = getArg(args, "--algorithm", "ACO"); // 默认使用蚁群算法
+        String input = getArg(args, "--input", null);
+        Map<String, Object> config = AlgorithmConfig.load(AlgorithmConfig.DEFAULT_FILE);
+        Map<String, Object> parameters = AlgorithmConfig.parameters(config, algorithmType);
+        Map<String, Object> generationConfig = AlgorithmConfig.section(config, "dataGeneration");
+
+        System.out.println("外卖配送路径优化系统启动...");
+
+        Problem problem;
+        String dataSource;
+        if (input == null) {
+            // 1. 生成测试数据
+            String dataFile = "delivery_data.json";
+            System.out.println("正在生成测试数据...");
+            DataGenerator.generateAndSaveTestData(10, 20, 5, dataFile, generationConfig);
+
+            // 2. 加载测试数据
+            System.out.println("正在加载测试数据...");
+            Map<String, Object> data = DataGenerator.loadTestData(dataFile);
+            if (data == null) {
+                System.out.println("数据加载失败！");
+                return;
+            }
+
+            // 在生成数据后添加验证
+            if (!DataGenerator.validateDataset(data, 120.0)) {
+                System.out.println("警告：生成的数据集可能不包含可行解！");
+                return;
+            }
+
+            // 3. 创建问题实例
+            problem = new Problem(
+                (List<Customer>) data.get("customers"),
+                (Map<String, List<Path>>) data.get("paths"),
+                120.0,  // 2小时时间约束
+                (SparseDiscountIndex) data.get("discounts")
+            );
+            dataSource = (String) generationConfig.getOrDefault("strategy", "B");
+        } else {
+            System.out.println("正在加载实例: " + input);
+            Object configured = generationConfig.getOrDefault("timeConstraint", 120.0);
+            double timeConstraint = Double.parseDouble(getArg(args, "--time-constraint", configured.toString()));
+            problem = ProblemFiles.load(input, timeConstraint);
+            if (problem == null) {
+                System.out.println("数据加载失败！");
+                return;
+            }
+            dataSource = input;
+        }
+
+        // 4. 创建算法实例
+        OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parameters);
+        System.out.printf("使用 %s 求解...\n", algorithm.getName());
+
+        // 5. 运行算法求解
+        SolveEvent event = SolveEvent.begin(algorithmType, problem.getCustomers().size());
+        long startTime = System.nanoTime();
+        Solution solution = algorithm.solve(problem);
+        Metrics.solveDuration(algorithmType).recordSince(startTime);
+        event.end(solution == null ? Double.NaN : solution.getTotalCost());
+        long solvingTime = (System.nanoTime() - startTime) / 1_000_000;
+        long startupToSolution = System.currentTimeMillis() - processStartMillis;
+
+        // 记录实验结果（单次求解模式下只在 --excel 时记录，避免加载POI）
+        if (input == null || hasFlag(args, "--excel")) {
+            saveExcel(algorithm, problem, solution, solvingTime, dataSource);
+        }
+
+        // 6. 输出结果
+        if (solution != null) {
+            System.out.println("\n求解完成！");
+            System.out.println("总配送成本: " + solution.getTotalCost());
+            System.out.println("总配送时间: " + solution.getTotalTime() + " 分钟");
+            if (solution.hasLowerBound()) {
+                System.out.printf("惩罚成本下界: %.6f（含超时惩罚的成本差距不超过 %.4f%%）\n", solution.getLowerBound(),
+                    100 * solution.getOptimalityGap());
+            }
+            System.out.println("求解耗时: " + solvingTime + " 毫秒");
+            System.out.println("启动至求解完成: " + startupToSolution + " 毫秒");
+
+            System.out.println("\n配送路径详情:");
+            int[] pathIndices = solution.getPathIndices();
+            for (int i = 0; i < pathIndices.length; i++) {
+                System.out.printf("顾客 %d: 选择路径 %d\n", i, pathIndices[i]);
+            }
+        } else {
+            System.out.println("未能找到可行解！");
+        }
+
+        Metrics.printSummary();
+        Metrics.writeConfiguredFile();
+    }
+
+    // 单独成方法：ExperimentLogger引用POI，不调用时不会被加载
+    private static void saveExcel(OptimizationAlgorithm algorithm, Problem problem, Solution solution,
+                                  long solvingTime, String dataSource) {
+        ExperimentLogger.initializeExperiment("单次运行结果");
+        ExperimentLogger.addSheet("运行结果");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("算法类型", algorithm.getName());
+        result.put("问题规模(顾客数)", problem.getCustomers().size());
+        result.put("路径数/顾客", problem.getPathCount(0));
+        result.put("总配送成本", solution.getTotalCost());
+        result.put("总配送时间(分钟)", solution.getTotalTime());
+        result.put("是否可行解", solution.getTotalTime() <= problem.getTimeConstraint() ? "是" : "否");
+        result.put("求解时间(ms)", solvingTime);
+        result.put("数据生成策略", dataSource);
+        result.put("时间约束", problem.getTimeConstraint());
+
+        ExperimentLogger.logResult(result);
+
+        // 保存实验结果
+        ExperimentLogger.saveResults();
+    }
+
+    private static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    private static boolean hasFlag(String[] args, String name) {
+        return Arrays.asList(args).contains(name);
+    }
+}
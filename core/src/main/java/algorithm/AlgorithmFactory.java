@@ -12,7 +12,13 @@ public class AlgorithmFactory {
             case "DP" -> new DynamicProgramming(parameters);
             case "RL" -> new ReinforcementLearning(parameters);
             case "BK" -> new BacktrackingAlgorithm(parameters);
+            case "LNS" -> new LargeNeighborhoodSearch(parameters);
             default -> throw new IllegalArgumentException("Unknown algorithm type: " + type);
         };
     }
+    
+    public static OptimizationAlgorithm createCachedAlgorithm(String type, Map<String, Object> parameters,
+                                                              SolutionCache cache, boolean warmStart) {
+        return new CachingAlgorithm(createAlgorithm(type, parameters), type, parameters, cache, warmStart);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,226 @@
+package algorithm;
+
+import metrics.IterationEvent;
+import model.*;
+import java.io.*;
+import java.util.*;
+
+public class AntColony implements OptimizationAlgorithm, Reoptimizable {
+    private final int antCount;
+    private final double pheromoneWeight;
+    private final double evaporationRate;
+    private final long timeLimitMs;
+    private final boolean repairInfeasible;
+    private final double gapTolerance;
+    private final String checkpointFile;
+    private final long checkpointIntervalMs;
+    private final RestorableRandom random = new RestorableRandom();
+    private double[][] lastPheromones;  // 上一次求解结束时的信息素矩阵，供重新优化时迁移
+    
+    // 检查点中保存的当前最优解及其含惩罚的成本
+    private record Incumbent(Solution solution, double cost) {
+    }
+    
+    public AntColony(Map<String, Object> parameters) {
+        this.antCount = Parameters.getInt(parameters, "antCount", 50);
+        this.pheromoneWeight = Parameters.getDouble(parameters, "pheromoneWeight", 1.0);
+        this.evaporationRate = Parameters.getDouble(parameters, "evaporationRate", 0.1);
+        this.timeLimitMs = Parameters.getInt(parameters, "timeLimitMs", 0);
+        this.repairInfeasible = Parameters.getBoolean(parameters, "repairInfeasible", true);
+        this.gapTolerance = Parameters.getDouble(parameters, "gapTolerance", -1);
+        this.checkpointFile = Parameters.getString(parameters, "checkpointFile", null);
+        this.checkpointIntervalMs = Parameters.getInt(parameters, "checkpointIntervalMs", 60_000);
+    }
+    
+    @Override
+    public Solution solve(Problem problem) {
+        // 设置checkpointFile时定期保存信息素矩阵、当前最优解和随机数状态，下次求解从保存的迭代继续
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(checkpointFile, checkpointIntervalMs, "ACO", problem);
+        try {
+            return search(problem, initializePheromones(problem), null, Deadline.after(timeLimitMs), checkpoint);
+        } finally {
+            checkpoint.finish();
+        }
+    }
+    
+    @Override
+    public Solution solve(Problem problem, Solution initialSolution) {
+        double[][] pheromones = initializePheromones(problem);
+        Solution seed = initialSolution.clone();
+        updateSolutionMetrics(seed, problem);
+        // 在初始解使用的路径上预先沉积信息素，引导蚂蚁从其附近开始构建
+        updatePheromones(pheromones, Collections.singletonList(seed), new double[] {calculateCost(seed, problem)});
+        return search(problem, pheromones, seed, Deadline.after(timeLimitMs), SearchCheckpoint.disabled());
+    }
+    
+    @Override
+    public Solution reoptimize(Problem problem, Solution previousSolution, int[] customerMapping, long timeBudgetMillis) {
+        // 未变化的顾客沿用已学到的信息素，新增或变化的顾客重新初始化
+        double[][] pheromones = initializePheromones(problem);
+        for (int i = 0; i < customerMapping.length; i++) {
+            if (customerMapping[i] >= 0 && lastPheromones != null) {
+                pheromones[i] = lastPheromones[customerMapping[i]].clone();
+            }
+        }
+        Solution seed = previousSolution.clone();
+        updateSolutionMetrics(seed, problem);
+        return search(problem, pheromones, seed, Deadline.after(timeBudgetMillis), SearchCheckpoint.disabled());
+    }
+    
+    private Solution search(Problem problem, double[][] pheromones, Solution initialSolution, Deadline deadline,
+                            SearchCheckpoint checkpoint) {
+        Solution bestSolution = initialSolution;
+        double bestCost = initialSolution == null ? Double.MAX_VALUE : calculateCost(initialSolution, problem);
+        Incumbent restored = checkpoint.restore(random, in -> readState(in, pheromones));
+        if (restored != null) {
+            bestSolution = restored.solution();
+            bestCost = restored.cost();
+        }
+        
+        BatchEvaluator evaluator = BatchEvaluator.create(problem);
+        // 开启修复时，蚂蚁构建的超时解先修复为可行再评估和沉积信息素
+        FeasibilityRepair repair = repairInfeasible ? FeasibilityRepair.create(problem) : null;
+        // 设置gapTolerance时，最优解与下界的差距足够小即提前结束
+        GapTermination termination = GapTermination.create(problem, gapTolerance);
+        for (int iteration = checkpoint.startIteration(); iteration < 1000 && !deadline.expired()
+                && !termination.reached(bestCost); iteration++) {
+            if (checkpoint.due()) {
+                Incumbent incumbent = new Incumbent(bestSolution, bestCost);
+                checkpoint.save(iteration, random, out -> writeState(out, pheromones, incumbent));
+                if (checkpoint.stopRequested()) {
+                    break;
+                }
+            }
+            List<Solution> antSolutions = new ArrayList<>();
+            
+            // 每只蚂蚁构建解
+            for (int ant = 0; ant < antCount; ant++) {
+                Solution solution = constructSolution(problem, pheromones);
+                if (repair != null) {
+                    repair.repair(solution);
+                }
+                antSolutions.add(solution);
+            }
+            
+            // 整批评估本轮所有蚂蚁的解
+            double[] costs = evaluator.evaluate(antSolutions);
+            for (int ant = 0; ant < antSolutions.size(); ant++) {
+                if (costs[ant] < bestCost) {
+                    bestCost = costs[ant];
+                    bestSolution = antSolutions.get(ant).clone();
+                }
+            }
+            
+            // 更新信息素
+            updatePheromones(pheromones, antSolutions, costs);
+            if (IterationEvent.sampled(iteration)) {
+                IterationEvent.emit("ACO", iteration, problem.getCustomers().size(), bestCost);
+            }
+        }
+        
+        checkpoint.complete();
+        lastPheromones = pheromones;
+        return termination.certify(bestSolution);
+    }
+    
+    private void writeState(DataOutputStream out, double[][] pheromones, Incumbent incumbent) throws IOException {
+        out.writeInt(pheromones.length);
+        for (double[] row : pheromones) {
+            SearchCheckpoint.writeDoubles(out, row);
+        }
+        SearchCheckpoint.writeSolution(out, incumbent.solution());
+        out.writeDouble(incumbent.cost());
+    }
+    
+    private Incumbent readState(DataInputStream in, double[][] pheromones) throws IOException {
+        if (in.readInt() != pheromones.length) {
+            throw new IOException("pheromone matrix does not match the problem");
+        }
+        for (double[] row : pheromones) {
+            SearchCheckpoint.readInto(in, row);
+        }
+        Solution solution = SearchCheckpoint.readSolution(in);
+        return new Incumbent(solution, in.readDouble());
+    }
+    
+    @Override
+    public String getName() {
+        return "蚁群算法(ACO)";
+    }
+    
+    private double[][] initializePheromones(Problem problem) {
+        int customerCount = problem.getCustomers().size();
+        double[][] pheromones = new double[customerCount][];
+        for (int i = 0; i < customerCount; i++) {
+            int pathCount = problem.getPathCount(i);
+            pheromones[i] = new double[pathCount];
+            Arrays.fill(pheromones[i], 1.0); // 初始信息素浓度为1
+        }
+        return pheromones;
+    }
+    
+    private Solution constructSolution(Problem problem, double[][] pheromones) {
+        Solution solution = new Solution(problem.getCustomers().size());
+        
+        for (int i = 0; i < problem.getCustomers().size(); i++) {
+            int pathCount = problem.getPathCount(i);
+            double[] probabilities = new double[pathCount];
+            double total = 0;
+            
+            // 计算每条路径的选择概率
+            for (int j = 0; j < pathCount; j++) {
+                double pathCost = problem.getPathDistance(i, j) + problem.getPathCost(i, j);
+                if (problem.hasDiscounts()) {
+                    // 计入与已选路径之间的组合优惠，优惠可能使成本非正，故设下限
+                    pathCost = Math.max(1.0, pathCost + SolutionEvaluator.prefixDiscount(problem, solution.getPathIndices(), i, j));
+                }
+                double heuristic = 1.0 / pathCost;
+                probabilities[j] = Math.pow(pheromones[i][j], pheromoneWeight) * heuristic;
+                total += probabilities[j];
+            }
+            
+            // 轮盘赌选择路径
+            double r = random.nextDouble() * total;
+            double sum = 0;
+            for (int j = 0; j < pathCount; j++) {
+                sum += probabilities[j];
+                if (sum >= r) {
+                    solution.setPathIndex(i, j);
+                    break;
+                }
+            }
+        }
+        
+        return solution;
+    }
+    
+    // costs[k]为solutions中第k个解含超时惩罚的成本
+    private void updatePheromones(double[][] pheromones, List<Solution> solutions, double[] costs) {
+        // 1. 信息素蒸发
+        for (int i = 0; i < pheromones.length; i++) {
+            for (int j = 0; j < pheromones[i].length; j++) {
+                pheromones[i][j] *= (1 - evaporationRate);
+            }
+        }
+        
+        // 2. 信息素沉积
+        for (int k = 0; k < solutions.size(); k++) {
+            Solution solution = solutions.get(k);
+            // contribution越小，说明成本越高（包括时间惩罚）
+            double contribution = 1.0 / costs[k];
+            
+            // 为解决方案使用的每条路径增加信息素
+            for (int i = 0; i < solution.getPathIndices().length; i++) {
+                pheromones[i][solution.getPathIndices()[i]] += contribution;
+            }
+        }
+    }
+    
+    private double calculateCost(Solution solution, Problem problem) {
+        return SolutionEvaluator.penalizedCost(solution, problem);
+    }
+    
+    private void updateSolutionMetrics(Solution solution, Problem problem) {
+        SolutionEvaluator.updateMetrics(solution, problem);
+    }
+} 
\ No newline at end of file
@@ -13,6 +13,7 @@ public class BacktrackingAlgorithm implements OptimizationAlgorithm {
     private int[] bestPath;               // 最优路径选择
     private double bestTotalTime;         // 最优解对应的总时间
     private boolean foundValidSolution;    // 是否找到有效解的标志
+    private double[] remainingDiscounts;   // 从某个顾客开始还可能获得的组合优惠下界，无优惠时全为0
     
     public BacktrackingAlgorithm(Map<String, Object> parameters) {
     }
@@ -24,6 +25,7 @@ public class BacktrackingAlgorithm implements OptimizationAlgorithm {
         bestPath = new int[n];
         bestTotalTime = 0;
         foundValidSolution = false;
+        remainingDiscounts = SolutionEvaluator.remainingDiscountBounds(problem);
         
         // 初始化当前路径
         int[] currentPath = new int[n];
@@ -58,8 +60,9 @@ public class BacktrackingAlgorithm implements OptimizationAlgorithm {
      */
     private void backtrack(Problem problem, int customerIndex, double currentTime, 
                          double currentCost, int[] currentPath) {
-        // 剪枝：如果当前时间已超过限制，或当前成本已超过最优解，则停止搜索
-        if (currentTime > problem.getTimeConstraint() || currentCost >= bestTotalCost) {
+        // 剪枝：如果当前时间已超过限制，或当前成本加上后续可能的优惠仍不优于最优解，则停止搜索
+        if (currentTime > problem.getTimeConstraint()
+                || currentCost + remainingDiscounts[customerIndex] >= bestTotalCost) {
             return;
         }
         
@@ -82,10 +85,12 @@ public class BacktrackingAlgorithm implements OptimizationAlgorithm {
         for (int i = 0; i < paths.size(); i++) {
             Path path = paths.get(i);
             double newTime = currentTime + path.getTime();
-            double newCost = currentCost + path.getDistance() + path.getCost();
+            double newCost = currentCost + path.getDistance() + path.getCost()
+                + SolutionEvaluator.prefixDiscount(problem, currentPath, customerIndex, i);
             
             // 如果满足时间约束且有可能得到更优解，继续搜索
-            if (newTime <= problem.getTimeConstraint() && newCost < bestTotalCost) {
+            if (newTime <= problem.getTimeConstraint()
+                    && newCost + remainingDiscounts[customerIndex + 1] < bestTotalCost) {
                 currentPath[customerIndex] = i;
                 backtrack(problem, customerIndex + 1, newTime, newCost, currentPath);
             }
@@ -128,6 +133,8 @@ public class BacktrackingAlgorithm implements OptimizationAlgorithm {
             totalCost += selectedPath.getDistance() + selectedPath.getCost();
         }
         
+        totalCost += SolutionEvaluator.discountTotal(problem, solution.getPathIndices());
+        
         // 如果总时间超过约束，添加惩罚
         if (totalTime > timeConstraint) {
             totalCost += (totalTime - timeConstraint) * 1000;
@@ -0,0 +1,158 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.PreprocessEvent;
+import model.*;
+import java.util.List;
+
+/**
+ * 批量解评估
+ * 按 Problem.getPathColumns() 的展开编号读取每条路径的 距离+费用 与 耗时，一次评估K个解；
+ * 堆上实例共用一份展开数组，堆外实例直接读段，不另外复制路径表。
+ * 解以结构数组形式传入：paths[顾客 * K + k] 为第k个解中该顾客选择的路径，
+ * 同一顾客在K个解中的选择连续存放，便于按列做向量gather。
+ *
+ * 默认使用标量实现。以 -Dpku.vector=true 启动，并且用 -P vector 构建、运行时加
+ * --add-modules jdk.incubator.vector 时，反射加载基于Vector API的实现；
+ * 任一条件不满足或CPU不支持多通道时自动退回标量实现。
+ * 两种实现按相同顺序累加，结果与SolutionEvaluator逐个计算完全一致。
+ *
+ * 实例内部复用缓冲区，非线程安全，每次求解各自创建。
+ */
+public abstract class BatchEvaluator {
+    public static final String VECTOR_PROPERTY = "pku.vector";
+    private static final String VECTOR_IMPLEMENTATION = "algorithm.VectorBatchEvaluator";
+    private static final Counter evaluations = Metrics.counter("solution_evaluations_total",
+        "Number of solutions evaluated", "mode", "batch");
+    private static final Counter batches = Metrics.counter("evaluation_batches_total",
+        "Number of batch evaluation calls");
+
+    protected final Problem problem;
+    protected final int customerCount;
+    protected final PathColumns columns;
+
+    private int[] pathBuffer = new int[0];
+    private double[] costBuffer = new double[0];
+    private double[] timeBuffer = new double[0];
+
+    protected BatchEvaluator(Problem problem) {
+        this.problem = problem;
+        this.customerCount = problem.getCustomers().size();
+        this.columns = problem.getPathColumns();
+    }
+
+    /**
+     * 按运行时开关选择实现，向量实现不可用时返回标量实现
+     */
+    public static BatchEvaluator create(Problem problem) {
+        PreprocessEvent event = new PreprocessEvent();
+        event.begin();
+        BatchEvaluator evaluator = null;
+        if (Boolean.getBoolean(VECTOR_PROPERTY)) {
+            try {
+                evaluator = (BatchEvaluator) Class.forName(VECTOR_IMPLEMENTATION)
+                    .getDeclaredConstructor(Problem.class)
+                    .newInstance(problem);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 未用vector profile构建、未加载jdk.incubator.vector模块或CPU不支持
+            }
+        }
+        if (evaluator == null) {
+            evaluator = new ScalarBatchEvaluator(problem);
+        }
+        if (event.shouldCommit()) {
+            event.step = "batch-tables:" + evaluator.getImplementationName();
+            event.customers = evaluator.customerCount;
+            event.commit();
+        }
+        return evaluator;
+    }
+
+    /**
+     * 累加K个解的基础成本与耗时，costs与times的前batchSize项由实现清零后写入
+     */
+    protected abstract void accumulate(int[] paths, int batchSize, double[] costs, double[] times);
+
+    public abstract String getImplementationName();
+
+    /**
+     * 评估结构数组形式的K个解，写入总成本（含组合优惠）与总时间
+     */
+    public void evaluate(int[] paths, int batchSize, double[] costs, double[] times) {
+        batches.increment();
+        evaluations.add(batchSize);
+        accumulate(paths, batchSize, costs, times);
+        if (problem.hasDiscounts()) {
+            addDiscounts(paths, batchSize, costs);
+        }
+    }
+
+    /**
+     * 评估一组解：写入每个解的总成本与总时间，返回含超时惩罚的成本
+     */
+    public double[] evaluate(List<Solution> solutions) {
+        int batchSize = solutions.size();
+        ensureCapacity(batchSize);
+        for (int k = 0; k < batchSize; k++) {
+            int[] indices = solutions.get(k).getPathIndices();
+            for (int i = 0; i < customerCount; i++) {
+                pathBuffer[i * batchSize + k] = indices[i];
+            }
+        }
+
+        double[] penalized = new double[batchSize];
+        evaluatePenalized(pathBuffer, batchSize, costBuffer, timeBuffer, penalized);
+        for (int k = 0; k < batchSize; k++) {
+            Solution solution = solutions.get(k);
+            solution.setTotalCost(costBuffer[k]);
+            solution.setTotalTime(timeBuffer[k]);
+        }
+        return penalized;
+    }
+
+    /**
+     * 评估结构数组形式的K个解，另写入含超时惩罚的成本；调用方提供全部数组，不分配内存
+     */
+    public void evaluatePenalized(int[] paths, int batchSize, double[] costs, double[] times, double[] penalized) {
+        evaluate(paths, batchSize, costs, times);
+        double timeConstraint = problem.getTimeConstraint();
+        for (int k = 0; k < batchSize; k++) {
+            penalized[k] = costs[k];
+            if (times[k] > timeConstraint) {
+                penalized[k] += (times[k] - timeConstraint) * SolutionEvaluator.TIME_PENALTY;
+            }
+        }
+    }
+
+    // 组合优惠是稀疏的，逐个解按行累加，每条优惠只从编号较小的顾客一侧计入
+    private void addDiscounts(int[] paths, int batchSize, double[] costs) {
+        SparseDiscountIndex index = problem.getDiscounts();
+        int customers = Math.min(customerCount, index.getCustomerCount());
+        for (int k = 0; k < batchSize; k++) {
+            double discount = 0;
+            for (int i = 0; i < customers; i++) {
+                int path = paths[i * batchSize + k];
+                if (path >= index.getPathsPerCustomer()) {
+                    continue;
+                }
+                int end = index.rowEnd(i, path);
+                for (int e = index.rowBegin(i, path); e < end; e++) {
+                    int j = index.partnerCustomer(e);
+                    if (j > i && j < customerCount && paths[j * batchSize + k] == index.partnerPath(e)) {
+                        discount += index.discountAt(e);
+                    }
+                }
+            }
+            costs[k] += discount;
+        }
+    }
+
+    private void ensureCapacity(int batchSize) {
+        if (costBuffer.length < batchSize) {
+            pathBuffer = new int[customerCount * batchSize];
+            costBuffer = new double[batchSize];
+            timeBuffer = new double[batchSize];
+        }
+    }
+}
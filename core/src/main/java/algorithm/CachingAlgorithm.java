@@ -0,0 +1,56 @@
+package algorithm;
+
+import model.Problem;
+import model.Solution;
+import java.util.Map;
+
+/**
+ * 带结果缓存的算法包装
+ * 精确命中时直接返回缓存解；仅时间约束不同且被包装算法支持热启动时，以旧解作为初始解求解
+ */
+public class CachingAlgorithm implements OptimizationAlgorithm {
+    private final OptimizationAlgorithm delegate;
+    private final String algorithmType;
+    private final Map<String, Object> parameters;
+    private final SolutionCache cache;
+    private final boolean warmStart;
+
+    public CachingAlgorithm(OptimizationAlgorithm delegate, String algorithmType, Map<String, Object> parameters,
+                            SolutionCache cache, boolean warmStart) {
+        this.delegate = delegate;
+        this.algorithmType = algorithmType;
+        this.parameters = parameters;
+        this.cache = cache;
+        this.warmStart = warmStart;
+    }
+
+    @Override
+    public Solution solve(Problem problem) {
+        SolutionCache.Key key = SolutionCache.keyOf(problem, algorithmType, parameters);
+        Solution cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Solution solution = null;
+        if (warmStart && delegate instanceof WarmStartable) {
+            Solution initialSolution = cache.getWarmStart(key);
+            if (initialSolution != null) {
+                solution = ((WarmStartable) delegate).solve(problem, initialSolution);
+            }
+        }
+        if (solution == null) {
+            solution = delegate.solve(problem);
+        }
+
+        if (solution != null) {
+            cache.put(key, solution);
+        }
+        return solution;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+}
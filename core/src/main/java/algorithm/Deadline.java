@@ -0,0 +1,31 @@
+package algorithm;
+
+/**
+ * 求解截止时间，用于限定重新优化等场景下的迭代时间预算
+ */
+final class Deadline {
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long deadlineNanos;
+    private final boolean limited;
+
+    private Deadline(long deadlineNanos, boolean limited) {
+        this.deadlineNanos = deadlineNanos;
+        this.limited = limited;
+    }
+
+    /**
+     * @param millis 预算毫秒数，不大于0表示不限时
+     */
+    static Deadline after(long millis) {
+        return millis > 0 ? new Deadline(System.nanoTime() + millis * 1_000_000L, true) : NONE;
+    }
+
+    static Deadline none() {
+        return NONE;
+    }
+
+    boolean expired() {
+        return limited && System.nanoTime() - deadlineNanos > 0;
+    }
+}
@@ -2,6 +2,12 @@ package algorithm;
 
 import model.*;
 import java.util.*;
+
+/**
+ * 动态规划算法（已弃用）
+ * 状态只包含顾客下标与累计时间，搜索时不考虑路径组合优惠；
+ * 对含组合优惠的问题，返回解的成本仍按SolutionEvaluator计入优惠
+ */
 @Deprecated
 public class DynamicProgramming implements OptimizationAlgorithm {
     private final int maxStates;
@@ -18,7 +24,7 @@ public class DynamicProgramming implements OptimizationAlgorithm {
     }
     
     public DynamicProgramming(Map<String, Object> parameters) {
-        this.maxStates = (int) parameters.getOrDefault("maxStates", 1000000);
+        this.maxStates = Parameters.getInt(parameters, "maxStates", 1000000);
         this.memo = new HashMap<>();
     }
     
@@ -144,16 +150,6 @@ public class DynamicProgramming implements OptimizationAlgorithm {
     }
     
     private void updateSolutionMetrics(Solution solution, Problem problem) {
-        double totalCost = 0;
-        double totalTime = 0;
-        
-        for (int i = 0; i < solution.getPathIndices().length; i++) {
-            Path path = problem.getPaths().get("customer_" + i).get(solution.getPathIndices()[i]);
-            totalCost += path.getDistance() + path.getCost();
-            totalTime += path.getTime();
-        }
-        
-        solution.setTotalCost(totalCost);
-        solution.setTotalTime(totalTime);
+        SolutionEvaluator.updateMetrics(solution, problem);
     }
 } 
\ No newline at end of file
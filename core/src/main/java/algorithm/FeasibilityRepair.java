@@ -0,0 +1,206 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.Metrics;
+import model.*;
+import java.util.*;
+
+/**
+ * 超时解的贪心可行化修复，供各元启发式算法在构造、交叉、变异之后共用
+ *
+ * 解超出时间约束时，反复把"每节省一分钟增加成本最少"的顾客换到更快的路径，直到满足约束：
+ *   比率 = (新路径成本 - 原路径成本) / (原路径耗时 - 新路径耗时)
+ * 每个顾客在每条路径上的最优更快路径在创建时预先算好（每条路径一个int），比率在入堆时从路径列算出；
+ * 路径数值经 Problem.getPathColumns() 读取，堆外实例不复制到堆上。修复时所有候选顾客放入按比率排序的堆，
+ * 每次交换后只把该顾客的下一步重新入堆。除一次 O(n) 的总时间累加外，k 次交换的代价为 O(k log n)。
+ * 剩余超时量不超过某次交换节省的时间时，改选该顾客能覆盖剩余超时量的最便宜路径，避免多节省时间。
+ *
+ * 成本按 距离+费用 计算，不考虑组合优惠。所有顾客都换到最快路径仍超时时返回false，解保持为最快路径。
+ * 实例内部复用堆缓冲区，非线程安全，每次求解各自创建。
+ */
+public final class FeasibilityRepair {
+    private static final Counter repaired = Metrics.counter("feasibility_repairs_total",
+        "Infeasible solutions passed to the repair operator", "result", "feasible");
+    private static final Counter unrepairable = Metrics.counter("feasibility_repairs_total",
+        "Infeasible solutions passed to the repair operator", "result", "infeasible");
+
+    private final Problem problem;
+    private final double timeConstraint;
+    private final int customerCount;
+    private final PathColumns columns;
+    private final int[] nextPath;         // 按展开编号：从该路径出发比率最小的更快路径（顾客内下标），没有时为-1
+
+    private final int[] heapCustomers;
+    private final double[] heapKeys;
+    private int heapSize;
+
+    private FeasibilityRepair(Problem problem) {
+        int n = problem.getCustomers().size();
+        this.problem = problem;
+        this.timeConstraint = problem.getTimeConstraint();
+        this.customerCount = n;
+        this.columns = problem.getPathColumns();
+        this.nextPath = new int[n == 0 ? 0 : columns.firstRow(n - 1) + problem.getPathCount(n - 1)];
+        for (int i = 0; i < n; i++) {
+            int first = columns.firstRow(i);
+            int pathCount = problem.getPathCount(i);
+            for (int p = 0; p < pathCount; p++) {
+                int best = -1;
+                double bestRatio = Double.POSITIVE_INFINITY;
+                for (int q = 0; q < pathCount; q++) {
+                    if (time(i, p) - time(i, q) <= 0) {
+                        continue;
+                    }
+                    double ratio = ratio(i, p, q);
+                    // 比率相同时取节省时间更多的路径
+                    if (ratio < bestRatio || (ratio == bestRatio && best >= 0 && time(i, q) < time(i, best))) {
+                        best = q;
+                        bestRatio = ratio;
+                    }
+                }
+                nextPath[first + p] = best;
+            }
+        }
+        this.heapCustomers = new int[n];
+        this.heapKeys = new double[n];
+    }
+
+    public static FeasibilityRepair create(Problem problem) {
+        return new FeasibilityRepair(problem);
+    }
+
+    /**
+     * 原地修复解的路径选择，不更新解的成本与时间（由调用方重新评估）
+     * @return 修复后是否满足时间约束
+     */
+    public boolean repair(Solution solution) {
+        return repair(solution.getPathIndices(), 0, 1);
+    }
+
+    /**
+     * 原地修复按步长存放的路径选择：第i个顾客的路径在 paths[offset + i * stride]，
+     * 例如GA结构数组种群中的第k个个体为 (genes, k, 种群规模)
+     * @return 修复后是否满足时间约束
+     */
+    public boolean repair(int[] paths, int offset, int stride) {
+        int n = customerCount;
+        double totalTime = 0;
+        for (int i = 0; i < n; i++) {
+            totalTime += time(i, paths[offset + i * stride]);
+        }
+        if (totalTime <= timeConstraint) {
+            return true;
+        }
+
+        heapSize = 0;
+        for (int i = 0; i < n; i++) {
+            int p = paths[offset + i * stride];
+            int q = next(i, p);
+            if (q >= 0) {
+                heapCustomers[heapSize] = i;
+                heapKeys[heapSize] = ratio(i, p, q);
+                heapSize++;
+            }
+        }
+        for (int k = heapSize / 2 - 1; k >= 0; k--) {
+            siftDown(k);
+        }
+
+        while (totalTime > timeConstraint && heapSize > 0) {
+            int customer = heapCustomers[0];
+            pop();
+            int index = offset + customer * stride;
+            int p = paths[index];
+            int q = next(customer, p);
+            double excess = totalTime - timeConstraint;
+            if (time(customer, p) - time(customer, q) >= excess) {
+                q = cheapestCovering(customer, p, excess);
+            }
+            totalTime += time(customer, q) - time(customer, p);
+            paths[index] = q;
+            int after = next(customer, q);
+            if (totalTime > timeConstraint && after >= 0) {
+                push(customer, ratio(customer, q, after));
+            }
+        }
+
+        boolean feasible = totalTime <= timeConstraint;
+        (feasible ? repaired : unrepairable).increment();
+        return feasible;
+    }
+
+    // 耗时不超过 原路径耗时 - excess 的路径中成本最低的一条；调用前已知至少存在一条
+    private int cheapestCovering(int customer, int from, double excess) {
+        double limit = time(customer, from) - excess;
+        int best = -1;
+        for (int q = 0; q < problem.getPathCount(customer); q++) {
+            if (time(customer, q) <= limit && (best < 0 || cost(customer, q) < cost(customer, best))) {
+                best = q;
+            }
+        }
+        return best;
+    }
+
+    private int next(int customer, int path) {
+        return nextPath[columns.firstRow(customer) + path];
+    }
+
+    // 从from换到更快的to时，每节省一分钟增加的成本
+    private double ratio(int customer, int from, int to) {
+        return (cost(customer, to) - cost(customer, from)) / (time(customer, from) - time(customer, to));
+    }
+
+    private double cost(int customer, int path) {
+        return columns.rowCost(columns.firstRow(customer) + path);
+    }
+
+    private double time(int customer, int path) {
+        return columns.rowTime(columns.firstRow(customer) + path);
+    }
+
+    private void push(int customer, double key) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            heapCustomers[i] = heapCustomers[parent];
+            heapKeys[i] = heapKeys[parent];
+            i = parent;
+        }
+        heapCustomers[i] = customer;
+        heapKeys[i] = key;
+    }
+
+    private void pop() {
+        heapSize--;
+        if (heapSize > 0) {
+            heapCustomers[0] = heapCustomers[heapSize];
+            heapKeys[0] = heapKeys[heapSize];
+            siftDown(0);
+        }
+    }
+
+    private void siftDown(int i) {
+        int customer = heapCustomers[i];
+        double key = heapKeys[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (heapKeys[child] >= key) {
+                break;
+            }
+            heapCustomers[i] = heapCustomers[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heapCustomers[i] = customer;
+        heapKeys[i] = key;
+    }
+}
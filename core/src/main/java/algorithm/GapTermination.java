@@ -0,0 +1,64 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.Metrics;
+import model.Problem;
+import model.Solution;
+
+/**
+ * 基于最优性差距的提前终止
+ * 算法参数 gapTolerance 不小于0时，求解开始前用LowerBound算出下界，
+ * 每轮迭代后若 (当前最优惩罚成本 - 下界) / |当前最优惩罚成本| 不超过 gapTolerance 即停止；
+ * 未设置或为负时不计算下界，行为与原先相同。返回的解记录下界，供结果输出已证明的差距。
+ */
+final class GapTermination {
+    private static final GapTermination DISABLED = new GapTermination(null, Double.NaN, -1);
+    private static final Counter stopped = Metrics.counter("gap_terminations_total",
+        "Solves stopped early because the optimality gap fell below gapTolerance");
+
+    private final Problem problem;
+    private final double lowerBound;
+    private final double tolerance;
+
+    private GapTermination(Problem problem, double lowerBound, double tolerance) {
+        this.problem = problem;
+        this.lowerBound = lowerBound;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param tolerance 相对差距阈值，小于0表示不启用
+     */
+    static GapTermination create(Problem problem, double tolerance) {
+        return tolerance >= 0 ? new GapTermination(problem, LowerBound.compute(problem), tolerance) : DISABLED;
+    }
+
+    /**
+     * @param incumbentCost 当前最优解含超时惩罚的成本
+     */
+    boolean reached(double incumbentCost) {
+        if (tolerance < 0 || gap(incumbentCost, lowerBound) > tolerance) {
+            return false;
+        }
+        stopped.increment();
+        return true;
+    }
+
+    /**
+     * 在返回的解上记录下界和按惩罚成本计算的差距，未启用时不修改
+     */
+    Solution certify(Solution solution) {
+        if (solution != null && tolerance >= 0) {
+            solution.setLowerBound(lowerBound, gap(SolutionEvaluator.penalizedCost(solution, problem), lowerBound));
+        }
+        return solution;
+    }
+
+    static double gap(double incumbentCost, double lowerBound) {
+        double difference = incumbentCost - lowerBound;
+        if (difference <= 0) {
+            return 0;
+        }
+        return difference / Math.abs(incumbentCost);
+    }
+}
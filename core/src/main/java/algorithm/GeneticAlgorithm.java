@@ -0,0 +1,333 @@
+package algorithm;
+
+import metrics.IterationEvent;
+import model.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * 遗传算法
+ * 种群以结构数组保存：genes[顾客 * 种群规模 + 个体] 为该个体给该顾客选择的路径，
+ * 与BatchEvaluator的输入布局一致，可整代直接评估。
+ * 当前代与下一代各用一块预分配的缓冲区，每代结束后交换；适应度缓存在平行的double[]中。
+ * 选择、交叉、变异都原地写入下一代缓冲区，稳定运行时每代不产生新对象。
+ * repairInfeasible 开启（默认）时，初始个体和每个子代在评估前经FeasibilityRepair修复为可行。
+ * 设置 gapTolerance 时，当前代最优个体与下界的差距不超过该值即提前结束。
+ * 设置 checkpointFile 时，求解中定期保存当前代、适应度和随机数状态，下次求解从保存的代继续。
+ */
+public class GeneticAlgorithm implements OptimizationAlgorithm, Reoptimizable {
+    private final int populationSize;
+    private final int maxGenerations;
+    private final double mutationRate;
+    private final long timeLimitMs;
+    private final boolean repairInfeasible;
+    private final double gapTolerance;
+    private final String checkpointFile;
+    private final long checkpointIntervalMs;
+    private final RestorableRandom random = new RestorableRandom();
+    private Problem problem;
+    private Deadline deadline = Deadline.none();
+
+    private int customerCount;
+    private int[] pathCounts;      // 每个顾客的候选路径数
+    private int[] genes;           // 当前代
+    private int[] nextGenes;       // 下一代
+    private double[] fitness;      // 当前代各个体含超时惩罚的成本
+    private double[] nextFitness;
+    private double[] costs;        // 批量评估的成本与时间输出
+    private double[] times;
+    private int[] order;           // 前若干格为适应度最好的个体下标，从好到差
+    private BatchEvaluator evaluator;
+    private FeasibilityRepair repair;
+    private GapTermination termination;
+    private int[] lastGenes;       // 上一次求解的最终种群，供重新优化时迁移
+
+    public GeneticAlgorithm(Map<String, Object> parameters) {
+        this.populationSize = Parameters.getInt(parameters, "populationSize", 100);
+        this.maxGenerations = Parameters.getInt(parameters, "maxGenerations", 1000);
+        this.mutationRate = Parameters.getDouble(parameters, "mutationRate", 0.1);
+        this.timeLimitMs = Parameters.getInt(parameters, "timeLimitMs", 0);
+        this.repairInfeasible = Parameters.getBoolean(parameters, "repairInfeasible", true);
+        this.gapTolerance = Parameters.getDouble(parameters, "gapTolerance", -1);
+        this.checkpointFile = Parameters.getString(parameters, "checkpointFile", null);
+        this.checkpointIntervalMs = Parameters.getInt(parameters, "checkpointIntervalMs", 60_000);
+    }
+
+    @Override
+    public Solution solve(Problem problem) {
+        prepare(problem, Deadline.after(timeLimitMs));
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(checkpointFile, checkpointIntervalMs, "GA", problem);
+        try {
+            if (checkpoint.restore(random, this::readPopulation) == null) {
+                initializePopulation();
+                repairAndEvaluate();
+            }
+            return evolve(checkpoint);
+        } finally {
+            checkpoint.finish();
+        }
+    }
+
+    @Override
+    public Solution solve(Problem problem, Solution initialSolution) {
+        return solve(problem, initialSolution, Deadline.after(timeLimitMs));
+    }
+
+    private Solution solve(Problem problem, Solution initialSolution, Deadline deadline) {
+        prepare(problem, deadline);
+        initializePopulation();
+        // 用初始解替换第0个个体（初始种群随机生成，替换哪个都一样），精英保留保证它不会丢失
+        setIndividual(genes, 0, initialSolution.getPathIndices());
+        repairAndEvaluate();
+        return evolve(SearchCheckpoint.disabled());
+    }
+
+    @Override
+    public Solution reoptimize(Problem problem, Solution previousSolution, int[] customerMapping, long timeBudgetMillis) {
+        int[] previousGenes = lastGenes;
+        if (previousGenes == null) {
+            return solve(problem, previousSolution, Deadline.after(timeBudgetMillis));
+        }
+        prepare(problem, Deadline.after(timeBudgetMillis));
+
+        // 迁移上一代种群：未变化的顾客沿用个体原有的基因，新增或变化的顾客取上一次解中对齐后的路径
+        int[] previousIndices = previousSolution.getPathIndices();
+        for (int i = 0; i < customerCount; i++) {
+            int oldIndex = customerMapping[i];
+            for (int k = 0; k < populationSize; k++) {
+                genes[i * populationSize + k] = oldIndex >= 0
+                    ? previousGenes[oldIndex * populationSize + k]
+                    : previousIndices[i];
+            }
+        }
+        setIndividual(genes, 0, previousIndices);
+        repairAndEvaluate();
+        return evolve(SearchCheckpoint.disabled());
+    }
+
+    // 为本次求解分配缓冲区，上一次的种群保留在lastGenes中供迁移
+    private void prepare(Problem problem, Deadline deadline) {
+        this.problem = problem;
+        this.deadline = deadline;
+        this.customerCount = problem.getCustomers().size();
+        this.pathCounts = new int[customerCount];
+        for (int i = 0; i < customerCount; i++) {
+            pathCounts[i] = problem.getPathCount(i);
+        }
+        genes = new int[customerCount * populationSize];
+        nextGenes = new int[customerCount * populationSize];
+        if (fitness == null) {
+            fitness = new double[populationSize];
+            nextFitness = new double[populationSize];
+            costs = new double[populationSize];
+            times = new double[populationSize];
+            order = new int[populationSize];
+        }
+        evaluator = BatchEvaluator.create(problem);
+        repair = repairInfeasible ? FeasibilityRepair.create(problem) : null;
+        termination = GapTermination.create(problem, gapTolerance);
+    }
+
+    private void repairAndEvaluate() {
+        if (repair != null) {
+            for (int k = 0; k < populationSize; k++) {
+                repair.repair(genes, k, populationSize);
+            }
+        }
+        evaluator.evaluatePenalized(genes, populationSize, costs, times, fitness);
+    }
+
+    // 从checkpoint记录的代开始进化，当前代须已修复并评估
+    private Solution evolve(SearchCheckpoint checkpoint) {
+        int eliteCount = populationSize / 10;
+        int rankedCount = Math.min(populationSize, Math.max(1, eliteCount));  // 精英与当前最优个体
+
+        for (int generation = checkpoint.startIteration(); generation < maxGenerations && !deadline.expired(); generation++) {
+            if (checkpoint.due()) {
+                checkpoint.save(generation, random, this::writePopulation);
+                if (checkpoint.stopRequested()) {
+                    break;
+                }
+            }
+            selectBest(rankedCount);
+            if (IterationEvent.sampled(generation)) {
+                IterationEvent.emit("GA", generation, customerCount, fitness[order[0]]);
+            }
+            if (termination.reached(fitness[order[0]])) {
+                break;
+            }
+
+            // 精英直接进入下一代
+            for (int e = 0; e < eliteCount; e++) {
+                copyIndividual(genes, order[e], nextGenes, e);
+            }
+
+            for (int child = eliteCount; child < populationSize; child++) {
+                int parent1 = selectParent();
+                int parent2 = selectParent();
+                crossover(parent1, parent2, child);
+                if (random.nextDouble() < mutationRate) {
+                    mutate(child);
+                }
+                if (repair != null) {
+                    repair.repair(nextGenes, child, populationSize);
+                }
+            }
+
+            // 整代批量评估后交换缓冲区
+            evaluator.evaluatePenalized(nextGenes, populationSize, costs, times, nextFitness);
+            int[] swapGenes = genes;
+            genes = nextGenes;
+            nextGenes = swapGenes;
+            double[] swapFitness = fitness;
+            fitness = nextFitness;
+            nextFitness = swapFitness;
+        }
+
+        checkpoint.complete();
+        // 最后一次评估的costs/times对应当前代
+        int best = 0;
+        for (int k = 1; k < populationSize; k++) {
+            if (fitness[k] < fitness[best]) {
+                best = k;
+            }
+        }
+        lastGenes = genes;
+        if (populationSize == 0) {
+            return null;
+        }
+        Solution solution = new Solution(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            solution.setPathIndex(i, genes[i * populationSize + best]);
+        }
+        solution.setTotalCost(costs[best]);
+        solution.setTotalTime(times[best]);
+        return termination.certify(solution);
+    }
+
+    @Override
+    public String getName() {
+        return "遗传算法(GA)";
+    }
+
+    // 检查点中的算法状态：当前代的基因、适应度及对应的成本与时间
+    private void writePopulation(DataOutputStream out) throws IOException {
+        SearchCheckpoint.writeInts(out, genes);
+        SearchCheckpoint.writeDoubles(out, fitness);
+        SearchCheckpoint.writeDoubles(out, costs);
+        SearchCheckpoint.writeDoubles(out, times);
+    }
+
+    private int[] readPopulation(DataInputStream in) throws IOException {
+        SearchCheckpoint.readInto(in, genes);
+        SearchCheckpoint.readInto(in, fitness);
+        SearchCheckpoint.readInto(in, costs);
+        SearchCheckpoint.readInto(in, times);
+        return genes;
+    }
+
+    private void initializePopulation() {
+        for (int i = 0; i < customerCount; i++) {
+            for (int k = 0; k < populationSize; k++) {
+                genes[i * populationSize + k] = random.nextInt(pathCounts[i]);
+            }
+        }
+    }
+
+    // 把适应度最好的count个个体按从好到差写入order[0..count)，适应度相同时下标小的在前。
+    // 在order前count格上维护以"最差"为堆顶的堆，每个个体最多替换一次堆顶，最后原地堆排序，O(P log count)
+    private void selectBest(int count) {
+        for (int k = 0; k < populationSize; k++) {
+            if (k < count) {
+                order[k] = k;
+                siftUp(k);
+            } else if (worse(order[0], k)) {
+                order[0] = k;
+                siftDown(0, count);
+            }
+        }
+        for (int size = count - 1; size > 0; size--) {
+            int top = order[0];
+            order[0] = order[size];
+            order[size] = top;
+            siftDown(0, size);
+        }
+    }
+
+    private boolean worse(int a, int b) {
+        return fitness[a] > fitness[b] || (fitness[a] == fitness[b] && a > b);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!worse(order[i], order[parent])) {
+                break;
+            }
+            int swap = order[i];
+            order[i] = order[parent];
+            order[parent] = swap;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && worse(order[child + 1], order[child])) {
+                child++;
+            }
+            if (!worse(order[child], order[i])) {
+                break;
+            }
+            int swap = order[i];
+            order[i] = order[child];
+            order[child] = swap;
+            i = child;
+        }
+    }
+
+    // 锦标赛选择，返回个体下标
+    private int selectParent() {
+        int tournamentSize = 5;
+        int best = -1;
+
+        for (int i = 0; i < tournamentSize; i++) {
+            int candidate = random.nextInt(populationSize);
+            if (best < 0 || fitness[candidate] < fitness[best]) {
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    // 单点交叉，子代直接写入下一代缓冲区
+    private void crossover(int parent1, int parent2, int child) {
+        int crossoverPoint = random.nextInt(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            int parent = i < crossoverPoint ? parent1 : parent2;
+            nextGenes[i * populationSize + child] = genes[i * populationSize + parent];
+        }
+    }
+
+    private void mutate(int child) {
+        int customerIndex = random.nextInt(customerCount);
+        nextGenes[customerIndex * populationSize + child] = random.nextInt(pathCounts[customerIndex]);
+    }
+
+    private void copyIndividual(int[] from, int fromIndex, int[] to, int toIndex) {
+        for (int i = 0; i < customerCount; i++) {
+            to[i * populationSize + toIndex] = from[i * populationSize + fromIndex];
+        }
+    }
+
+    private void setIndividual(int[] target, int index, int[] pathIndices) {
+        for (int i = 0; i < customerCount; i++) {
+            target[i * populationSize + index] = pathIndices[i];
+        }
+    }
+}
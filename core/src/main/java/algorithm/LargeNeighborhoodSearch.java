@@ -0,0 +1,399 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.IterationEvent;
+import metrics.Metrics;
+import model.*;
+import java.util.*;
+
+/**
+ * 大邻域搜索（LNS），适合上万顾客的大规模实例
+ *
+ * 每次迭代用破坏算子选出 destroySize 个顾客，冻结其余顾客的路径，
+ * 在剩余时间预算（时间约束 - 冻结顾客的总耗时）内用多选背包DP精确重选这些顾客的路径：
+ *   dp[j][b] = 前j个被释放顾客在b个时间桶内的最小 距离+费用
+ * 路径耗时按桶宽向上取整，DP给出的组合一定满足时间约束，在桶宽精度下是子问题的最优解。
+ * 桶宽取 timeResolution 与 剩余预算/dpBuckets 中的较大者，单次修复的代价与全问题规模无关。
+ *
+ * 破坏算子：
+ *   RANDOM   随机选顾客
+ *   COST     在随机抽样中选"当前成本 - 最低可能成本"最大的顾客，即最有改进空间的顾客
+ *   RELATED  按最低成本路径的耗时排序，取随机种子附近耗时相近的一段顾客，便于它们之间相互腾挪时间
+ * 算子按自适应轮盘选择（ALNS）：每 SEGMENT 次迭代按各算子的平均得分更新权重，
+ * 得到新最优解得 SCORE_BEST 分，改进当前解得 SCORE_IMPROVED 分。
+ *
+ * DP只按 距离+费用 计算，接受与否按SolutionEvaluator的惩罚成本判断，含组合优惠时同样适用。
+ * 支持 timeLimitMs 时间上限，随时可以停止并返回当前最优解；支持热启动和增量重新优化，
+ * 重新优化时沿用上一次求解学到的算子权重。设置 gapTolerance 时，最优解与下界的差距不超过该值即提前结束。
+ */
+public class LargeNeighborhoodSearch implements OptimizationAlgorithm, Reoptimizable {
+    private static final int SEGMENT = 50;
+    private static final double REACTION = 0.2;
+    private static final double MIN_WEIGHT = 0.05;
+    private static final double SCORE_BEST = 3;
+    private static final double SCORE_IMPROVED = 1;
+    private static final int COST_SAMPLE_FACTOR = 3;
+
+    private enum Destroy { RANDOM, COST, RELATED }
+
+    private final int destroySize;
+    private final int maxIterations;
+    private final int dpBuckets;
+    private final double timeResolution;
+    private final long timeLimitMs;
+    private final double gapTolerance;
+    private final Random random = new Random();
+    private final double[] weights = {1, 1, 1};  // 各破坏算子的轮盘权重，跨求解保留
+    private static final Counter acceptedMoves = Metrics.counter("search_moves_total",
+        "Local search moves by result", "algorithm", "LNS", "result", "accepted");
+    private static final Counter rejectedMoves = Metrics.counter("search_moves_total",
+        "Local search moves by result", "algorithm", "LNS", "result", "rejected");
+
+    // 每次求解的路径列（堆外实例不复制）与按顾客的预处理结果
+    private PathColumns columns;
+    private int[] pathCounts;
+    private double[] cheapestCost;
+    private int[] relatedOrder;      // 按最低成本路径耗时排序的顾客
+    private int[] relatedPosition;   // 顾客在relatedOrder中的位置
+
+    public LargeNeighborhoodSearch(Map<String, Object> parameters) {
+        this.destroySize = Parameters.getInt(parameters, "destroySize", 30);
+        this.maxIterations = Parameters.getInt(parameters, "maxIterations", 2000);
+        this.dpBuckets = Parameters.getInt(parameters, "dpBuckets", 2000);
+        this.timeResolution = Parameters.getDouble(parameters, "timeResolution", 0.01);
+        this.timeLimitMs = Parameters.getInt(parameters, "timeLimitMs", 0);
+        this.gapTolerance = Parameters.getDouble(parameters, "gapTolerance", -1);
+    }
+
+    @Override
+    public Solution solve(Problem problem) {
+        prepare(problem);
+        return search(problem, initialSolution(problem), Deadline.after(timeLimitMs));
+    }
+
+    @Override
+    public Solution solve(Problem problem, Solution initialSolution) {
+        prepare(problem);
+        return search(problem, initialSolution, Deadline.after(timeLimitMs));
+    }
+
+    @Override
+    public Solution reoptimize(Problem problem, Solution previousSolution, int[] customerMapping, long timeBudgetMillis) {
+        prepare(problem);
+        return search(problem, previousSolution, Deadline.after(timeBudgetMillis));
+    }
+
+    @Override
+    public String getName() {
+        return "大邻域搜索算法(LNS)";
+    }
+
+    private void prepare(Problem problem) {
+        int n = problem.getCustomers().size();
+        columns = problem.getPathColumns();
+        pathCounts = new int[n];
+        cheapestCost = new double[n];
+        double[] cheapestTime = new double[n];
+        for (int i = 0; i < n; i++) {
+            pathCounts[i] = problem.getPathCount(i);
+            cheapestCost[i] = Double.POSITIVE_INFINITY;
+            for (int p = 0; p < pathCounts[i]; p++) {
+                if (cost(i, p) < cheapestCost[i]) {
+                    cheapestCost[i] = cost(i, p);
+                    cheapestTime[i] = time(i, p);
+                }
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> cheapestTime[i]));
+        relatedOrder = new int[n];
+        relatedPosition = new int[n];
+        for (int k = 0; k < n; k++) {
+            relatedOrder[k] = order[k];
+            relatedPosition[order[k]] = k;
+        }
+    }
+
+    private double cost(int customer, int path) {
+        return columns.rowCost(columns.firstRow(customer) + path);
+    }
+
+    private double time(int customer, int path) {
+        return columns.rowTime(columns.firstRow(customer) + path);
+    }
+
+    // 每个顾客先取成本最低的路径，超时则经FeasibilityRepair换到更快的路径；实例存在可行解时结果一定可行
+    private Solution initialSolution(Problem problem) {
+        int n = problem.getCustomers().size();
+        Solution solution = new Solution(n);
+        for (int i = 0; i < n; i++) {
+            int cheapest = 0;
+            for (int p = 1; p < pathCounts[i]; p++) {
+                if (cost(i, p) < cost(i, cheapest)) {
+                    cheapest = p;
+                }
+            }
+            solution.setPathIndex(i, cheapest);
+        }
+        FeasibilityRepair.create(problem).repair(solution);
+        SolutionEvaluator.updateMetrics(solution, problem);
+        return solution;
+    }
+
+    private Solution search(Problem problem, Solution initialSolution, Deadline deadline) {
+        int n = problem.getCustomers().size();
+        int[] current = initialSolution.getPathIndices().clone();
+        Solution best = new Solution(current);
+        SolutionEvaluator.updateMetrics(best, problem);
+        if (n == 0) {
+            return best;
+        }
+        double currentTime = 0;
+        double currentPathCost = 0;   // Σ(距离 + 费用)，随接受的移动增量维护
+        for (int i = 0; i < n; i++) {
+            currentTime += time(i, current[i]);
+            currentPathCost += cost(i, current[i]);
+        }
+        double currentCost = SolutionEvaluator.penalizedCost(best, problem);
+        double bestCost = currentCost;
+        GapTermination termination = GapTermination.create(problem, gapTolerance);
+
+        int size = Math.min(destroySize, n);
+        int[] freed = new int[size];
+        int[] repaired = new int[size];
+        int[] previous = new int[size];
+        boolean[] chosen = new boolean[n];
+        double[] scores = new double[weights.length];
+        int[] uses = new int[weights.length];
+
+        for (int iteration = 0; iteration < maxIterations && !deadline.expired()
+                && !termination.reached(bestCost); iteration++) {
+            Destroy operator = selectOperator();
+            destroy(operator, current, freed, chosen);
+
+            double freedTime = 0;
+            for (int customer : freed) {
+                freedTime += time(customer, current[customer]);
+            }
+            double residual = problem.getTimeConstraint() - (currentTime - freedTime);
+            if (!repair(freed, residual, repaired)) {
+                // 剩余预算放不下任何组合（当前解超时），改为全部取最快路径以缩短总时间
+                for (int k = 0; k < size; k++) {
+                    repaired[k] = fastestPath(freed[k]);
+                }
+            }
+
+            double newTime = currentTime;
+            double newPathCost = currentPathCost;
+            for (int k = 0; k < size; k++) {
+                int customer = freed[k];
+                previous[k] = current[customer];
+                newTime += time(customer, repaired[k]) - time(customer, previous[k]);
+                newPathCost += cost(customer, repaired[k]) - cost(customer, previous[k]);
+                current[customer] = repaired[k];
+            }
+            double newCost = penalizedCost(problem, current, newPathCost, newTime);
+
+            double score = 0;
+            if (newCost <= currentCost) {
+                acceptedMoves.increment();
+                if (newCost < currentCost) {
+                    score = SCORE_IMPROVED;
+                }
+                currentCost = newCost;
+                currentTime = newTime;
+                currentPathCost = newPathCost;
+                if (newCost < bestCost) {
+                    bestCost = newCost;
+                    best = new Solution(current);
+                    score = SCORE_BEST;
+                }
+            } else {
+                rejectedMoves.increment();
+                for (int k = 0; k < size; k++) {
+                    current[freed[k]] = previous[k];
+                }
+            }
+            for (int customer : freed) {
+                chosen[customer] = false;
+            }
+
+            scores[operator.ordinal()] += score;
+            uses[operator.ordinal()]++;
+            if ((iteration + 1) % SEGMENT == 0) {
+                updateWeights(scores, uses);
+            }
+            if (IterationEvent.sampled(iteration)) {
+                IterationEvent.emit("LNS", iteration, n, bestCost);
+            }
+        }
+
+        SolutionEvaluator.updateMetrics(best, problem);
+        return termination.certify(best);
+    }
+
+    // 不含组合优惠时按增量维护的累计量直接计算，避免每次迭代遍历全部顾客
+    private double penalizedCost(Problem problem, int[] pathIndices, double pathCost, double totalTime) {
+        if (problem.hasDiscounts()) {
+            return SolutionEvaluator.penalizedCost(new Solution(pathIndices), problem);
+        }
+        if (totalTime > problem.getTimeConstraint()) {
+            pathCost += (totalTime - problem.getTimeConstraint()) * SolutionEvaluator.TIME_PENALTY;
+        }
+        return pathCost;
+    }
+
+    private int fastestPath(int customer) {
+        int fastest = 0;
+        for (int p = 1; p < pathCounts[customer]; p++) {
+            if (time(customer, p) < time(customer, fastest)) {
+                fastest = p;
+            }
+        }
+        return fastest;
+    }
+
+    // ---------------------------------------------------------------- 破坏
+
+    private Destroy selectOperator() {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double pick = random.nextDouble() * total;
+        for (Destroy operator : Destroy.values()) {
+            pick -= weights[operator.ordinal()];
+            if (pick < 0) {
+                return operator;
+            }
+        }
+        return Destroy.RANDOM;
+    }
+
+    private void updateWeights(double[] scores, int[] uses) {
+        for (int k = 0; k < weights.length; k++) {
+            if (uses[k] > 0) {
+                weights[k] = Math.max(MIN_WEIGHT, (1 - REACTION) * weights[k] + REACTION * scores[k] / uses[k]);
+            }
+            scores[k] = 0;
+            uses[k] = 0;
+        }
+    }
+
+    /**
+     * 选出freed.length个不重复的顾客写入freed，并在chosen中标记
+     */
+    private void destroy(Destroy operator, int[] current, int[] freed, boolean[] chosen) {
+        int n = current.length;
+        int size = freed.length;
+        switch (operator) {
+            case RANDOM -> {
+                for (int k = 0; k < size; k++) {
+                    freed[k] = pickUnchosen(n, chosen);
+                }
+            }
+            case COST -> {
+                // 抽样若干倍的顾客，保留改进空间最大的size个
+                int sample = Math.min(n, size * COST_SAMPLE_FACTOR);
+                int[] candidates = new int[sample];
+                for (int k = 0; k < sample; k++) {
+                    candidates[k] = pickUnchosen(n, chosen);
+                }
+                for (int candidate : candidates) {
+                    chosen[candidate] = false;
+                }
+                Integer[] order = new Integer[sample];
+                for (int k = 0; k < sample; k++) {
+                    order[k] = candidates[k];
+                }
+                Arrays.sort(order, Comparator.comparingDouble(
+                    (Integer i) -> cost(i, current[i]) - cheapestCost[i]).reversed());
+                for (int k = 0; k < size; k++) {
+                    freed[k] = order[k];
+                    chosen[order[k]] = true;
+                }
+            }
+            case RELATED -> {
+                int start = Math.max(0, Math.min(n - size, relatedPosition[random.nextInt(n)] - size / 2));
+                for (int k = 0; k < size; k++) {
+                    freed[k] = relatedOrder[start + k];
+                    chosen[freed[k]] = true;
+                }
+            }
+        }
+    }
+
+    private int pickUnchosen(int n, boolean[] chosen) {
+        int customer;
+        do {
+            customer = random.nextInt(n);
+        } while (chosen[customer]);
+        chosen[customer] = true;
+        return customer;
+    }
+
+    // ---------------------------------------------------------------- 修复
+
+    /**
+     * 多选背包DP：在residual时间内为freed中的顾客各选一条路径使 距离+费用 最小，结果写入repaired。
+     * 路径耗时可能为负，每个顾客的耗时先减去其最短耗时、residual相应扣除，使背包重量非负。
+     * 没有可行组合时返回false
+     */
+    private boolean repair(int[] freed, double residual, int[] repaired) {
+        int m = freed.length;
+        double[] shift = new double[m];   // 每个被释放顾客的最短路径耗时
+        for (int j = 0; j < m; j++) {
+            shift[j] = time(freed[j], 0);
+            for (int p = 1; p < pathCounts[freed[j]]; p++) {
+                shift[j] = Math.min(shift[j], time(freed[j], p));
+            }
+            residual -= shift[j];
+        }
+        if (residual < 0) {
+            return false;
+        }
+        double width = Math.max(timeResolution, residual / dpBuckets);
+        int buckets = (int) Math.min(dpBuckets, Math.floor(residual / width + 1e-9));
+        double[] dp = new double[buckets + 1];        // dp[b]：已处理顾客在b个桶内的最小成本
+        double[] next = new double[buckets + 1];
+        int[][] choice = new int[m][buckets + 1];
+
+        for (int j = 0; j < m; j++) {
+            int customer = freed[j];
+            int first = columns.firstRow(customer);
+            Arrays.fill(next, Double.POSITIVE_INFINITY);
+            for (int p = 0; p < pathCounts[customer]; p++) {
+                int weight = (int) Math.ceil((columns.rowTime(first + p) - shift[j]) / width - 1e-9);
+                if (weight > buckets) {
+                    continue;
+                }
+                double cost = columns.rowCost(first + p);
+                for (int b = weight; b <= buckets; b++) {
+                    double candidate = dp[b - weight] + cost;
+                    if (candidate < next[b]) {
+                        next[b] = candidate;
+                        choice[j][b] = p;
+                    }
+                }
+            }
+            double[] swap = dp;
+            dp = next;
+            next = swap;
+        }
+        if (dp[buckets] == Double.POSITIVE_INFINITY) {
+            return false;
+        }
+
+        // 从最后一个顾客回溯所选路径
+        int b = buckets;
+        for (int j = m - 1; j >= 0; j--) {
+            int p = choice[j][b];
+            repaired[j] = p;
+            b -= (int) Math.ceil((time(freed[j], p) - shift[j]) / width - 1e-9);
+        }
+        return true;
+    }
+}
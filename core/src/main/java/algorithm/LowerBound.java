@@ -0,0 +1,99 @@
+package algorithm;
+
+import model.*;
+import java.util.*;
+
+/**
+ * 惩罚成本的下界：多选背包的线性规划松弛
+ *
+ * 允许每个顾客按比例混合多条路径，超时部分按 TIME_PENALTY 计价，松弛问题的最优值可以贪心求出：
+ *   1. 每个顾客先取成本最低的路径（成本相同取耗时更短的）
+ *   2. 每个顾客从该路径出发沿(耗时, 成本)的下凸包向更快的路径走，每段的斜率为"每节省一分钟增加的成本"，
+ *      同一顾客各段的斜率不减
+ *   3. 所有顾客的凸包段按斜率从小到大依次采用，直到满足时间约束或斜率不小于超时惩罚，最后一段可以只取一部分
+ * 任何整数解都是松弛问题的可行解，所以下界不超过任何解的惩罚成本。
+ *
+ * 组合优惠按SolutionEvaluator.remainingDiscountBounds取所有顾客可能获得的最大优惠，下界仍然成立，只是更松。
+ * 代价为 O(Σ路径数² + 凸包段数·log)，每次求解只算一次。
+ */
+public final class LowerBound {
+    private LowerBound() {
+    }
+
+    public static double compute(Problem problem) {
+        int n = problem.getCustomers().size();
+        double timeConstraint = problem.getTimeConstraint();
+        double penalty = SolutionEvaluator.TIME_PENALTY;
+
+        double totalCost = 0;
+        double totalTime = 0;
+        double[] segmentSlopes = new double[16];
+        double[] segmentSavings = new double[16];
+        int segmentCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            int pathCount = problem.getPathCount(i);
+            double[] costs = new double[pathCount];
+            double[] times = new double[pathCount];
+            int current = 0;
+            for (int p = 0; p < pathCount; p++) {
+                costs[p] = problem.getPathDistance(i, p) + problem.getPathCost(i, p);
+                times[p] = problem.getPathTime(i, p);
+                if (costs[p] < costs[current] || (costs[p] == costs[current] && times[p] < times[current])) {
+                    current = p;
+                }
+            }
+            totalCost += costs[current];
+            totalTime += times[current];
+
+            // 沿下凸包走向更快的路径：每步取斜率最小的更快路径，斜率相同时取节省时间更多的
+            while (true) {
+                int next = -1;
+                double nextSlope = Double.POSITIVE_INFINITY;
+                for (int q = 0; q < pathCount; q++) {
+                    double saved = times[current] - times[q];
+                    if (saved <= 0) {
+                        continue;
+                    }
+                    double slope = (costs[q] - costs[current]) / saved;
+                    if (slope < nextSlope || (slope == nextSlope && times[q] < times[next])) {
+                        next = q;
+                        nextSlope = slope;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                if (segmentCount == segmentSlopes.length) {
+                    segmentSlopes = Arrays.copyOf(segmentSlopes, segmentCount * 2);
+                    segmentSavings = Arrays.copyOf(segmentSavings, segmentCount * 2);
+                }
+                segmentSlopes[segmentCount] = nextSlope;
+                segmentSavings[segmentCount] = times[current] - times[next];
+                segmentCount++;
+                current = next;
+            }
+        }
+
+        if (totalTime > timeConstraint) {
+            Integer[] order = new Integer[segmentCount];
+            for (int k = 0; k < segmentCount; k++) {
+                order[k] = k;
+            }
+            double[] slopes = segmentSlopes;
+            Arrays.sort(order, Comparator.comparingDouble(k -> slopes[k]));
+            for (int k = 0; k < segmentCount && totalTime > timeConstraint; k++) {
+                int segment = order[k];
+                if (slopes[segment] >= penalty) {
+                    break;
+                }
+                double used = Math.min(segmentSavings[segment], totalTime - timeConstraint);
+                totalCost += used * slopes[segment];
+                totalTime -= used;
+            }
+        }
+
+        double bound = totalCost + Math.max(0, totalTime - timeConstraint) * penalty;
+        return bound + SolutionEvaluator.remainingDiscountBounds(problem)[0];
+    }
+}
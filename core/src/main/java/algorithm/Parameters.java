@@ -0,0 +1,35 @@
+package algorithm;
+
+import java.util.Map;
+
+/**
+ * 算法参数读取工具
+ * 参数可能来自YAML(Integer/Double)或JSON(统一为Double)，这里按Number统一转换
+ */
+final class Parameters {
+    private Parameters() {
+    }
+
+    static int getInt(Map<String, Object> parameters, String key, int defaultValue) {
+        Object value = parameters.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    static double getDouble(Map<String, Object> parameters, String key, double defaultValue) {
+        Object value = parameters.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    static String getString(Map<String, Object> parameters, String key, String defaultValue) {
+        Object value = parameters.get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    static boolean getBoolean(Map<String, Object> parameters, String key, boolean defaultValue) {
+        Object value = parameters.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value instanceof String ? Boolean.parseBoolean((String) value) : defaultValue;
+    }
+}
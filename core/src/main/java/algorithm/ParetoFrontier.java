@@ -0,0 +1,296 @@
+package algorithm;
+
+import model.*;
+import java.util.*;
+
+/**
+ * 成本-时间预算的帕累托前沿（参数化求解）
+ *
+ * 一次计算得到所有时间预算下的最优成本：按顾客逐阶段合并，每阶段保留前 i 个顾客所有非支配的
+ * (总时间, 总成本) 组合，即时间更短或成本更低、不被其他组合同时超过的组合。
+ * 最后一阶段的前沿按时间升序、成本严格降序排列，任意预算 T 的最优解就是时间不超过 T 的最后一个点，
+ * 通过每个点记录的上一阶段下标和所选路径回溯得到完整解。
+ *
+ * 每阶段把上一阶段前沿分别平移每条候选路径的 (时间, 成本)，得到若干条各自有序的序列，
+ * 以序列头部为键的小顶堆多路归并，一次扫描去掉被支配的点，代价为 前沿大小 x 路径数 x log(路径数)。
+ * 只有最后一阶段的时间与成本被保留，中间阶段每点只记一个int（上一阶段下标 x 路径数 + 所选路径）用于回溯；
+ * 只需要 costAt 等查询时可以不记录，内存只与单阶段前沿大小成正比。
+ *
+ * 可选参数：
+ *   maxTime         只关心不超过该预算的答案时，加上剩余顾客最短时间后仍超过它的组合直接丢弃
+ *   timeResolution  大于0时同一时间桶内只保留成本最低的点，限制前沿大小；
+ *                   保留点的时间仍是精确值，最短总时间也是精确的，答案总是可行，只可能略差于精确前沿
+ * compute(Problem) 使用 defaultResolution，把前沿限制在约 DEFAULT_MAX_POINTS 个点；
+ * 需要精确前沿时显式传入 timeResolution = 0，此时前沿大小随顾客数增长很快。
+ *
+ * 前沿只按 距离 + 费用 计算，不考虑路径组合优惠；对含组合优惠的问题，
+ * 返回解的成本仍按SolutionEvaluator计入优惠，但不保证是该预算下的最优。
+ */
+public final class ParetoFrontier {
+    /** 默认时间分辨率下前沿的最大点数 */
+    public static final int DEFAULT_MAX_POINTS = 4096;
+
+    private final Problem problem;
+    private final int customerCount;
+    // 最后阶段的前沿，按时间升序、成本严格降序
+    private final double[] times;
+    private final double[] costs;
+    // 各阶段每点的 上一阶段下标 * 路径数 + 所选路径，不记录解时为null
+    private final int[][] steps;
+
+    private ParetoFrontier(Problem problem, int customerCount, double[] times, double[] costs, int[][] steps) {
+        this.problem = problem;
+        this.customerCount = customerCount;
+        this.times = times;
+        this.costs = costs;
+        this.steps = steps;
+    }
+
+    public static ParetoFrontier compute(Problem problem) {
+        return compute(problem, Double.POSITIVE_INFINITY, defaultResolution(problem));
+    }
+
+    public static ParetoFrontier compute(Problem problem, double maxTime, double timeResolution) {
+        return compute(problem, maxTime, timeResolution, true);
+    }
+
+    /**
+     * @param withSolutions 为false时不记录回溯信息，solutionAt 与 solutionFor 不可用
+     */
+    public static ParetoFrontier compute(Problem problem, double maxTime, double timeResolution,
+                                         boolean withSolutions) {
+        int customerCount = problem.getCustomers().size();
+        // 剩余顾客的最短时间之和，用于按 maxTime 剪枝（路径时间可以为负）
+        double[] remainingMinTime = new double[customerCount + 1];
+        for (int i = customerCount - 1; i >= 0; i--) {
+            double minTime = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < problem.getPathCount(i); j++) {
+                minTime = Math.min(minTime, problem.getPathTime(i, j));
+            }
+            remainingMinTime[i] = remainingMinTime[i + 1] + minTime;
+        }
+
+        int[][] steps = withSolutions ? new int[customerCount][] : null;
+        Stage previous = new Stage();
+        previous.add(0, 0, 0);
+        Stage next = new Stage();
+        for (int i = 0; i < customerCount; i++) {
+            next.clear();
+            mergeStage(problem, i, previous, next, maxTime - remainingMinTime[i + 1], timeResolution);
+            if (steps != null) {
+                steps[i] = Arrays.copyOf(next.steps, next.size);
+            }
+            Stage swap = previous;
+            previous = next;
+            next = swap;
+        }
+        return new ParetoFrontier(problem, customerCount, Arrays.copyOf(previous.times, previous.size),
+            Arrays.copyOf(previous.costs, previous.size), steps);
+    }
+
+    /**
+     * 使前沿不超过约 DEFAULT_MAX_POINTS 个点的时间分辨率：
+     * 非支配点的总时间介于各顾客最短时间之和与各顾客最低成本路径时间之和之间，把这段等分
+     */
+    public static double defaultResolution(Problem problem) {
+        double span = 0;
+        for (int i = 0; i < problem.getCustomers().size(); i++) {
+            double minTime = Double.POSITIVE_INFINITY;
+            double cheapestCost = Double.POSITIVE_INFINITY;
+            double cheapestTime = 0;
+            for (int j = 0; j < problem.getPathCount(i); j++) {
+                double time = problem.getPathTime(i, j);
+                double cost = problem.getPathDistance(i, j) + problem.getPathCost(i, j);
+                minTime = Math.min(minTime, time);
+                if (cost < cheapestCost || (cost == cheapestCost && time < cheapestTime)) {
+                    cheapestCost = cost;
+                    cheapestTime = time;
+                }
+            }
+            span += cheapestTime - minTime;
+        }
+        return span > 0 ? span / DEFAULT_MAX_POINTS : 0;
+    }
+
+    // 上一阶段前沿平移每条路径后用小顶堆多路归并，扫描时只保留成本严格下降的点
+    private static void mergeStage(Problem problem, int customer, Stage previous, Stage next,
+                                   double timeLimit, double timeResolution) {
+        int pathCount = problem.getPathCount(customer);
+        if ((long) previous.size * pathCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Pareto frontier too large at customer " + customer
+                + ", set a positive timeResolution");
+        }
+        double[] pathTimes = new double[pathCount];
+        double[] pathCosts = new double[pathCount];
+        for (int j = 0; j < pathCount; j++) {
+            pathTimes[j] = problem.getPathTime(customer, j);
+            pathCosts[j] = problem.getPathDistance(customer, j) + problem.getPathCost(customer, j);
+        }
+
+        // heap 中是路径下标，键为该路径序列当前头部的 (时间, 成本)
+        int[] heads = new int[pathCount];
+        double[] headTimes = new double[pathCount];
+        double[] headCosts = new double[pathCount];
+        int[] heap = new int[pathCount];
+        int heapSize = 0;
+        if (previous.size > 0) {
+            for (int j = 0; j < pathCount; j++) {
+                headTimes[j] = previous.times[0] + pathTimes[j];
+                headCosts[j] = previous.costs[0] + pathCosts[j];
+                heap[heapSize++] = j;
+            }
+            for (int k = heapSize / 2 - 1; k >= 0; k--) {
+                siftDown(heap, heapSize, k, headTimes, headCosts);
+            }
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        while (heapSize > 0) {
+            int path = heap[0];
+            double time = headTimes[path];
+            double cost = headCosts[path];
+            if (time > timeLimit) {
+                break;
+            }
+            int from = heads[path]++;
+            if (heads[path] < previous.size) {
+                headTimes[path] = previous.times[heads[path]] + pathTimes[path];
+                headCosts[path] = previous.costs[heads[path]] + pathCosts[path];
+            } else {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, 0, headTimes, headCosts);
+
+            if (cost >= bestCost) {
+                continue;
+            }
+            bestCost = cost;
+            // 与上一个保留点落在同一时间桶时替换它（成本更低），最快的点总是保留
+            if (timeResolution > 0 && next.size > 1
+                && Math.floor(next.times[next.size - 1] / timeResolution) == Math.floor(time / timeResolution)) {
+                next.size--;
+            }
+            next.add(time, cost, from * pathCount + path);
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int index, double[] times, double[] costs) {
+        int item = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && earlier(heap[child + 1], heap[child], times, costs)) {
+                child++;
+            }
+            if (!earlier(heap[child], item, times, costs)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+
+    // 时间更短，时间相同时成本更低
+    private static boolean earlier(int a, int b, double[] times, double[] costs) {
+        return times[a] < times[b] || (times[a] == times[b] && costs[a] < costs[b]);
+    }
+
+    // 一个阶段的前沿，两个实例在阶段间交替复用
+    private static final class Stage {
+        double[] times = new double[16];
+        double[] costs = new double[16];
+        int[] steps = new int[16];
+        int size;
+
+        void add(double time, double cost, int step) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+                steps = Arrays.copyOf(steps, capacity);
+            }
+            times[size] = time;
+            costs[size] = cost;
+            steps[size] = step;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * 前沿上的点数
+     */
+    public int size() {
+        return times.length;
+    }
+
+    public double getTime(int index) {
+        return times[index];
+    }
+
+    public double getCost(int index) {
+        return costs[index];
+    }
+
+    /**
+     * 时间不超过预算的最优点下标，没有可行点时返回-1
+     */
+    public int indexFor(double timeBudget) {
+        int low = 0;
+        int high = size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (getTime(mid) <= timeBudget) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 预算下的最优成本，没有可行解时返回NaN
+     */
+    public double costAt(double timeBudget) {
+        int index = indexFor(timeBudget);
+        return index < 0 ? Double.NaN : getCost(index);
+    }
+
+    /**
+     * 回溯前沿上第index个点对应的完整解，总成本与总时间由SolutionEvaluator计算
+     */
+    public Solution solutionAt(int index) {
+        if (steps == null) {
+            throw new IllegalStateException("Pareto frontier was computed without solutions");
+        }
+        Solution solution = new Solution(customerCount);
+        int point = index;
+        for (int i = customerCount - 1; i >= 0; i--) {
+            int pathCount = problem.getPathCount(i);
+            solution.setPathIndex(i, steps[i][point] % pathCount);
+            point = steps[i][point] / pathCount;
+        }
+        SolutionEvaluator.updateMetrics(solution, problem);
+        return solution;
+    }
+
+    /**
+     * 预算下的最优解；预算小于最短可能时间时返回总时间最短的解（超时），
+     * 设置的maxTime过小导致前沿为空时返回null
+     */
+    public Solution solutionFor(double timeBudget) {
+        if (size() == 0) {
+            return null;
+        }
+        return solutionAt(Math.max(indexFor(timeBudget), 0));
+    }
+}
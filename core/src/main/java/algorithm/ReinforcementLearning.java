@@ -1,36 +1,99 @@
 package algorithm;
 
 import model.*;
+import java.io.*;
 import java.util.*;
 
-public class ReinforcementLearning implements OptimizationAlgorithm {
+public class ReinforcementLearning implements OptimizationAlgorithm, Reoptimizable {
     private final int episodes;
     private final double learningRate;
     private final double discountFactor;
     private final double epsilon;
-    private final Random random = new Random();
+    private final long timeLimitMs;
+    private final double gapTolerance;
+    private final String checkpointFile;
+    private final long checkpointIntervalMs;
+    private final RestorableRandom random = new RestorableRandom();
     private Map<String, double[]> qTable;
     
+    // 检查点中保存的最优解与可行解计数，Q表直接读回字段
+    private record Progress(Solution best, int feasibleSolutionsCount) {
+    }
+    
     public ReinforcementLearning(Map<String, Object> parameters) {
-        this.episodes = (int) parameters.getOrDefault("episodes", 1000);
-        this.learningRate = (double) parameters.getOrDefault("learningRate", 0.1);
-        this.discountFactor = (double) parameters.getOrDefault("discountFactor", 0.9);
-        this.epsilon = (double) parameters.getOrDefault("epsilon", 0.1);
+        this.episodes = Parameters.getInt(parameters, "episodes", 1000);
+        this.learningRate = Parameters.getDouble(parameters, "learningRate", 0.1);
+        this.discountFactor = Parameters.getDouble(parameters, "discountFactor", 0.9);
+        this.epsilon = Parameters.getDouble(parameters, "epsilon", 0.1);
+        this.timeLimitMs = Parameters.getInt(parameters, "timeLimitMs", 0);
+        this.gapTolerance = Parameters.getDouble(parameters, "gapTolerance", -1);
+        this.checkpointFile = Parameters.getString(parameters, "checkpointFile", null);
+        this.checkpointIntervalMs = Parameters.getInt(parameters, "checkpointIntervalMs", 60_000);
         this.qTable = new HashMap<>();
     }
     
     @Override
     public Solution solve(Problem problem) {
         initializeQTable(problem);
-        Solution bestSolution = generateInitialSolution(problem);
-        double bestReward = calculateReward(bestSolution, problem);
+        // 设置checkpointFile时定期保存Q表、最优解、计数和随机数状态，下次求解从保存的回合继续
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(checkpointFile, checkpointIntervalMs, "RL", problem);
+        try {
+            return train(problem, generateInitialSolution(problem), Deadline.after(timeLimitMs), checkpoint);
+        } finally {
+            checkpoint.finish();
+        }
+    }
+    
+    @Override
+    public Solution solve(Problem problem, Solution initialSolution) {
+        initializeQTable(problem);
+        Solution solution = initialSolution.clone();
+        updateSolutionMetrics(solution, problem);
+        return train(problem, solution, Deadline.after(timeLimitMs), SearchCheckpoint.disabled());
+    }
+    
+    @Override
+    public Solution reoptimize(Problem problem, Solution previousSolution, int[] customerMapping, long timeBudgetMillis) {
+        // 未变化顾客的Q值按新下标迁移，新增或变化的顾客从零开始学习
+        Map<String, double[]> previousTable = qTable;
+        qTable = new HashMap<>();
+        for (int i = 0; i < customerMapping.length; i++) {
+            double[] oldValues = customerMapping[i] >= 0 ? previousTable.get(getState(customerMapping[i])) : null;
+            qTable.put(getState(i), oldValues != null
+                ? oldValues.clone()
+                : new double[problem.getPaths().get("customer_" + i).size()]);
+        }
+        Solution solution = previousSolution.clone();
+        updateSolutionMetrics(solution, problem);
+        return train(problem, solution, Deadline.after(timeBudgetMillis), SearchCheckpoint.disabled());
+    }
+    
+    private Solution train(Problem problem, Solution initialSolution, Deadline deadline, SearchCheckpoint checkpoint) {
+        Solution bestSolution = initialSolution;
         
         // 记录找到可行解的次数，用于提前停止条件
         int feasibleSolutionsCount = 0;
+        Progress restored = checkpoint.restore(random, this::readState);
+        if (restored != null) {
+            bestSolution = restored.best();
+            feasibleSolutionsCount = restored.feasibleSolutionsCount();
+        }
+        double bestReward = calculateReward(bestSolution, problem);
         int stagnationLimit = 1000;  // 连续找到可行解多少次后停止
+        // 设置gapTolerance时，最优解与下界的差距足够小即提前结束
+        GapTermination termination = GapTermination.create(problem, gapTolerance);
+        double bestCost = SolutionEvaluator.penalizedCost(bestSolution, problem);
         
         // Training phase
-        for (int episode = 0; episode < episodes; episode++) {
+        for (int episode = checkpoint.startIteration(); episode < episodes && !deadline.expired()
+                && !termination.reached(bestCost); episode++) {
+            if (checkpoint.due()) {
+                Progress progress = new Progress(bestSolution, feasibleSolutionsCount);
+                checkpoint.save(episode, random, out -> writeState(out, progress));
+                if (checkpoint.stopRequested()) {
+                    break;
+                }
+            }
             Solution solution = runEpisode(problem);
             double reward = calculateReward(solution, problem);
             
@@ -38,6 +101,7 @@ public class ReinforcementLearning implements OptimizationAlgorithm {
             if (reward > bestReward) {
                 bestReward = reward;
                 bestSolution = solution.clone();
+                bestCost = SolutionEvaluator.penalizedCost(bestSolution, problem);
                 
                 // 如果是可行解，记录下来
                 if (solution.getTotalTime() <= problem.getTimeConstraint()) {
@@ -52,7 +116,27 @@ public class ReinforcementLearning implements OptimizationAlgorithm {
                 }
             }
         }
-        return bestSolution;
+        checkpoint.complete();
+        return termination.certify(bestSolution);
+    }
+    
+    private void writeState(DataOutputStream out, Progress progress) throws IOException {
+        out.writeInt(qTable.size());
+        for (Map.Entry<String, double[]> entry : qTable.entrySet()) {
+            out.writeUTF(entry.getKey());
+            SearchCheckpoint.writeDoubles(out, entry.getValue());
+        }
+        SearchCheckpoint.writeSolution(out, progress.best());
+        out.writeInt(progress.feasibleSolutionsCount());
+    }
+    
+    private Progress readState(DataInputStream in) throws IOException {
+        qTable.clear();
+        int size = in.readInt();
+        for (int k = 0; k < size; k++) {
+            qTable.put(in.readUTF(), SearchCheckpoint.readDoubles(in));
+        }
+        return new Progress(SearchCheckpoint.readSolution(in), in.readInt());
     }
     
     private Solution generateInitialSolution(Problem problem) {
@@ -140,7 +224,8 @@ public class ReinforcementLearning implements OptimizationAlgorithm {
             currentTime += path.getTime();
             
             // Update Q-value
-            double reward = calculateStepReward(path, currentTime, problem.getTimeConstraint());
+            double reward = calculateStepReward(path, currentTime, problem.getTimeConstraint())
+                - SolutionEvaluator.prefixDiscount(problem, solution.getPathIndices(), customerIndex, action);
             String nextState = getState(customerIndex + 1);
             
             if (qTable.containsKey(nextState)) {
@@ -198,16 +283,6 @@ public class ReinforcementLearning implements OptimizationAlgorithm {
     }
     
     private void updateSolutionMetrics(Solution solution, Problem problem) {
-        double totalCost = 0;
-        double totalTime = 0;
-        
-        for (int i = 0; i < solution.getPathIndices().length; i++) {
-            Path path = problem.getPaths().get("customer_" + i).get(solution.getPathIndices()[i]);
-            totalCost += path.getDistance() + path.getCost();
-            totalTime += path.getTime();
-        }
-        
-        solution.setTotalCost(totalCost);
-        solution.setTotalTime(totalTime);
+        SolutionEvaluator.updateMetrics(solution, problem);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package algorithm;
+
+import model.Problem;
+import model.Solution;
+
+/**
+ * 支持增量重新优化的算法
+ * 算法保留上一次求解的内部状态（种群、信息素、禁忌表、Q表等），问题变化后按顾客映射迁移这些状态，
+ * 并从上一次的解出发在给定时间预算内继续搜索
+ */
+public interface Reoptimizable extends WarmStartable {
+    /**
+     * @param problem 变化后的问题
+     * @param previousSolution 已按新顾客下标对齐的上一次解，新增或变化的顾客已填入初始路径
+     * @param customerMapping 新顾客下标 -> 上一次求解时的顾客下标；新增顾客或路径被更新的顾客为-1
+     * @param timeBudgetMillis 本次重新优化的时间预算
+     */
+    Solution reoptimize(Problem problem, Solution previousSolution, int[] customerMapping, long timeBudgetMillis);
+}
@@ -0,0 +1,46 @@
+package algorithm;
+
+import java.util.Random;
+
+/**
+ * 可以读出和恢复内部状态的随机数生成器，供检查点保存随机数序列的位置
+ * 与java.util.Random使用相同的48位线性同余生成器，相同种子产生完全相同的序列；
+ * 不使用nextGaussian的缓存值，恢复状态后的后续序列与未中断时一致。非线程安全。
+ * 序列化时state随子类字段一并写出，反序列化后从同一位置继续；父类的种子不参与生成。
+ */
+final class RestorableRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    RestorableRandom() {
+        this(new Random().nextLong());
+    }
+
+    RestorableRandom(long seed) {
+        super(seed);
+        setSeed(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,33 @@
+package algorithm;
+
+import model.Problem;
+
+/**
+ * 批量评估的标量实现，也是向量实现不可用时的退路
+ */
+final class ScalarBatchEvaluator extends BatchEvaluator {
+
+    ScalarBatchEvaluator(Problem problem) {
+        super(problem);
+    }
+
+    @Override
+    protected void accumulate(int[] paths, int batchSize, double[] costs, double[] times) {
+        for (int k = 0; k < batchSize; k++) {
+            double cost = 0;
+            double time = 0;
+            for (int i = 0; i < customerCount; i++) {
+                int row = columns.firstRow(i) + paths[i * batchSize + k];
+                cost += columns.rowCost(row);
+                time += columns.rowTime(row);
+            }
+            costs[k] = cost;
+            times[k] = time;
+        }
+    }
+
+    @Override
+    public String getImplementationName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,285 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.Metrics;
+import model.Problem;
+import model.Solution;
+import java.io.*;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 长时间求解的检查点：定期并在进程关闭时把搜索状态写入紧凑的二进制文件，下次求解从中恢复
+ *
+ * 算法参数：
+ *   checkpointFile        检查点文件路径，未设置时不启用
+ *   checkpointIntervalMs  定期写入的间隔，默认60秒
+ * 文件存在时求解从其中记录的迭代继续，恢复随机数状态后后续行为与未中断的运行完全一致；
+ * 正常结束（迭代用完、超时或达到差距阈值）后删除文件，被关闭中断时保留。
+ *
+ * 布局（大端序）：
+ *   int    魔数 0x504B434B ("PKCK")
+ *   int    版本号 1
+ *   UTF    算法类型
+ *   long   问题内容哈希（与SolutionCache的键相同），double 时间约束
+ *   int    下一轮迭代序号
+ *   long   随机数生成器状态
+ *   随后为各算法自己的状态
+ *
+ * restore成功后注册关闭钩子：收到关闭信号后，求解线程在下一轮迭代开始时写入检查点并停止，
+ * 钩子最多等待 SHUTDOWN_WAIT_MS。写入先写临时文件再原子替换，中途被杀不会留下损坏的检查点。
+ * 调用方在 try/finally 中调用 finish() 注销钩子，检查点无法恢复或搜索抛出异常时也不会遗留钩子。
+ */
+final class SearchCheckpoint {
+    private static final int MAGIC = 0x504B434B;
+    private static final int VERSION = 1;
+    private static final long SHUTDOWN_WAIT_MS = 10_000;
+    private static final SearchCheckpoint DISABLED = new SearchCheckpoint(null, null, 0, 0, 0);
+    private static final Counter written = Metrics.counter("checkpoints_written_total",
+        "Search checkpoints written to disk");
+
+    @FunctionalInterface
+    interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private final Path file;
+    private final String algorithm;
+    private final long problemHash;
+    private final double timeConstraint;
+    private final long intervalNanos;
+    private final CountDownLatch saved = new CountDownLatch(1);
+    private volatile boolean shutdownRequested;
+    private Thread hook;
+    private long lastSaveNanos = System.nanoTime();
+    private int startIteration;
+
+    private SearchCheckpoint(Path file, String algorithm, long problemHash, double timeConstraint,
+                             long intervalMillis) {
+        this.file = file;
+        this.algorithm = algorithm;
+        this.problemHash = problemHash;
+        this.timeConstraint = timeConstraint;
+        this.intervalNanos = intervalMillis * 1_000_000L;
+    }
+
+    static SearchCheckpoint disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param fileName 检查点文件路径，null表示不启用
+     */
+    static SearchCheckpoint open(String fileName, long intervalMillis, String algorithm, Problem problem) {
+        if (fileName == null) {
+            return DISABLED;
+        }
+        long problemHash = SolutionCache.keyOf(problem, algorithm, Map.of()).contentHash();
+        return new SearchCheckpoint(Paths.get(fileName), algorithm, problemHash, problem.getTimeConstraint(),
+            intervalMillis);
+    }
+
+    /**
+     * 检查点文件存在时恢复随机数状态并由reader读取算法状态，成功（或没有检查点）后注册关闭钩子
+     * @return reader的返回值，没有检查点时为null
+     */
+    <T> T restore(RestorableRandom random, Reader<T> reader) {
+        if (file == null) {
+            return null;
+        }
+        if (!Files.exists(file)) {
+            registerHook();
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a search checkpoint");
+            }
+            String savedAlgorithm = in.readUTF();
+            long savedHash = in.readLong();
+            double savedTimeConstraint = in.readDouble();
+            if (!savedAlgorithm.equals(algorithm) || savedHash != problemHash
+                || Double.compare(savedTimeConstraint, timeConstraint) != 0) {
+                throw new IOException("written by " + savedAlgorithm + " for a different problem");
+            }
+            int iteration = in.readInt();
+            random.setState(in.readLong());
+            T state = reader.read(in);
+            startIteration = iteration;
+            registerHook();
+            return state;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot resume from checkpoint " + file + ": " + e.getMessage()
+                + " (delete the file to start a new solve)", e);
+        }
+    }
+
+    /**
+     * 恢复时的起始迭代，没有恢复时为0
+     */
+    int startIteration() {
+        return startIteration;
+    }
+
+    /**
+     * 距上次写入超过间隔或已收到关闭信号时，本轮迭代开始前应写入检查点
+     */
+    boolean due() {
+        return file != null && (shutdownRequested || System.nanoTime() - lastSaveNanos >= intervalNanos);
+    }
+
+    /**
+     * 写入检查点，iteration为恢复后要执行的下一轮迭代。写入失败只打印错误，不中断求解
+     */
+    void save(int iteration, RestorableRandom random, Writer writer) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(algorithm);
+                out.writeLong(problemHash);
+                out.writeDouble(timeConstraint);
+                out.writeInt(iteration);
+                out.writeLong(random.getState());
+                writer.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            written.increment();
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint " + file + ": " + e.getMessage());
+        }
+        lastSaveNanos = System.nanoTime();
+        if (shutdownRequested) {
+            saved.countDown();
+        }
+    }
+
+    /**
+     * 收到关闭信号且已写入检查点时，求解应立即停止
+     */
+    boolean stopRequested() {
+        return shutdownRequested && saved.getCount() == 0;
+    }
+
+    private void registerHook() {
+        hook = new Thread(this::awaitShutdownSave, "checkpoint-shutdown");
+        Runtime.getRuntime().addShutdownHook(hook);
+    }
+
+    /**
+     * 搜索正常结束（迭代用完、超时或达到差距阈值）时删除检查点，被关闭中断时保留
+     */
+    void complete() {
+        if (file == null || shutdownRequested) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 注销关闭钩子，无论求解正常结束还是抛出异常都应在finally中调用；不删除检查点
+     */
+    void finish() {
+        if (hook != null && !shutdownRequested) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // 进程已在关闭
+            }
+            hook = null;
+        }
+        saved.countDown();
+    }
+
+    private void awaitShutdownSave() {
+        shutdownRequested = true;
+        try {
+            saved.await(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    /**
+     * 读入已分配的数组，长度与检查点不一致说明参数已改变
+     */
+    static void readInto(DataInputStream in, int[] target) throws IOException {
+        int[] values = readInts(in);
+        if (values.length != target.length) {
+            throw new IOException("array length " + values.length + " does not match " + target.length);
+        }
+        System.arraycopy(values, 0, target, 0, values.length);
+    }
+
+    static void readInto(DataInputStream in, double[] target) throws IOException {
+        double[] values = readDoubles(in);
+        if (values.length != target.length) {
+            throw new IOException("array length " + values.length + " does not match " + target.length);
+        }
+        System.arraycopy(values, 0, target, 0, values.length);
+    }
+
+    /**
+     * 写入可以为null的解：路径选择、总成本、总时间
+     */
+    static void writeSolution(DataOutputStream out, Solution solution) throws IOException {
+        out.writeBoolean(solution != null);
+        if (solution != null) {
+            writeInts(out, solution.getPathIndices());
+            out.writeDouble(solution.getTotalCost());
+            out.writeDouble(solution.getTotalTime());
+        }
+    }
+
+    static Solution readSolution(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Solution solution = new Solution(readInts(in));
+        solution.setTotalCost(in.readDouble());
+        solution.setTotalTime(in.readDouble());
+        return solution;
+    }
+}
@@ -1,42 +1,71 @@
 package algorithm;
 
+import metrics.Counter;
+import metrics.Metrics;
 import model.*;
 import java.util.*;
 
-public class SimulatedAnnealing implements OptimizationAlgorithm {
+public class SimulatedAnnealing implements OptimizationAlgorithm, WarmStartable {
     private final double initialTemp;
     private final double coolingRate;
     private final double finalTemp;
+    private final boolean repairInfeasible;
+    private final double gapTolerance;
+    private FeasibilityRepair repair;
     private final Random random = new Random();
+    private static final Counter acceptedMoves = Metrics.counter("search_moves_total",
+        "Local search moves by result", "algorithm", "SA", "result", "accepted");
+    private static final Counter rejectedMoves = Metrics.counter("search_moves_total",
+        "Local search moves by result", "algorithm", "SA", "result", "rejected");
     
     public SimulatedAnnealing(Map<String, Object> parameters) {
-        this.initialTemp = (double) parameters.getOrDefault("initialTemp", 100.0);
-        this.coolingRate = (double) parameters.getOrDefault("coolingRate", 0.95);
-        this.finalTemp = (double) parameters.getOrDefault("finalTemp", 0.01);
+        this.initialTemp = Parameters.getDouble(parameters, "initialTemp", 100.0);
+        this.coolingRate = Parameters.getDouble(parameters, "coolingRate", 0.95);
+        this.finalTemp = Parameters.getDouble(parameters, "finalTemp", 0.01);
+        this.repairInfeasible = Parameters.getBoolean(parameters, "repairInfeasible", true);
+        this.gapTolerance = Parameters.getDouble(parameters, "gapTolerance", -1);
     }
     
     @Override
     public Solution solve(Problem problem) {
-        Solution currentSolution = generateInitialSolution(problem);
+        return solve(problem, generateInitialSolution(problem));
+    }
+    
+    @Override
+    public Solution solve(Problem problem, Solution initialSolution) {
+        // 开启修复时，初始解和每个超时的邻居先修复为可行再评估
+        repair = repairInfeasible ? FeasibilityRepair.create(problem) : null;
+        Solution currentSolution = initialSolution.clone();
+        if (repair != null) {
+            repair.repair(currentSolution);
+        }
+        updateSolutionMetrics(currentSolution, problem);
         Solution bestSolution = currentSolution.clone();
         double temperature = initialTemp;
+        // 设置gapTolerance时，最优解与下界的差距足够小即提前结束
+        GapTermination termination = GapTermination.create(problem, gapTolerance);
+        double bestEnergy = calculateEnergy(bestSolution, problem);
         
-        while (temperature > finalTemp) {
+        while (temperature > finalTemp && !termination.reached(bestEnergy)) {
             Solution newSolution = generateNeighbor(currentSolution, problem);
             double currentEnergy = calculateEnergy(currentSolution, problem);
             double newEnergy = calculateEnergy(newSolution, problem);
             
             if (acceptanceProbability(currentEnergy, newEnergy, temperature) > random.nextDouble()) {
+                acceptedMoves.increment();
                 currentSolution = newSolution;
                 if (newEnergy < calculateEnergy(bestSolution, problem)) {
                     bestSolution = newSolution.clone();
+                    bestEnergy = newEnergy;
                 }
+            } else {
+                rejectedMoves.increment();
             }
             
             temperature *= coolingRate;
         }
         
-        return bestSolution;
+        return termination.certify(bestSolution);
     }
     
     @Override
@@ -52,7 +81,7 @@ public class SimulatedAnnealing implements OptimizationAlgorithm {
     private Solution generateInitialSolution(Problem problem) {
         Solution solution = new Solution(problem.getCustomers().size());
         for (int i = 0; i < problem.getCustomers().size(); i++) {
-            int pathIndex = random.nextInt(problem.getPaths().get("customer_" + i).size());
+            int pathIndex = random.nextInt(problem.getPathCount(i));
             solution.setPathIndex(i, pathIndex);
         }
         updateSolutionMetrics(solution, problem);
@@ -63,42 +92,21 @@ public class SimulatedAnnealing implements OptimizationAlgorithm {
         Solution neighbor = current.clone();
         // 随机选择一个顾客并改变其路径
         int customerIndex = random.nextInt(problem.getCustomers().size());
-        int newPathIndex = random.nextInt(problem.getPaths().get("customer_" + customerIndex).size());
+        int newPathIndex = random.nextInt(problem.getPathCount(customerIndex));
         neighbor.setPathIndex(customerIndex, newPathIndex);
+        if (repair != null) {
+            repair.repair(neighbor);
+        }
         updateSolutionMetrics(neighbor, problem);
         return neighbor;
     }
     
     private double calculateEnergy(Solution solution, Problem problem) {
-        double totalCost = 0;
-        double totalTime = 0;
-        
-        for (int i = 0; i < solution.getPathIndices().length; i++) {
-            Path path = problem.getPaths().get("customer_" + i).get(solution.getPathIndices()[i]);
-            totalCost += path.getDistance() + path.getCost();
-            totalTime += path.getTime();
-        }
-        
-        // 添加时间约束惩罚
-        if (totalTime > problem.getTimeConstraint()) {
-            totalCost += (totalTime - problem.getTimeConstraint()) * 1000;
-        }
-        
-        return totalCost;
+        return SolutionEvaluator.penalizedCost(solution, problem);
     }
     
     private void updateSolutionMetrics(Solution solution, Problem problem) {
-        double totalCost = 0;
-        double totalTime = 0;
-        
-        for (int i = 0; i < solution.getPathIndices().length; i++) {
-            Path path = problem.getPaths().get("customer_" + i).get(solution.getPathIndices()[i]);
-            totalCost += path.getDistance() + path.getCost();
-            totalTime += path.getTime();
-        }
-        
-        solution.setTotalCost(totalCost);
-        solution.setTotalTime(totalTime);
+        SolutionEvaluator.updateMetrics(solution, problem);
     }
     
     // 其他辅助方法...
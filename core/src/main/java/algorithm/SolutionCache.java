@@ -0,0 +1,252 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.Metrics;
+import model.*;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按内容寻址的求解结果缓存
+ *
+ * 键由规范化的问题数据（各顾客的路径距离/成本/时间）、时间约束、算法类型和参数计算出的64位哈希组成，
+ * 用于定位；键相等还要求同一数据流的SHA-256指纹和完整的算法签名一致，64位哈希碰撞不会取到别的问题的解。
+ * 另维护一个不含时间约束的热启动索引，问题仅时间约束不同时可取出旧解作为初始解。
+ * 两个索引都按LRU淘汰，并在读取时丢弃超过存活时间的条目。线程安全。
+ */
+public class SolutionCache {
+    private final int maxEntries;
+    private final long maxAgeMillis;
+    private final Map<Key, Entry> solutions;
+    private final Map<Key, Entry> warmStarts;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder warmStartHits = new LongAdder();
+
+    // 进程级指标，所有缓存实例共用；实例自身的统计仍由上面的计数器提供
+    private static final Counter hitCounter = Metrics.counter("solution_cache_requests_total",
+        "Solution cache lookups by result", "result", "hit");
+    private static final Counter missCounter = Metrics.counter("solution_cache_requests_total",
+        "Solution cache lookups by result", "result", "miss");
+    private static final Counter warmStartCounter = Metrics.counter("solution_cache_requests_total",
+        "Solution cache lookups by result", "result", "warm_start");
+
+    /**
+     * 缓存键：问题内容哈希 + 算法签名哈希，相等比较另外核对内容指纹和算法签名原文
+     * timeConstraint为NaN表示热启动索引中不区分时间约束
+     */
+    public static final class Key {
+        private final long contentHash;
+        private final byte[] contentDigest;
+        private final double timeConstraint;
+        private final long algorithmHash;
+        private final String algorithmSignature;
+
+        private Key(long contentHash, byte[] contentDigest, double timeConstraint, String algorithmSignature) {
+            this.contentHash = contentHash;
+            this.contentDigest = contentDigest;
+            this.timeConstraint = timeConstraint;
+            this.algorithmSignature = algorithmSignature;
+            this.algorithmHash = algorithmSignature.hashCode();
+        }
+
+        long contentHash() {
+            return contentHash;
+        }
+
+        private Key withoutTimeConstraint() {
+            return new Key(contentHash, contentDigest, Double.NaN, algorithmSignature);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return contentHash == other.contentHash
+                && algorithmHash == other.algorithmHash
+                && Double.compare(timeConstraint, other.timeConstraint) == 0
+                && Arrays.equals(contentDigest, other.contentDigest)
+                && algorithmSignature.equals(other.algorithmSignature);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(contentHash * 31 + algorithmHash) * 31 + Double.hashCode(timeConstraint);
+        }
+    }
+
+    private static final class Entry {
+        final Solution solution;
+        final long createdAt;
+
+        Entry(Solution solution, long createdAt) {
+            this.solution = solution;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public SolutionCache(int maxEntries, long maxAgeMillis) {
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+        this.solutions = createLruMap();
+        this.warmStarts = createLruMap();
+    }
+
+    private Map<Key, Entry> createLruMap() {
+        return new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 计算缓存键，代价为一次遍历所有路径，远小于一次求解
+     */
+    public static Key keyOf(Problem problem, String algorithmType, Map<String, Object> parameters) {
+        ContentHasher hasher = new ContentHasher();
+        int customerCount = problem.getCustomers().size();
+        hasher.add(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            int pathCount = problem.getPathCount(i);
+            hasher.add(pathCount);
+            for (int p = 0; p < pathCount; p++) {
+                hasher.add(Double.doubleToLongBits(problem.getPathDistance(i, p)));
+                hasher.add(Double.doubleToLongBits(problem.getPathCost(i, p)));
+                hasher.add(Double.doubleToLongBits(problem.getPathTime(i, p)));
+            }
+        }
+        // 组合优惠按行顺序哈希，同一实例的CSR索引布局确定
+        if (problem.hasDiscounts()) {
+            SparseDiscountIndex discounts = problem.getDiscounts();
+            for (int c = 0; c < discounts.getCustomerCount(); c++) {
+                for (int p = 0; p < discounts.getPathsPerCustomer(); p++) {
+                    for (int k = discounts.rowBegin(c, p); k < discounts.rowEnd(c, p); k++) {
+                        hasher.add(((long) c << 32) | p);
+                        hasher.add(((long) discounts.partnerCustomer(k) << 32) | discounts.partnerPath(k));
+                        hasher.add(discounts.discountAt(k));
+                    }
+                }
+            }
+        }
+        return new Key(hasher.hash, hasher.digest(), problem.getTimeConstraint(),
+            algorithmSignature(algorithmType, parameters));
+    }
+
+    // 参数按键排序、数值统一为double，使YAML与JSON来源的相同参数得到相同的签名
+    private static String algorithmSignature(String algorithmType, Map<String, Object> parameters) {
+        StringBuilder signature = new StringBuilder(algorithmType.toUpperCase());
+        for (Map.Entry<String, Object> entry : new TreeMap<>(parameters).entrySet()) {
+            Object value = entry.getValue();
+            signature.append(';').append(entry.getKey()).append('=')
+                .append(value instanceof Number ? ((Number) value).doubleValue() : value);
+        }
+        return signature.toString();
+    }
+
+    // 同一数据流同时计算64位FNV哈希（定位）和SHA-256指纹（核对）
+    private static final class ContentHasher {
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long hash = FNV_OFFSET;
+
+        ContentHasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void add(long value) {
+            hash = mix(hash, value);
+            if (!buffer.hasRemaining()) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putLong(value);
+        }
+
+        byte[] digest() {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+            return digest.digest();
+        }
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // FNV-1a按8字节一组混合，末尾再做一次位扩散
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * FNV_PRIME;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * 精确命中时返回缓存解的副本，未命中返回null
+     */
+    public synchronized Solution get(Key key) {
+        Entry entry = lookup(solutions, key);
+        if (entry == null) {
+            misses.increment();
+            missCounter.increment();
+            return null;
+        }
+        hits.increment();
+        hitCounter.increment();
+        return entry.solution.clone();
+    }
+
+    /**
+     * 查找同一问题内容、同一算法签名但时间约束不同的旧解，用作热启动初始解
+     */
+    public synchronized Solution getWarmStart(Key key) {
+        Entry entry = lookup(warmStarts, key.withoutTimeConstraint());
+        if (entry == null) {
+            return null;
+        }
+        warmStartHits.increment();
+        warmStartCounter.increment();
+        return entry.solution.clone();
+    }
+
+    public synchronized void put(Key key, Solution solution) {
+        Entry entry = new Entry(solution.clone(), System.currentTimeMillis());
+        solutions.put(key, entry);
+        warmStarts.put(key.withoutTimeConstraint(), entry);
+    }
+
+    private Entry lookup(Map<Key, Entry> map, Key key) {
+        Entry entry = map.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.createdAt > maxAgeMillis) {
+            map.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized int size() {
+        return solutions.size();
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getWarmStartHits() { return warmStartHits.sum(); }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("hits", getHits());
+        stats.put("misses", getMisses());
+        stats.put("warmStarts", getWarmStartHits());
+        return stats;
+    }
+}
@@ -0,0 +1,145 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.Metrics;
+import model.*;
+
+/**
+ * 各算法共用的解评估
+ * 总成本 = Σ(距离 + 费用) + 生效的路径组合优惠之和（优惠为负值），总时间 = Σ耗时；
+ * 惩罚成本在总时间超出时间约束时再加上 超出量 * TIME_PENALTY。
+ * 问题不含组合优惠时与原先各算法内部的计算结果完全相同。
+ */
+public final class SolutionEvaluator {
+    public static final double TIME_PENALTY = 1000; // 超时惩罚因子
+
+    private static final Counter evaluations = Metrics.counter("solution_evaluations_total",
+        "Number of solutions evaluated", "mode", "single");
+
+    private SolutionEvaluator() {
+    }
+
+    /**
+     * 计算并写入解的总成本与总时间
+     */
+    public static void updateMetrics(Solution solution, Problem problem) {
+        evaluations.increment();
+        int[] pathIndices = solution.getPathIndices();
+        double totalCost = 0;
+        double totalTime = 0;
+
+        for (int i = 0; i < pathIndices.length; i++) {
+            int p = pathIndices[i];
+            totalCost += problem.getPathDistance(i, p) + problem.getPathCost(i, p);
+            totalTime += problem.getPathTime(i, p);
+        }
+
+        solution.setTotalCost(totalCost + discountTotal(problem, pathIndices));
+        solution.setTotalTime(totalTime);
+    }
+
+    /**
+     * 含超时惩罚的成本，供各算法比较解的优劣，不修改solution
+     */
+    public static double penalizedCost(Solution solution, Problem problem) {
+        evaluations.increment();
+        int[] pathIndices = solution.getPathIndices();
+        double totalCost = 0;
+        double totalTime = 0;
+
+        for (int i = 0; i < pathIndices.length; i++) {
+            int p = pathIndices[i];
+            totalCost += problem.getPathDistance(i, p) + problem.getPathCost(i, p);
+            totalTime += problem.getPathTime(i, p);
+        }
+        totalCost += discountTotal(problem, pathIndices);
+
+        if (totalTime > problem.getTimeConstraint()) {
+            totalCost += (totalTime - problem.getTimeConstraint()) * TIME_PENALTY;
+        }
+        return totalCost;
+    }
+
+    /**
+     * 所有生效的组合优惠之和，每条优惠只从编号较小的顾客一侧计入一次
+     */
+    public static double discountTotal(Problem problem, int[] pathIndices) {
+        if (!problem.hasDiscounts()) {
+            return 0;
+        }
+        SparseDiscountIndex index = problem.getDiscounts();
+        double total = 0;
+        for (int i = 0; i < pathIndices.length; i++) {
+            if (!covers(index, i, pathIndices[i])) {
+                continue;
+            }
+            int end = index.rowEnd(i, pathIndices[i]);
+            for (int k = index.rowBegin(i, pathIndices[i]); k < end; k++) {
+                int j = index.partnerCustomer(k);
+                if (j > i && j < pathIndices.length && pathIndices[j] == index.partnerPath(k)) {
+                    total += index.discountAt(k);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 顾客customer选择path时，与编号更小的顾客当前所选路径之间生效的优惠之和。
+     * 供逐个顾客构造解的算法（回溯、蚁群、强化学习）在选择路径时计入组合优惠
+     */
+    public static double prefixDiscount(Problem problem, int[] pathIndices, int customer, int path) {
+        if (!problem.hasDiscounts()) {
+            return 0;
+        }
+        SparseDiscountIndex index = problem.getDiscounts();
+        if (!covers(index, customer, path)) {
+            return 0;
+        }
+        double sum = 0;
+        int end = index.rowEnd(customer, path);
+        for (int k = index.rowBegin(customer, path); k < end; k++) {
+            int j = index.partnerCustomer(k);
+            if (j < customer && pathIndices[j] == index.partnerPath(k)) {
+                sum += index.discountAt(k);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 从顾客from开始依次选择路径时，还可能获得的组合优惠总和的下界（≤0）。
+     * 每条优惠在编号较大的一侧计入，对每个顾客取其各路径可能获得优惠之和的最小值
+     */
+    public static double[] remainingDiscountBounds(Problem problem) {
+        int n = problem.getCustomers().size();
+        double[] bounds = new double[n + 1];
+        if (!problem.hasDiscounts()) {
+            return bounds;
+        }
+        SparseDiscountIndex index = problem.getDiscounts();
+        for (int i = n - 1; i >= 0; i--) {
+            double best = 0;
+            int pathCount = problem.getPathCount(i);
+            for (int p = 0; p < pathCount; p++) {
+                if (!covers(index, i, p)) {
+                    continue;
+                }
+                double credit = 0;
+                int end = index.rowEnd(i, p);
+                for (int k = index.rowBegin(i, p); k < end; k++) {
+                    if (index.partnerCustomer(k) < i) {
+                        credit += Math.min(0, index.discountAt(k));
+                    }
+                }
+                best = Math.min(best, credit);
+            }
+            bounds[i] = bounds[i + 1] + best;
+        }
+        return bounds;
+    }
+
+    private static boolean covers(SparseDiscountIndex index, int customer, int path) {
+        return customer < index.getCustomerCount() && path < index.getPathsPerCustomer();
+    }
+}
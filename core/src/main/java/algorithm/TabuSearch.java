@@ -0,0 +1,233 @@
+package algorithm;
+
+import metrics.Counter;
+import metrics.IterationEvent;
+import metrics.Metrics;
+import model.*;
+import java.io.*;
+import java.util.*;
+
+public class TabuSearch implements OptimizationAlgorithm, Reoptimizable {
+    private final int tabuListSize;
+    private final int maxIterations;
+    private final long timeLimitMs;
+    private final boolean repairInfeasible;
+    private final double gapTolerance;
+    private final String checkpointFile;
+    private final long checkpointIntervalMs;
+    private final RestorableRandom random = new RestorableRandom();
+    private Deque<Move> lastTabuList;  // 上一次求解结束时的禁忌表，供重新优化时迁移
+    private static final Counter acceptedMoves = Metrics.counter("search_moves_total",
+        "Local search moves by result", "algorithm", "TS", "result", "accepted");
+    private static final Counter tabuMoves = Metrics.counter("search_moves_total",
+        "Local search moves by result", "algorithm", "TS", "result", "tabu");
+    
+    // 单个顾客的路径变更：customer 从 fromPath 改为 toPath
+    private record Move(int customer, int fromPath, int toPath) {
+        Move reverse() {
+            return new Move(customer, toPath, fromPath);
+        }
+    }
+    
+    // 检查点中保存的当前解与最优解，禁忌表直接读回传入的队列
+    private record SearchState(Solution current, Solution best) {
+    }
+    
+    public TabuSearch(Map<String, Object> parameters) {
+        this.tabuListSize = Parameters.getInt(parameters, "tabuListSize", 20);
+        this.maxIterations = Parameters.getInt(parameters, "maxIterations", 500);
+        this.timeLimitMs = Parameters.getInt(parameters, "timeLimitMs", 0);
+        this.repairInfeasible = Parameters.getBoolean(parameters, "repairInfeasible", true);
+        this.gapTolerance = Parameters.getDouble(parameters, "gapTolerance", -1);
+        this.checkpointFile = Parameters.getString(parameters, "checkpointFile", null);
+        this.checkpointIntervalMs = Parameters.getInt(parameters, "checkpointIntervalMs", 60_000);
+    }
+    
+    @Override
+    public Solution solve(Problem problem) {
+        // 设置checkpointFile时定期保存当前解、最优解、禁忌表和随机数状态，下次求解从保存的迭代继续
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(checkpointFile, checkpointIntervalMs, "TS", problem);
+        try {
+            return search(problem, generateInitialSolution(problem), new ArrayDeque<>(), Deadline.after(timeLimitMs),
+                checkpoint);
+        } finally {
+            checkpoint.finish();
+        }
+    }
+    
+    @Override
+    public Solution solve(Problem problem, Solution initialSolution) {
+        return search(problem, initialSolution, new ArrayDeque<>(), Deadline.after(timeLimitMs),
+            SearchCheckpoint.disabled());
+    }
+    
+    @Override
+    public Solution reoptimize(Problem problem, Solution previousSolution, int[] customerMapping, long timeBudgetMillis) {
+        // 禁忌表中涉及未变化顾客的条目按新下标保留，涉及删除或变化顾客的条目丢弃
+        Deque<Move> tabuList = new ArrayDeque<>();
+        if (lastTabuList != null) {
+            Map<Integer, Integer> oldToNew = new HashMap<>();
+            for (int i = 0; i < customerMapping.length; i++) {
+                if (customerMapping[i] >= 0) {
+                    oldToNew.put(customerMapping[i], i);
+                }
+            }
+            for (Move move : lastTabuList) {
+                Integer customer = oldToNew.get(move.customer());
+                if (customer != null) {
+                    tabuList.offer(new Move(customer, move.fromPath(), move.toPath()));
+                }
+            }
+        }
+        return search(problem, previousSolution, tabuList, Deadline.after(timeBudgetMillis), SearchCheckpoint.disabled());
+    }
+    
+    private Solution search(Problem problem, Solution initialSolution, Deque<Move> tabuList, Deadline deadline,
+                            SearchCheckpoint checkpoint) {
+        // 开启修复时，初始解和选中的超时邻居修复为可行；禁忌表仍只记录邻域移动本身
+        FeasibilityRepair repair = repairInfeasible ? FeasibilityRepair.create(problem) : null;
+        Solution currentSolution = initialSolution.clone();
+        if (repair != null) {
+            repair.repair(currentSolution);
+        }
+        updateSolutionMetrics(currentSolution, problem);
+        Solution bestSolution = currentSolution.clone();
+        SearchState restored = checkpoint.restore(random, in -> readState(in, tabuList));
+        if (restored != null) {
+            currentSolution = restored.current();
+            bestSolution = restored.best();
+        }
+        // 设置gapTolerance时，最优解与下界的差距足够小即提前结束
+        GapTermination termination = GapTermination.create(problem, gapTolerance);
+        
+        for (int i = checkpoint.startIteration(); i < maxIterations && !deadline.expired()
+                && !termination.reached(calculateCost(bestSolution, problem)); i++) {
+            if (checkpoint.due()) {
+                SearchState state = new SearchState(currentSolution, bestSolution);
+                checkpoint.save(i, random, out -> writeState(out, state, tabuList));
+                if (checkpoint.stopRequested()) {
+                    break;
+                }
+            }
+            List<Solution> neighbors = generateNeighbors(currentSolution, problem);
+            Solution bestNeighbor = null;
+            Move bestMove = null;
+            double bestNeighborCost = Double.MAX_VALUE;
+            
+            for (Solution neighbor : neighbors) {
+                Move move = getMove(currentSolution, neighbor);
+                double cost = calculateCost(neighbor, problem);
+                
+                if (!tabuList.contains(move) || cost < calculateCost(bestSolution, problem)) {
+                    if (cost < bestNeighborCost) {
+                        bestNeighborCost = cost;
+                        bestNeighbor = neighbor;
+                        bestMove = move;
+                    }
+                } else {
+                    tabuMoves.increment();
+                }
+            }
+            
+            if (bestNeighbor != null) {
+                acceptedMoves.increment();
+                if (repair != null && bestNeighbor.getTotalTime() > problem.getTimeConstraint()) {
+                    repair.repair(bestNeighbor);
+                    updateSolutionMetrics(bestNeighbor, problem);
+                }
+                currentSolution = bestNeighbor;
+                if (calculateCost(bestNeighbor, problem) < calculateCost(bestSolution, problem)) {
+                    bestSolution = bestNeighbor.clone();
+                }
+                
+                // 禁止在禁忌期内把该顾客改回原路径
+                tabuList.offer(bestMove.reverse());
+                if (tabuList.size() > tabuListSize) {
+                    tabuList.poll();
+                }
+            }
+            if (IterationEvent.sampled(i)) {
+                IterationEvent.emit("TS", i, problem.getCustomers().size(), calculateCost(bestSolution, problem));
+            }
+        }
+        
+        checkpoint.complete();
+        lastTabuList = tabuList;
+        return termination.certify(bestSolution);
+    }
+    
+    private void writeState(DataOutputStream out, SearchState state, Deque<Move> tabuList) throws IOException {
+        SearchCheckpoint.writeSolution(out, state.current());
+        SearchCheckpoint.writeSolution(out, state.best());
+        out.writeInt(tabuList.size());
+        for (Move move : tabuList) {
+            out.writeInt(move.customer());
+            out.writeInt(move.fromPath());
+            out.writeInt(move.toPath());
+        }
+    }
+    
+    private SearchState readState(DataInputStream in, Deque<Move> tabuList) throws IOException {
+        SearchState state = new SearchState(SearchCheckpoint.readSolution(in), SearchCheckpoint.readSolution(in));
+        tabuList.clear();
+        int size = in.readInt();
+        for (int k = 0; k < size; k++) {
+            tabuList.offer(new Move(in.readInt(), in.readInt(), in.readInt()));
+        }
+        return state;
+    }
+    
+    @Override
+    public String getName() {
+        return "禁忌搜索算法(TS)";
+    }
+    
+    private Solution generateInitialSolution(Problem problem) {
+        Solution solution = new Solution(problem.getCustomers().size());
+        for (int i = 0; i < problem.getCustomers().size(); i++) {
+            int pathIndex = random.nextInt(problem.getPathCount(i));
+            solution.setPathIndex(i, pathIndex);
+        }
+        updateSolutionMetrics(solution, problem);
+        return solution;
+    }
+    
+    private List<Solution> generateNeighbors(Solution current, Problem problem) {
+        List<Solution> neighbors = new ArrayList<>();
+        
+        // 对每个顾客尝试改变路径
+        for (int i = 0; i < problem.getCustomers().size(); i++) {
+            int currentPathIndex = current.getPathIndices()[i];
+            int pathCount = problem.getPathCount(i);
+            
+            for (int j = 0; j < pathCount; j++) {
+                if (j != currentPathIndex) {
+                    Solution neighbor = current.clone();
+                    neighbor.setPathIndex(i, j);
+                    updateSolutionMetrics(neighbor, problem);
+                    neighbors.add(neighbor);
+                }
+            }
+        }
+        
+        return neighbors;
+    }
+    
+    // 邻域中的解与当前解只在一个顾客上不同
+    private Move getMove(Solution from, Solution to) {
+        for (int i = 0; i < from.getPathIndices().length; i++) {
+            if (from.getPathIndices()[i] != to.getPathIndices()[i]) {
+                return new Move(i, from.getPathIndices()[i], to.getPathIndices()[i]);
+            }
+        }
+        return null;
+    }
+    
+    private double calculateCost(Solution solution, Problem problem) {
+        return SolutionEvaluator.penalizedCost(solution, problem);
+    }
+    
+    private void updateSolutionMetrics(Solution solution, Problem problem) {
+        SolutionEvaluator.updateMetrics(solution, problem);
+    }
+} 
\ No newline at end of file
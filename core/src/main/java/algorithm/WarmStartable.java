@@ -0,0 +1,12 @@
+package algorithm;
+
+import model.Problem;
+import model.Solution;
+
+/**
+ * 支持从已有解热启动的算法
+ * 初始解的顾客数必须与问题一致，算法从该解出发继续搜索而不是随机初始化
+ */
+public interface WarmStartable {
+    Solution solve(Problem problem, Solution initialSolution);
+}
@@ -1,13 +1,16 @@
 package experiment;
 
 import algorithm.*;
+import metrics.Metrics;
+import metrics.SolveEvent;
 import model.*;
 import util.*;
 import java.util.*;
 
 public class ExperimentRunner {
     private static final int REPEAT_TIMES = 30;
-    private static final String[] ALGORITHMS = {"GA", "SA", "ACO", "TS", "RL", "BK"};
+    private static final String[] ALGORITHMS = {"GA", "SA", "ACO", "TS", "RL", "BK", "LNS"};
+    private static final Map<String, Map<String, Object>> configuredParameters = new HashMap<>();
     
     public static void main(String[] args) {
         // 初始化实验记录器
@@ -38,8 +41,8 @@ public class ExperimentRunner {
             
             // 使用回溯算法找到最优解
             System.out.println("\n使用回溯算法寻找最优解:");
-            OptimizationAlgorithm backtracking = AlgorithmFactory.createAlgorithm("BK", new HashMap<>());
-            Solution optimalSolution = backtracking.solve(effectivenessProblem);
+            OptimizationAlgorithm backtracking = AlgorithmFactory.createAlgorithm("BK", parametersFor("BK"));
+            Solution optimalSolution = solve(backtracking, "BK", effectivenessProblem);
             System.out.printf("最优解成本: %.2f\n", optimalSolution.getTotalCost());
             System.out.printf("最优解时间: %.2f 分钟\n", optimalSolution.getTotalTime());
             
@@ -78,10 +81,18 @@ public class ExperimentRunner {
         System.out.println("\n=== 适应性实验 ===");
         ExperimentLogger.addSheet("适应性实验");
         Map<String, Object> adaptabilityData = generateTestData("adaptability_test.json");
+        // 一次计算所有时间预算下的最优成本，作为各算法的参照；只查询成本，不记录回溯信息
+        Problem adaptabilityProblem = createProblem(adaptabilityData);
+        ParetoFrontier frontier = ParetoFrontier.compute(adaptabilityProblem, Double.POSITIVE_INFINITY,
+            ParetoFrontier.defaultResolution(adaptabilityProblem), false);
+        System.out.printf("帕累托前沿: %d 个点, 时间 %.1f ~ %.1f 分钟\n",
+            frontier.size(), frontier.getTime(0), frontier.getTime(frontier.size() - 1));
         for (String algorithmType : ALGORITHMS) {
             System.out.printf("\n使用 %s:\n", algorithmType);
-            runAdaptabilityExperiment(algorithmType, adaptabilityData);
+            runAdaptabilityExperiment(algorithmType, adaptabilityData, frontier);
         }
+        ExperimentLogger.addSheet("时间预算前沿");
+        runBudgetSweep(frontier);
         
         // 5. 算法对比实验
         System.out.println("\n=== 算法对比实验 ===");
@@ -92,6 +103,23 @@ public class ExperimentRunner {
         
         // 保存所有实验结果
         ExperimentLogger.saveResults();
+        Metrics.printSummary();
+        Metrics.writeConfiguredFile();
+    }
+    
+    // 求解并按算法类型记录耗时分布与JFR求解事件
+    private static Solution solve(OptimizationAlgorithm algorithm, String algorithmType, Problem problem) {
+        SolveEvent event = SolveEvent.begin(algorithmType, problem.getCustomers().size());
+        long startTime = System.nanoTime();
+        Solution solution = algorithm.solve(problem);
+        Metrics.solveDuration(algorithmType).recordSince(startTime);
+        event.end(solution.getTotalCost());
+        return solution;
+    }
+    
+    // config.yml中该算法的参数，只读取一次
+    private static Map<String, Object> parametersFor(String algorithmType) {
+        return configuredParameters.computeIfAbsent(algorithmType, AlgorithmConfig::loadParameters);
     }
     
     private static Map<String, Object> generateTestData(String filename) {
@@ -108,7 +136,8 @@ public class ExperimentRunner {
         return new Problem(
             (List<Customer>) data.get("customers"),
             (Map<String, List<Path>>) data.get("paths"),
-            120.0
+            120.0,
+            (SparseDiscountIndex) data.get("discounts")
         );
     }
     
@@ -120,8 +149,8 @@ public class ExperimentRunner {
         
         // 运行多次并收集结果
         for (int i = 0; i < REPEAT_TIMES; i++) {
-            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
-            Solution solution = algorithm.solve(problem);
+            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parametersFor(algorithmType));
+            Solution solution = solve(algorithm, algorithmType, problem);
             costs.add(solution.getTotalCost());
             times.add(solution.getTotalTime());
             feasibilities.add(solution.getTotalTime() <= problem.getTimeConstraint());
@@ -166,8 +195,8 @@ public class ExperimentRunner {
     
     private static void runEfficiencyExperiment(Problem problem, String algorithmType, int size) {
         long startTime = System.currentTimeMillis();
-        OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
-        Solution solution = algorithm.solve(problem);
+        OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parametersFor(algorithmType));
+        Solution solution = solve(algorithm, algorithmType, problem);
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
         
@@ -189,8 +218,8 @@ public class ExperimentRunner {
         List<Double> times = new ArrayList<>();
         
         for (int i = 0; i < REPEAT_TIMES; i++) {
-            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
-            Solution solution = algorithm.solve(problem);
+            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parametersFor(algorithmType));
+            Solution solution = solve(algorithm, algorithmType, problem);
             costs.add(solution.getTotalCost());
             times.add(solution.getTotalTime());
         }
@@ -214,18 +243,20 @@ public class ExperimentRunner {
         ExperimentLogger.logResult(result);
     }
     
-    private static void runAdaptabilityExperiment(String algorithmType, Map<String, Object> data) {
+    private static void runAdaptabilityExperiment(String algorithmType, Map<String, Object> data,
+                                                  ParetoFrontier frontier) {
         double[] timeConstraints = {60.0, 90.0, 120.0, 150.0, 180.0};
         
         for (double constraint : timeConstraints) {
             Problem problem = new Problem(
                 (List<Customer>) data.get("customers"),
                 (Map<String, List<Path>>) data.get("paths"),
-                constraint
+                constraint,
+                (SparseDiscountIndex) data.get("discounts")
             );
             
-            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
-            Solution solution = algorithm.solve(problem);
+            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parametersFor(algorithmType));
+            Solution solution = solve(algorithm, algorithmType, problem);
             
             // 控制台输出
             System.out.printf("时间约束 %.1f: 实际时间=%.1f, 成本=%.2f\n",
@@ -237,18 +268,35 @@ public class ExperimentRunner {
             result.put("时间约束", constraint);
             result.put("实际时间", solution.getTotalTime());
             result.put("总成本", solution.getTotalCost());
+            result.put("前沿最优成本", formatFrontierCost(frontier.costAt(constraint)));
             ExperimentLogger.logResult(result);
         }
     }
     
+    // 30 ~ 240 分钟每10分钟一个预算，全部取自同一个前沿，不再逐个求解
+    private static void runBudgetSweep(ParetoFrontier frontier) {
+        for (double budget = 30.0; budget <= 240.0; budget += 10.0) {
+            int index = frontier.indexFor(budget);
+            Map<String, Object> result = new HashMap<>();
+            result.put("时间预算", budget);
+            result.put("最优成本", formatFrontierCost(index < 0 ? Double.NaN : frontier.getCost(index)));
+            result.put("实际时间", index < 0 ? "无可行解" : frontier.getTime(index));
+            ExperimentLogger.logResult(result);
+        }
+    }
+    
+    private static Object formatFrontierCost(double cost) {
+        return Double.isNaN(cost) ? "无可行解" : cost;
+    }
+    
     private static void runComparisonExperiment(Problem problem) {
         Map<String, List<Double>> results = new HashMap<>();
         
         for (String algorithmType : ALGORITHMS) {
             List<Double> costs = new ArrayList<>();
             for (int i = 0; i < REPEAT_TIMES; i++) {
-                OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
-                Solution solution = algorithm.solve(problem);
+                OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parametersFor(algorithmType));
+                Solution solution = solve(algorithm, algorithmType, problem);
                 costs.add(solution.getTotalCost());
             }
             results.put(algorithmType, costs);
@@ -0,0 +1,397 @@
+package experiment;
+
+import algorithm.*;
+import model.*;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import util.AlgorithmConfig;
+import util.DataGenerator;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 算法参数调优（逐次减半竞赛）
+ *
+ * 在参数范围内随机采样若干组配置（config.yml中的当前配置总是参赛），在训练实例集上竞赛：
+ * 每轮让存活配置求解当前实例前缀（结果按 配置 x 实例 缓存，后续轮次只求解新加入的实例），
+ * 按各实例上的平均排名保留前 1/eta，实例数翻倍后进入下一轮，直到只剩一组配置。
+ * 成本相同（小实例上常见）时求解更快的配置胜出。
+ * 每个 (配置, 实例) 求解是线程池中的一个独立任务，所有核心同时工作。
+ *
+ * 比较使用含超时惩罚的成本（SolutionEvaluator.penalizedCost）。
+ * 支持时间上限的算法（GA、ACO、TS、RL、LNS）统一设置 timeLimitMs，使各配置在相同时间预算下比较，
+ * 否则迭代次数类参数总会取到范围上限。
+ *
+ * 胜出的参数写成可直接粘贴进config.yml的YAML片段。
+ *
+ * 用法：
+ *   java experiment.ParameterTuner --algorithm SA [--configs 27] [--instances 16] [--customers 20]
+ *        [--paths 5] [--eta 3] [--time-limit-ms 200] [--threads N] [--seed S]
+ *        [--instance-files a.json,b.json] [--output tuning_results/SA.yml]
+ *
+ * 参数范围可在config.yml中覆盖，整数参数写成整数：
+ *   tuning:
+ *     SA:
+ *       coolingRate: [0.8, 0.999]
+ */
+public class ParameterTuner {
+    private static final double TIME_CONSTRAINT = 120.0;
+    private static final int MIN_INSTANCES = 2;
+    private static final Set<String> TIME_LIMITED = Set.of("GA", "ACO", "TS", "RL", "LNS");
+    private static final Map<String, Map<String, Range>> DEFAULT_RANGES = new LinkedHashMap<>();
+
+    static {
+        Map<String, Range> ga = new LinkedHashMap<>();
+        ga.put("populationSize", Range.ofInt(20, 200));
+        ga.put("maxGenerations", Range.ofInt(100, 2000));
+        ga.put("mutationRate", Range.of(0.01, 0.5));
+        DEFAULT_RANGES.put("GA", ga);
+
+        Map<String, Range> sa = new LinkedHashMap<>();
+        sa.put("initialTemp", Range.logOf(10, 1000));
+        sa.put("coolingRate", Range.of(0.8, 0.999));
+        sa.put("finalTemp", Range.logOf(0.001, 1));
+        DEFAULT_RANGES.put("SA", sa);
+
+        Map<String, Range> aco = new LinkedHashMap<>();
+        aco.put("antCount", Range.ofInt(10, 100));
+        aco.put("pheromoneWeight", Range.of(0.5, 3.0));
+        aco.put("evaporationRate", Range.of(0.01, 0.5));
+        DEFAULT_RANGES.put("ACO", aco);
+
+        Map<String, Range> ts = new LinkedHashMap<>();
+        ts.put("tabuListSize", Range.ofInt(5, 50));
+        ts.put("maxIterations", Range.ofInt(100, 2000));
+        DEFAULT_RANGES.put("TS", ts);
+
+        Map<String, Range> rl = new LinkedHashMap<>();
+        rl.put("episodes", Range.ofInt(200, 3000));
+        rl.put("learningRate", Range.of(0.01, 0.5));
+        rl.put("discountFactor", Range.of(0.5, 0.99));
+        rl.put("epsilon", Range.of(0.01, 0.3));
+        DEFAULT_RANGES.put("RL", rl);
+
+        Map<String, Range> lns = new LinkedHashMap<>();
+        lns.put("destroySize", Range.ofInt(5, 100));
+        lns.put("maxIterations", Range.ofInt(200, 5000));
+        lns.put("dpBuckets", Range.ofInt(200, 5000));
+        DEFAULT_RANGES.put("LNS", lns);
+    }
+
+    // 参数取值范围；integer为整数参数，logScale为按对数均匀采样
+    record Range(double min, double max, boolean integer, boolean logScale) {
+        static Range of(double min, double max) {
+            return new Range(min, max, false, false);
+        }
+
+        static Range logOf(double min, double max) {
+            return new Range(min, max, false, true);
+        }
+
+        static Range ofInt(int min, int max) {
+            return new Range(min, max, true, false);
+        }
+
+        Object sample(Random random) {
+            double u = random.nextDouble();
+            double value = logScale
+                ? Math.exp(Math.log(min) + u * (Math.log(max) - Math.log(min)))
+                : min + u * (max - min);
+            if (integer) {
+                return (int) Math.round(value);
+            }
+            return new BigDecimal(value).round(new MathContext(4)).doubleValue();
+        }
+    }
+
+    // 一组参赛配置及其在各实例上的结果，NaN表示尚未求解
+    private static final class Candidate {
+        final int id;
+        final String origin;
+        final Map<String, Object> parameters;
+        final double[] costs;
+        final long[] nanos;
+        double meanRank;
+
+        Candidate(int id, String origin, Map<String, Object> parameters, int instanceCount) {
+            this.id = id;
+            this.origin = origin;
+            this.parameters = parameters;
+            this.costs = new double[instanceCount];
+            this.nanos = new long[instanceCount];
+            Arrays.fill(costs, Double.NaN);
+        }
+
+        double meanCost(int instances) {
+            double sum = 0;
+            for (int j = 0; j < instances; j++) {
+                sum += costs[j];
+            }
+            return sum / instances;
+        }
+
+        double meanMillis(int instances) {
+            long sum = 0;
+            for (int j = 0; j < instances; j++) {
+                sum += nanos[j];
+            }
+            return sum / 1e6 / instances;
+        }
+    }
+
+    private final String algorithmType;
+    private final List<Problem> instances;
+    private final int eta;
+    private final long timeLimitMs;
+    private final ExecutorService workers;
+
+    public ParameterTuner(String algorithmType, List<Problem> instances, int eta, long timeLimitMs, int threads) {
+        this.algorithmType = algorithmType.toUpperCase();
+        this.instances = instances;
+        this.eta = Math.max(2, eta);
+        this.timeLimitMs = timeLimitMs;
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * 运行竞赛，返回胜出配置的参数（不含timeLimitMs）
+     */
+    public Map<String, Object> race(Map<String, Range> ranges, Map<String, Object> configured,
+                                    int configCount, long seed) throws InterruptedException {
+        Random random = new Random(seed);
+        List<Candidate> alive = new ArrayList<>();
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        for (String name : ranges.keySet()) {
+            if (configured.containsKey(name)) {
+                baseline.put(name, configured.get(name));
+            }
+        }
+        alive.add(new Candidate(0, "config.yml", baseline, instances.size()));
+        for (int id = 1; id < configCount; id++) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            ranges.forEach((name, range) -> parameters.put(name, range.sample(random)));
+            alive.add(new Candidate(id, "sampled", parameters, instances.size()));
+        }
+
+        int used = Math.min(instances.size(), MIN_INSTANCES);
+        int round = 1;
+        while (true) {
+            long startTime = System.currentTimeMillis();
+            evaluate(alive, used);
+            rank(alive, used);
+            System.out.printf("第 %d 轮: %d 组配置 x %d 个实例, 耗时 %d ms, 当前最优 #%d 平均排名 %.2f 平均成本 %.2f\n",
+                round, alive.size(), used, System.currentTimeMillis() - startTime,
+                alive.get(0).id, alive.get(0).meanRank, alive.get(0).meanCost(used));
+            int keep = Math.max(1, alive.size() / eta);
+            alive = new ArrayList<>(alive.subList(0, keep));
+            if (keep == 1) {
+                break;
+            }
+            used = Math.min(instances.size(), used * 2);
+            round++;
+        }
+
+        Candidate winner = alive.get(0);
+        System.out.printf("胜出配置 #%d (%s): %s, 平均成本 %.2f, 平均求解耗时 %.1f ms\n",
+            winner.id, winner.origin, winner.parameters, winner.meanCost(used), winner.meanMillis(used));
+        return winner.parameters;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // 把尚未求解的 (配置, 实例) 组合全部提交到线程池，等待完成
+    private void evaluate(List<Candidate> candidates, int instanceCount) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Map<String, Object> parameters = new HashMap<>(candidate.parameters);
+            if (timeLimitMs > 0 && TIME_LIMITED.contains(algorithmType)) {
+                parameters.put("timeLimitMs", timeLimitMs);
+            }
+            for (int j = 0; j < instanceCount; j++) {
+                if (!Double.isNaN(candidate.costs[j])) {
+                    continue;
+                }
+                int instance = j;
+                tasks.add(() -> {
+                    Problem problem = instances.get(instance);
+                    OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parameters);
+                    long startTime = System.nanoTime();
+                    Solution solution = algorithm.solve(problem);
+                    candidate.nanos[instance] = System.nanoTime() - startTime;
+                    candidate.costs[instance] = solution == null
+                        ? Double.MAX_VALUE
+                        : SolutionEvaluator.penalizedCost(solution, problem);
+                    return null;
+                });
+            }
+        }
+        for (Future<Void> future : workers.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tuning evaluation failed", e.getCause());
+            }
+        }
+    }
+
+    // 各实例上按成本排名（并列取平均名次），按平均排名排序，平均成本、平均耗时依次作为次要键
+    private static void rank(List<Candidate> candidates, int instanceCount) {
+        for (Candidate candidate : candidates) {
+            candidate.meanRank = 0;
+        }
+        for (int j = 0; j < instanceCount; j++) {
+            int instance = j;
+            List<Candidate> sorted = new ArrayList<>(candidates);
+            sorted.sort(Comparator.comparingDouble(c -> c.costs[instance]));
+            int start = 0;
+            while (start < sorted.size()) {
+                int end = start;
+                while (end + 1 < sorted.size() && sorted.get(end + 1).costs[j] == sorted.get(start).costs[j]) {
+                    end++;
+                }
+                double rank = (start + end) / 2.0 + 1;
+                for (int k = start; k <= end; k++) {
+                    sorted.get(k).meanRank += rank / instanceCount;
+                }
+                start = end + 1;
+            }
+        }
+        candidates.sort(Comparator.comparingDouble((Candidate c) -> c.meanRank)
+            .thenComparingDouble(c -> c.meanCost(instanceCount))
+            .thenComparingDouble(c -> c.meanMillis(instanceCount)));
+    }
+
+    /**
+     * 默认参数范围，被config.yml中 tuning.<算法> 下的 [min, max] 覆盖
+     */
+    static Map<String, Range> rangesFor(String algorithmType, Map<String, Object> config) {
+        Map<String, Range> ranges = new LinkedHashMap<>(
+            DEFAULT_RANGES.getOrDefault(algorithmType.toUpperCase(), Collections.emptyMap()));
+        Map<String, Object> overrides = AlgorithmConfig.section(config, "tuning", algorithmType.toUpperCase());
+        for (Map.Entry<String, Object> entry : overrides.entrySet()) {
+            if (!(entry.getValue() instanceof List) || ((List<?>) entry.getValue()).size() != 2) {
+                throw new IllegalArgumentException("Tuning range must be [min, max]: " + entry.getKey());
+            }
+            List<?> bounds = (List<?>) entry.getValue();
+            Number min = (Number) bounds.get(0);
+            Number max = (Number) bounds.get(1);
+            boolean integer = min instanceof Integer && max instanceof Integer;
+            Range previous = ranges.get(entry.getKey());
+            boolean logScale = previous != null && previous.logScale() && min.doubleValue() > 0;
+            ranges.put(entry.getKey(), new Range(min.doubleValue(), max.doubleValue(), integer, logScale));
+        }
+        return ranges;
+    }
+
+    /**
+     * 胜出参数的YAML片段，结构与config.yml的algorithm.parameters一致
+     */
+    static String toYamlSnippet(String algorithmType, Map<String, Object> parameters, String comment) {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setIndent(2);
+        Map<String, Object> block = Map.of("algorithm",
+            Map.of("parameters", Map.of(algorithmType.toUpperCase(), parameters)));
+        return comment + new Yaml(options).dump(block);
+    }
+
+    private static List<Problem> loadInstances(String files) {
+        List<Problem> problems = new ArrayList<>();
+        for (String file : files.split(",")) {
+            Map<String, Object> data = DataGenerator.loadTestData(file.trim());
+            if (data == null) {
+                throw new IllegalArgumentException("Cannot load instance file: " + file);
+            }
+            problems.add(toProblem(data));
+        }
+        return problems;
+    }
+
+    // 训练实例生成到临时目录，读入后即删除
+    private static List<Problem> generateInstances(int count, int customers, int paths) throws IOException {
+        java.nio.file.Path dir = Files.createTempDirectory("tuning");
+        List<Problem> problems = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            java.nio.file.Path file = dir.resolve("tuning_" + i + ".json");
+            DataGenerator.generateAndSaveTestData(customers, customers, paths, file.toString());
+            problems.add(toProblem(DataGenerator.loadTestData(file.toString())));
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(dir);
+        return problems;
+    }
+
+    private static Problem toProblem(Map<String, Object> data) {
+        return new Problem(
+            (List<Customer>) data.get("customers"),
+            (Map<String, List<Path>>) data.get("paths"),
+            TIME_CONSTRAINT,
+            (SparseDiscountIndex) data.get("discounts")
+        );
+    }
+
+    public static void main(String[] args) throws Exception {
+        String algorithmType = getArg(args, "--algorithm", "SA").toUpperCase();
+        int configCount = Integer.parseInt(getArg(args, "--configs", "27"));
+        int instanceCount = Integer.parseInt(getArg(args, "--instances", "16"));
+        int customers = Integer.parseInt(getArg(args, "--customers", "20"));
+        int paths = Integer.parseInt(getArg(args, "--paths", "5"));
+        int eta = Integer.parseInt(getArg(args, "--eta", "3"));
+        long timeLimitMs = Long.parseLong(getArg(args, "--time-limit-ms", "200"));
+        int threads = Integer.parseInt(getArg(args, "--threads",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(getArg(args, "--seed", String.valueOf(System.nanoTime())));
+        String output = getArg(args, "--output", "tuning_results/" + algorithmType + ".yml");
+        String instanceFiles = getArg(args, "--instance-files", null);
+
+        Map<String, Object> config = AlgorithmConfig.load(AlgorithmConfig.DEFAULT_FILE);
+        Map<String, Range> ranges = rangesFor(algorithmType, config);
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("No tunable parameters for algorithm: " + algorithmType);
+        }
+
+        List<Problem> instances = instanceFiles != null
+            ? loadInstances(instanceFiles)
+            : generateInstances(instanceCount, customers, paths);
+        System.out.printf("调优 %s: %d 组配置, %d 个训练实例, eta=%d, 线程数 %d, 单次时间上限 %s\n",
+            algorithmType, configCount, instances.size(), eta, threads,
+            TIME_LIMITED.contains(algorithmType) && timeLimitMs > 0 ? timeLimitMs + " ms" : "无");
+
+        ParameterTuner tuner = new ParameterTuner(algorithmType, instances, eta, timeLimitMs, threads);
+        Map<String, Object> winner;
+        try {
+            winner = tuner.race(ranges, AlgorithmConfig.section(config, "algorithm", "parameters", algorithmType),
+                configCount, seed);
+        } finally {
+            tuner.shutdown();
+        }
+
+        String comment = String.format("# %s 参数调优结果：%d 组配置, %d 个训练实例, seed=%d%s\n",
+            algorithmType, configCount, instances.size(), seed,
+            TIME_LIMITED.contains(algorithmType) && timeLimitMs > 0 ? ", timeLimitMs=" + timeLimitMs : "");
+        String snippet = toYamlSnippet(algorithmType, winner, comment);
+        java.nio.file.Path outputFile = java.nio.file.Path.of(output);
+        if (outputFile.getParent() != null) {
+            Files.createDirectories(outputFile.getParent());
+        }
+        Files.writeString(outputFile, snippet, StandardCharsets.UTF_8);
+        System.out.println("\n" + snippet);
+        System.out.println("调优结果已保存到: " + output);
+    }
+
+    private static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
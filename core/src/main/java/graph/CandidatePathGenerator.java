@@ -0,0 +1,295 @@
+package graph;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * 由路网生成各顾客的候选配送路径
+ *
+ * 每个顾客从其分配的餐厅节点出发，按指定边权求前k条无环最短路（Yen算法），
+ * 每条路径的长度、通行费、行驶时间分别累加为 Path 的 distance、cost、time。
+ * 顾客之间相互独立，在公共ForkJoin池中并行计算，每个工作线程复用自己的搜索工作区。
+ *
+ * 城市级路网上可改用预处理好的收缩层次（见ContractionHierarchy）：每个层次按各自的边权给出一条最短路，
+ * 例如按时间、按长度、按通行费各一个层次，得到"最快/最短/最省"三条候选，去掉重复后作为候选列表。
+ *
+ * 用法（输出与DataGenerator相同格式的实例JSON，可直接被Main、批处理和服务模式加载）：
+ *   java graph.CandidatePathGenerator --graph roads.txt --customers customers.txt --output instance.json
+ *        [--k 5] [--metric TIME|LENGTH|TOLL]
+ *   java graph.CandidatePathGenerator --hierarchy roads.time.ch,roads.length.ch --customers customers.txt
+ *        --output instance.json
+ *   追加 --restaurants restaurants.txt [--nearest 3] 时按坐标为顾客选最近的若干家餐厅（见SpatialGrid），
+ *   各餐厅的候选路径拼接在一起，实例规模只与 顾客数 x nearest 成正比
+ * customers.txt 每行 "顾客节点 餐厅节点"，给出 --restaurants 时每行 "顾客节点 x y"；
+ * restaurants.txt 每行 "餐厅节点 x y"；# 开头为注释；边列表格式见RoadGraph。
+ */
+public class CandidatePathGenerator {
+    private final RoadGraph graph;
+    private final int k;
+    private final ThreadLocal<KShortestPaths> searches;
+    private final List<ContractionHierarchy> hierarchies;
+    private final int nodeCount;
+
+    public CandidatePathGenerator(RoadGraph graph, RoadGraph.Metric metric, int k) {
+        this.graph = graph;
+        this.k = k;
+        this.searches = ThreadLocal.withInitial(() -> new KShortestPaths(graph, metric));
+        this.hierarchies = List.of();
+        this.nodeCount = graph.nodeCount();
+    }
+
+    /**
+     * 由收缩层次查询候选路径，每个层次贡献一条
+     */
+    public CandidatePathGenerator(List<ContractionHierarchy> hierarchies) {
+        if (hierarchies.isEmpty()) {
+            throw new IllegalArgumentException("At least one contraction hierarchy is required");
+        }
+        this.graph = null;
+        this.k = hierarchies.size();
+        this.searches = null;
+        this.hierarchies = List.copyOf(hierarchies);
+        this.nodeCount = hierarchies.get(0).nodeCount();
+        for (ContractionHierarchy hierarchy : hierarchies) {
+            if (hierarchy.nodeCount() != nodeCount) {
+                throw new IllegalArgumentException("Contraction hierarchies were built from different road graphs");
+            }
+        }
+    }
+
+    /**
+     * 单个 餐厅 -> 顾客 的候选路径，不可达时抛出IllegalArgumentException
+     */
+    public List<Path> candidates(int restaurantNode, int customerNode) {
+        checkNode(restaurantNode);
+        checkNode(customerNode);
+        List<Path> paths = hierarchies.isEmpty()
+            ? shortestPaths(restaurantNode, customerNode)
+            : hierarchyPaths(restaurantNode, customerNode);
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException(
+                "No route from restaurant node " + restaurantNode + " to customer node " + customerNode);
+        }
+        return paths;
+    }
+
+    private List<Path> shortestPaths(int restaurantNode, int customerNode) {
+        List<int[]> routes = searches.get().find(restaurantNode, customerNode, k);
+        List<Path> paths = new ArrayList<>(routes.size());
+        for (int[] edges : routes) {
+            double length = 0;
+            double toll = 0;
+            double time = 0;
+            for (int edge : edges) {
+                length += graph.length(edge);
+                toll += graph.toll(edge);
+                time += graph.time(edge);
+            }
+            paths.add(new Path(length, toll, time));
+        }
+        return paths;
+    }
+
+    // 不同边权的最短路可能是同一条，三个属性都相同的只保留一条
+    private List<Path> hierarchyPaths(int restaurantNode, int customerNode) {
+        List<Path> paths = new ArrayList<>(hierarchies.size());
+        for (ContractionHierarchy hierarchy : hierarchies) {
+            Path path = hierarchy.route(restaurantNode, customerNode);
+            if (path == null) {
+                continue;
+            }
+            boolean duplicate = false;
+            for (Path existing : paths) {
+                duplicate |= existing.getDistance() == path.getDistance() && existing.getCost() == path.getCost()
+                    && existing.getTime() == path.getTime();
+            }
+            if (!duplicate) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * 并行生成所有顾客的候选路径表，键为 "customer_i"
+     * @param restaurantNodes 第i个顾客分配的餐厅所在节点
+     * @param customerNodes 第i个顾客所在节点
+     */
+    public Map<String, List<Path>> generate(int[] restaurantNodes, int[] customerNodes) {
+        int[][] nearbyRestaurants = new int[restaurantNodes.length][];
+        for (int i = 0; i < restaurantNodes.length; i++) {
+            nearbyRestaurants[i] = new int[] {restaurantNodes[i]};
+        }
+        return generate(nearbyRestaurants, customerNodes);
+    }
+
+    /**
+     * 每个顾客可由多家附近的餐厅配送时，各餐厅的候选路径依次拼接；
+     * 不可达的餐厅跳过，所有餐厅都不可达时抛出IllegalArgumentException
+     * @param nearbyRestaurantNodes 第i个顾客附近的餐厅节点，通常由SpatialGrid按距离选出
+     */
+    public Map<String, List<Path>> generate(int[][] nearbyRestaurantNodes, int[] customerNodes) {
+        if (nearbyRestaurantNodes.length != customerNodes.length) {
+            throw new IllegalArgumentException("Restaurant and customer node arrays differ in length");
+        }
+        // 并行流的有序收集保持顾客顺序
+        List<List<Path>> results = IntStream.range(0, customerNodes.length).parallel()
+            .mapToObj(i -> nearbyCandidates(nearbyRestaurantNodes[i], customerNodes[i]))
+            .toList();
+
+        Map<String, List<Path>> paths = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            paths.put("customer_" + i, results.get(i));
+        }
+        return paths;
+    }
+
+    private List<Path> nearbyCandidates(int[] restaurantNodes, int customerNode) {
+        if (restaurantNodes.length == 1) {
+            return candidates(restaurantNodes[0], customerNode);
+        }
+        List<Path> paths = new ArrayList<>();
+        for (int restaurantNode : restaurantNodes) {
+            try {
+                paths.addAll(candidates(restaurantNode, customerNode));
+            } catch (IllegalArgumentException e) {
+                // 该餐厅到不了此顾客，由其余餐厅配送
+            }
+        }
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("No nearby restaurant reaches customer node " + customerNode);
+        }
+        return paths;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("Node " + node + " is not in the road graph");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        java.nio.file.Path graphFile = java.nio.file.Path.of(getArg(args, "--graph", "roads.txt"));
+        String hierarchyFiles = getArg(args, "--hierarchy", null);
+        java.nio.file.Path customerFile = java.nio.file.Path.of(getArg(args, "--customers", "customers.txt"));
+        java.nio.file.Path output = java.nio.file.Path.of(getArg(args, "--output", "road_instance.json"));
+        int k = Integer.parseInt(getArg(args, "--k", "5"));
+        RoadGraph.Metric metric = RoadGraph.Metric.valueOf(getArg(args, "--metric", "TIME").toUpperCase());
+        String restaurantFile = getArg(args, "--restaurants", null);
+        int nearest = Integer.parseInt(getArg(args, "--nearest", "3"));
+
+        long startTime = System.currentTimeMillis();
+        CandidatePathGenerator generator;
+        if (hierarchyFiles != null) {
+            List<ContractionHierarchy> hierarchies = new ArrayList<>();
+            for (String file : hierarchyFiles.split(",")) {
+                hierarchies.add(ContractionHierarchy.open(java.nio.file.Path.of(file.trim())));
+            }
+            generator = new CandidatePathGenerator(hierarchies);
+            System.out.printf("收缩层次: %d 个, 映射耗时 %d ms\n",
+                hierarchies.size(), System.currentTimeMillis() - startTime);
+        } else {
+            RoadGraph graph = RoadGraph.load(graphFile);
+            generator = new CandidatePathGenerator(graph, metric, k);
+            System.out.printf("路网: %d 个节点, %d 条有向边, 加载耗时 %d ms\n",
+                graph.nodeCount(), graph.edgeCount(), System.currentTimeMillis() - startTime);
+        }
+
+        List<Restaurant> restaurants = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        List<String[]> customerRows = readRows(customerFile);
+        int[] customerNodes = new int[customerRows.size()];
+        int[][] nearbyRestaurants = new int[customerRows.size()][];
+        if (restaurantFile != null) {
+            // 按坐标为每个顾客选最近的若干家餐厅
+            List<String[]> restaurantRows = readRows(java.nio.file.Path.of(restaurantFile));
+            int[] restaurantNodes = new int[restaurantRows.size()];
+            double[] xs = new double[restaurantRows.size()];
+            double[] ys = new double[restaurantRows.size()];
+            for (int j = 0; j < restaurantRows.size(); j++) {
+                restaurantNodes[j] = Integer.parseInt(restaurantRows.get(j)[0]);
+                xs[j] = Double.parseDouble(restaurantRows.get(j)[1]);
+                ys[j] = Double.parseDouble(restaurantRows.get(j)[2]);
+                restaurants.add(new Restaurant(j, xs[j], ys[j]));
+            }
+            SpatialGrid grid = new SpatialGrid(xs, ys);
+            for (int i = 0; i < customerRows.size(); i++) {
+                String[] row = customerRows.get(i);
+                double x = Double.parseDouble(row[1]);
+                double y = Double.parseDouble(row[2]);
+                customerNodes[i] = Integer.parseInt(row[0]);
+                customers.add(new Customer(i, x, y));
+                int[] nearby = grid.nearest(x, y, nearest);
+                nearbyRestaurants[i] = new int[nearby.length];
+                for (int j = 0; j < nearby.length; j++) {
+                    nearbyRestaurants[i][j] = restaurantNodes[nearby[j]];
+                }
+            }
+        } else {
+            Map<Integer, Integer> restaurantIds = new LinkedHashMap<>();
+            for (int i = 0; i < customerRows.size(); i++) {
+                customerNodes[i] = Integer.parseInt(customerRows.get(i)[0]);
+                int restaurantNode = Integer.parseInt(customerRows.get(i)[1]);
+                nearbyRestaurants[i] = new int[] {restaurantNode};
+                restaurantIds.putIfAbsent(restaurantNode, restaurantIds.size());
+                customers.add(new Customer(i));
+            }
+            for (int id : restaurantIds.values()) {
+                restaurants.add(new Restaurant(id));
+            }
+        }
+
+        startTime = System.currentTimeMillis();
+        Map<String, List<Path>> paths = generator.generate(nearbyRestaurants, customerNodes);
+        if (hierarchyFiles != null) {
+            System.out.printf("为 %d 个顾客查询候选路径, 耗时 %d ms\n",
+                customerNodes.length, System.currentTimeMillis() - startTime);
+        } else {
+            System.out.printf("为 %d 个顾客生成候选路径 (k=%d, 按%s), 耗时 %d ms\n",
+                customerNodes.length, k, metric, System.currentTimeMillis() - startTime);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("restaurants", restaurants);
+        data.put("customers", customers);
+        data.put("paths", paths);
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            gson.toJson(data, writer);
+        }
+        System.out.println("实例已保存到: " + output);
+    }
+
+    private static List<String[]> readRows(java.nio.file.Path file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                rows.add(line.split("\\s+"));
+            }
+        }
+        return rows;
+    }
+
+    private static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,652 @@
+package graph;
+
+import model.Path;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 路网的收缩层次（Contraction Hierarchy），用于大规模路网上的快速点对点最短路查询
+ *
+ * 预处理按"边差"（需要添加的捷径数 - 删除的边数 + 已收缩邻居数）从小到大逐个收缩节点：
+ * 对每对 u -> v -> w，若不经过 v 找不到不长于它的见证路径，就添加捷径 u -> w。
+ * 捷径直接累加原路径的长度、通行费和时间，查询时无需展开即可得到 Path 的三个属性。
+ * 见证搜索限制展开节点数，找不到见证时多加一条捷径，只影响规模不影响正确性。
+ *
+ * 查询是双向Dijkstra：正向只沿升序边（到收缩顺序更靠后的节点）搜索，反向只沿降序边反向搜索，
+ * 两侧相遇的最小和即最短路；另做"按需停滞"剪枝，跳过能从更高层节点更短到达的节点。
+ *
+ * 文件格式（大端序，可整体内存映射，查询直接读映射区不复制到堆）：
+ *   int[8] 魔数 0x504B4348 ("PKCH")、版本号1、边权、节点数 n、升序边数、降序边数、保留×2
+ *   升序图：int offsets[n + 1]、int targets[m]（int段补齐到8字节）、double lengths[m]、tolls[m]、times[m]
+ *   降序图：同上，targets 为反向搜索时到达的节点
+ * 每段单独映射，单段不超过2GB。
+ *
+ * 用法：
+ *   java graph.ContractionHierarchy --graph roads.txt --output roads.time.ch [--metric TIME|LENGTH|TOLL]
+ */
+public final class ContractionHierarchy {
+    private static final int MAGIC = 0x504B4348;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final RoadGraph.Metric metric;
+    private final int nodeCount;
+    private final SearchGraph upward;
+    private final SearchGraph downward;
+    private final ThreadLocal<Query> queries;
+
+    private ContractionHierarchy(RoadGraph.Metric metric, int nodeCount, SearchGraph upward, SearchGraph downward) {
+        this.metric = metric;
+        this.nodeCount = nodeCount;
+        this.upward = upward;
+        this.downward = downward;
+        this.queries = ThreadLocal.withInitial(Query::new);
+    }
+
+    public RoadGraph.Metric getMetric() { return metric; }
+    public int nodeCount() { return nodeCount; }
+    public int edgeCount() { return upward.edgeCount() + downward.edgeCount(); }
+
+    /**
+     * 按metric最短的 source -> target 路径，返回其长度、通行费、时间；不可达时返回null。
+     * 每个线程复用自己的查询工作区，可并发调用。
+     */
+    public Path route(int source, int target) {
+        if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+            throw new IllegalArgumentException("Node out of range: " + source + " -> " + target);
+        }
+        return queries.get().route(source, target);
+    }
+
+    // ---------------------------------------------------------------- 预处理
+
+    public static ContractionHierarchy build(RoadGraph graph, RoadGraph.Metric metric) {
+        return new Contractor(graph, metric).run();
+    }
+
+    /**
+     * 收缩过程中的动态图：边池加每个节点的出/入边下标表，收缩后从邻居表中摘除指向它的边
+     */
+    private static final class Contractor {
+        private final RoadGraph.Metric metric;
+        private final int nodeCount;
+
+        private int edgeSize;
+        private int[] from = new int[1024];
+        private int[] to = new int[1024];
+        private double[] weights = new double[1024];
+        private double[] lengths = new double[1024];
+        private double[] tolls = new double[1024];
+        private double[] times = new double[1024];
+
+        private final int[][] outEdges;
+        private final int[] outSize;
+        private final int[][] inEdges;
+        private final int[] inSize;
+
+        private final boolean[] contracted;
+        private final int[] rank;
+        private final int[] deletedNeighbors;
+
+        // 见证搜索工作区
+        private final double[] witnessDistance;
+        private final int[] witnessStamp;
+        private int stamp;
+        private final NodeHeap heap = new NodeHeap();
+
+        Contractor(RoadGraph graph, RoadGraph.Metric metric) {
+            this.metric = metric;
+            this.nodeCount = graph.nodeCount();
+            this.outEdges = new int[nodeCount][];
+            this.outSize = new int[nodeCount];
+            this.inEdges = new int[nodeCount][];
+            this.inSize = new int[nodeCount];
+            this.contracted = new boolean[nodeCount];
+            this.rank = new int[nodeCount];
+            this.deletedNeighbors = new int[nodeCount];
+            this.witnessDistance = new double[nodeCount];
+            this.witnessStamp = new int[nodeCount];
+            for (int v = 0; v < nodeCount; v++) {
+                outEdges[v] = new int[4];
+                inEdges[v] = new int[4];
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                for (int e = graph.edgeBegin(v); e < graph.edgeEnd(v); e++) {
+                    int w = graph.target(e);
+                    if (w != v) {
+                        addOrImprove(v, w, graph.weight(e, metric), graph.length(e), graph.toll(e), graph.time(e));
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy run() {
+            double[] priorities = new double[nodeCount];
+            NodeHeap queue = new NodeHeap();
+            for (int v = 0; v < nodeCount; v++) {
+                priorities[v] = priority(v);
+                queue.push(v, priorities[v]);
+            }
+
+            int order = 0;
+            while (!queue.isEmpty()) {
+                double key = queue.peekKey();
+                int v = queue.pop();
+                if (contracted[v] || key != priorities[v]) {
+                    continue;
+                }
+                // 惰性更新：重新计算后不再是最小的就放回队列
+                double current = priority(v);
+                if (current > queue.peekKey()) {
+                    priorities[v] = current;
+                    queue.push(v, current);
+                    continue;
+                }
+                contract(v, true);
+                contracted[v] = true;
+                rank[v] = order++;
+                for (int neighbor : detach(v)) {
+                    deletedNeighbors[neighbor]++;
+                    priorities[neighbor] = priority(neighbor);
+                    queue.push(neighbor, priorities[neighbor]);
+                }
+            }
+            return assemble();
+        }
+
+        private double priority(int v) {
+            int removed = outSize[v] + inSize[v];
+            return contract(v, false) - removed + deletedNeighbors[v];
+        }
+
+        /**
+         * 模拟（apply=false）或实际收缩v，返回需要的捷径数
+         */
+        private int contract(int v, boolean apply) {
+            int shortcuts = 0;
+            for (int i = 0; i < inSize[v]; i++) {
+                int incoming = inEdges[v][i];
+                int u = from[incoming];
+                double maxTarget = -1;
+                for (int j = 0; j < outSize[v]; j++) {
+                    int outgoing = outEdges[v][j];
+                    if (to[outgoing] != u) {
+                        maxTarget = Math.max(maxTarget, weights[incoming] + weights[outgoing]);
+                    }
+                }
+                if (maxTarget < 0) {
+                    continue;
+                }
+                witnessSearch(u, v, maxTarget);
+                for (int j = 0; j < outSize[v]; j++) {
+                    int outgoing = outEdges[v][j];
+                    int w = to[outgoing];
+                    if (w == u) {
+                        continue;
+                    }
+                    double via = weights[incoming] + weights[outgoing];
+                    if (witnessStamp[w] == stamp && witnessDistance[w] <= via) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (apply) {
+                        addOrImprove(u, w, via, lengths[incoming] + lengths[outgoing],
+                            tolls[incoming] + tolls[outgoing], times[incoming] + times[outgoing]);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // 从u出发、不经过v的受限Dijkstra，距离超过maxTarget或展开节点过多时停止
+        private void witnessSearch(int u, int v, double maxTarget) {
+            stamp++;
+            heap.clear();
+            witnessDistance[u] = 0;
+            witnessStamp[u] = stamp;
+            heap.push(u, 0);
+            int settledCount = 0;
+            while (!heap.isEmpty()) {
+                double key = heap.peekKey();
+                int node = heap.pop();
+                if (key > witnessDistance[node]) {
+                    continue;
+                }
+                if (key > maxTarget || ++settledCount > WITNESS_SETTLE_LIMIT) {
+                    break;
+                }
+                for (int i = 0; i < outSize[node]; i++) {
+                    int edge = outEdges[node][i];
+                    int next = to[edge];
+                    if (next == v) {
+                        continue;
+                    }
+                    double candidate = key + weights[edge];
+                    if (witnessStamp[next] != stamp || candidate < witnessDistance[next]) {
+                        witnessStamp[next] = stamp;
+                        witnessDistance[next] = candidate;
+                        heap.push(next, candidate);
+                    }
+                }
+            }
+        }
+
+        // 已有 u -> w 边时保留较短者，否则新增一条边
+        private void addOrImprove(int u, int w, double weight, double length, double toll, double time) {
+            for (int i = 0; i < outSize[u]; i++) {
+                int edge = outEdges[u][i];
+                if (to[edge] == w) {
+                    if (weight < weights[edge]) {
+                        weights[edge] = weight;
+                        lengths[edge] = length;
+                        tolls[edge] = toll;
+                        times[edge] = time;
+                    }
+                    return;
+                }
+            }
+            if (edgeSize == from.length) {
+                int capacity = edgeSize * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                tolls = Arrays.copyOf(tolls, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            int edge = edgeSize++;
+            from[edge] = u;
+            to[edge] = w;
+            weights[edge] = weight;
+            lengths[edge] = length;
+            tolls[edge] = toll;
+            times[edge] = time;
+            outSize[u] = append(outEdges, outSize[u], u, edge);
+            inSize[w] = append(inEdges, inSize[w], w, edge);
+        }
+
+        private static int append(int[][] lists, int size, int node, int edge) {
+            if (size == lists[node].length) {
+                lists[node] = Arrays.copyOf(lists[node], size * 2);
+            }
+            lists[node][size] = edge;
+            return size + 1;
+        }
+
+        // 从v的邻居的出入边表中摘除与v相连的边，返回这些邻居
+        private int[] detach(int v) {
+            int[] neighbors = new int[outSize[v] + inSize[v]];
+            int count = 0;
+            for (int i = 0; i < outSize[v]; i++) {
+                int w = to[outEdges[v][i]];
+                inSize[w] = removeEdgesTo(inEdges[w], inSize[w], v, from);
+                neighbors[count++] = w;
+            }
+            for (int i = 0; i < inSize[v]; i++) {
+                int u = from[inEdges[v][i]];
+                outSize[u] = removeEdgesTo(outEdges[u], outSize[u], v, to);
+                neighbors[count++] = u;
+            }
+            return Arrays.stream(neighbors, 0, count).distinct().toArray();
+        }
+
+        private static int removeEdgesTo(int[] edges, int size, int node, int[] endpoints) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (endpoints[edges[i]] != node) {
+                    edges[kept++] = edges[i];
+                }
+            }
+            return kept;
+        }
+
+        // 边池中所有边按两端的收缩顺序分到升序图或降序图
+        private ContractionHierarchy assemble() {
+            int[] upOffsets = new int[nodeCount + 1];
+            int[] downOffsets = new int[nodeCount + 1];
+            for (int e = 0; e < edgeSize; e++) {
+                if (rank[from[e]] < rank[to[e]]) {
+                    upOffsets[from[e] + 1]++;
+                } else {
+                    downOffsets[to[e] + 1]++;
+                }
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                upOffsets[v + 1] += upOffsets[v];
+                downOffsets[v + 1] += downOffsets[v];
+            }
+            SearchGraph.Builder up = new SearchGraph.Builder(upOffsets);
+            SearchGraph.Builder down = new SearchGraph.Builder(downOffsets);
+            for (int e = 0; e < edgeSize; e++) {
+                if (rank[from[e]] < rank[to[e]]) {
+                    up.add(from[e], to[e], lengths[e], tolls[e], times[e]);
+                } else {
+                    down.add(to[e], from[e], lengths[e], tolls[e], times[e]);
+                }
+            }
+            return new ContractionHierarchy(metric, nodeCount, up.toGraph(metric), down.toGraph(metric));
+        }
+    }
+
+    // ---------------------------------------------------------------- 存储
+
+    /**
+     * CSR形式的单向搜索图，数组是堆上数组的包装或文件映射区的视图
+     */
+    private static final class SearchGraph {
+        final IntBuffer offsets;
+        final IntBuffer targets;
+        final DoubleBuffer lengths;
+        final DoubleBuffer tolls;
+        final DoubleBuffer times;
+        final DoubleBuffer weights;   // 指向metric对应的属性
+
+        SearchGraph(IntBuffer offsets, IntBuffer targets, DoubleBuffer lengths, DoubleBuffer tolls,
+                    DoubleBuffer times, RoadGraph.Metric metric) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.lengths = lengths;
+            this.tolls = tolls;
+            this.times = times;
+            this.weights = switch (metric) {
+                case LENGTH -> lengths;
+                case TOLL -> tolls;
+                case TIME -> times;
+            };
+        }
+
+        int edgeCount() {
+            return targets.capacity();
+        }
+
+        /**
+         * 按已计数的offsets逐条填入边
+         */
+        static final class Builder {
+            private final int[] offsets;
+            private final int[] next;
+            private final int[] targets;
+            private final double[] lengths;
+            private final double[] tolls;
+            private final double[] times;
+
+            Builder(int[] offsets) {
+                int edgeCount = offsets[offsets.length - 1];
+                this.offsets = offsets;
+                this.next = Arrays.copyOf(offsets, offsets.length - 1);
+                this.targets = new int[edgeCount];
+                this.lengths = new double[edgeCount];
+                this.tolls = new double[edgeCount];
+                this.times = new double[edgeCount];
+            }
+
+            void add(int node, int target, double length, double toll, double time) {
+                int slot = next[node]++;
+                targets[slot] = target;
+                lengths[slot] = length;
+                tolls[slot] = toll;
+                times[slot] = time;
+            }
+
+            SearchGraph toGraph(RoadGraph.Metric metric) {
+                return new SearchGraph(IntBuffer.wrap(offsets), IntBuffer.wrap(targets), DoubleBuffer.wrap(lengths),
+                    DoubleBuffer.wrap(tolls), DoubleBuffer.wrap(times), metric);
+            }
+        }
+    }
+
+    public void save(java.nio.file.Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            int[] header = {MAGIC, VERSION, metric.ordinal(), nodeCount,
+                upward.edgeCount(), downward.edgeCount(), 0, 0};
+            for (int value : header) {
+                out.writeInt(value);
+            }
+            writeGraph(upward, out);
+            writeGraph(downward, out);
+        }
+    }
+
+    private static void writeGraph(SearchGraph graph, DataOutputStream out) throws IOException {
+        writeInts(graph.offsets, out);
+        writeInts(graph.targets, out);
+        writeDoubles(graph.lengths, out);
+        writeDoubles(graph.tolls, out);
+        writeDoubles(graph.times, out);
+    }
+
+    private static void writeInts(IntBuffer values, DataOutputStream out) throws IOException {
+        for (int i = 0; i < values.capacity(); i++) {
+            out.writeInt(values.get(i));
+        }
+        if (values.capacity() % 2 != 0) {
+            out.writeInt(0);
+        }
+    }
+
+    private static void writeDoubles(DoubleBuffer values, DataOutputStream out) throws IOException {
+        for (int i = 0; i < values.capacity(); i++) {
+            out.writeDouble(values.get(i));
+        }
+    }
+
+    /**
+     * 以只读内存映射打开预处理文件，映射在文件通道关闭后仍然有效
+     */
+    public static ContractionHierarchy open(java.nio.file.Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_INTS * Integer.BYTES) {
+                throw new IOException("Not a contraction hierarchy file: " + file);
+            }
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_INTS * Integer.BYTES)
+                .asIntBuffer();
+            if (header.get(0) != MAGIC) {
+                throw new IOException("Not a contraction hierarchy file: " + file);
+            }
+            if (header.get(1) != VERSION) {
+                throw new IOException("Unsupported contraction hierarchy version: " + header.get(1));
+            }
+            RoadGraph.Metric[] metrics = RoadGraph.Metric.values();
+            if (header.get(2) < 0 || header.get(2) >= metrics.length) {
+                throw new IOException("Unknown metric " + header.get(2) + " in contraction hierarchy file: " + file);
+            }
+            RoadGraph.Metric metric = metrics[header.get(2)];
+            int nodeCount = header.get(3);
+            if (nodeCount < 0 || header.get(4) < 0 || header.get(5) < 0) {
+                throw new IOException("Corrupt contraction hierarchy file: " + file);
+            }
+            Mapper mapper = new Mapper(channel, HEADER_INTS * Integer.BYTES);
+            SearchGraph upward = mapper.graph(nodeCount, header.get(4), metric);
+            SearchGraph downward = mapper.graph(nodeCount, header.get(5), metric);
+            if (mapper.position != channel.size()) {
+                throw new IOException("Truncated or corrupt contraction hierarchy file: " + file);
+            }
+            return new ContractionHierarchy(metric, nodeCount, upward, downward);
+        }
+    }
+
+    // 顺序映射文件中的各段
+    private static final class Mapper {
+        private final FileChannel channel;
+        private long position;
+
+        Mapper(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        SearchGraph graph(int nodeCount, int edgeCount, RoadGraph.Metric metric) throws IOException {
+            IntBuffer offsets = ints(nodeCount + 1);
+            IntBuffer targets = ints(edgeCount);
+            return new SearchGraph(offsets, targets, doubles(edgeCount), doubles(edgeCount), doubles(edgeCount), metric);
+        }
+
+        IntBuffer ints(int count) throws IOException {
+            long bytes = (long) count * Integer.BYTES;
+            IntBuffer buffer = map(bytes).asIntBuffer();
+            position += count % 2 != 0 ? Integer.BYTES : 0;
+            return buffer;
+        }
+
+        DoubleBuffer doubles(int count) throws IOException {
+            return map((long) count * Double.BYTES).asDoubleBuffer();
+        }
+
+        private ByteBuffer map(long bytes) throws IOException {
+            if (position + bytes > channel.size()) {
+                throw new IOException("Truncated contraction hierarchy file");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+            position += bytes;
+            return buffer;
+        }
+    }
+
+    // ---------------------------------------------------------------- 查询
+
+    /**
+     * 单线程的双向查询工作区，时间戳数组避免每次清零
+     */
+    private final class Query {
+        private final double[] forwardDistance = new double[nodeCount];
+        private final double[] backwardDistance = new double[nodeCount];
+        private final int[] forwardReached = new int[nodeCount];
+        private final int[] backwardReached = new int[nodeCount];
+        private final int[] forwardEdge = new int[nodeCount];
+        private final int[] backwardEdge = new int[nodeCount];
+        private final int[] forwardPrevious = new int[nodeCount];
+        private final int[] backwardPrevious = new int[nodeCount];
+        private final NodeHeap forwardHeap = new NodeHeap();
+        private final NodeHeap backwardHeap = new NodeHeap();
+        private int stamp;
+
+        Path route(int source, int target) {
+            stamp++;
+            forwardHeap.clear();
+            backwardHeap.clear();
+            reach(source, 0, -1, -1, forwardDistance, forwardReached, forwardEdge, forwardPrevious, forwardHeap);
+            reach(target, 0, -1, -1, backwardDistance, backwardReached, backwardEdge, backwardPrevious, backwardHeap);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+            while (true) {
+                boolean forward = forwardHeap.peekKey() <= backwardHeap.peekKey();
+                NodeHeap heap = forward ? forwardHeap : backwardHeap;
+                if (heap.peekKey() >= best) {
+                    break;
+                }
+                double key = heap.peekKey();
+                int node = heap.pop();
+                double[] distance = forward ? forwardDistance : backwardDistance;
+                if (key > distance[node]) {
+                    continue;
+                }
+                double[] otherDistance = forward ? backwardDistance : forwardDistance;
+                int[] otherReached = forward ? backwardReached : forwardReached;
+                if (otherReached[node] == stamp && key + otherDistance[node] < best) {
+                    best = key + otherDistance[node];
+                    meeting = node;
+                }
+                if (forward) {
+                    if (!stalled(node, key, downward, forwardDistance, forwardReached)) {
+                        relax(node, key, upward, forwardDistance, forwardReached, forwardEdge, forwardPrevious,
+                            forwardHeap);
+                    }
+                } else if (!stalled(node, key, upward, backwardDistance, backwardReached)) {
+                    relax(node, key, downward, backwardDistance, backwardReached, backwardEdge, backwardPrevious,
+                        backwardHeap);
+                }
+            }
+            return meeting < 0 ? null : assemble(source, target, meeting);
+        }
+
+        private void reach(int node, double distance, int edge, int previous, double[] distances, int[] reached,
+                           int[] edges, int[] previousNodes, NodeHeap heap) {
+            distances[node] = distance;
+            reached[node] = stamp;
+            edges[node] = edge;
+            previousNodes[node] = previous;
+            heap.push(node, distance);
+        }
+
+        private void relax(int node, double key, SearchGraph graph, double[] distances, int[] reached,
+                           int[] edges, int[] previousNodes, NodeHeap heap) {
+            int end = graph.offsets.get(node + 1);
+            for (int e = graph.offsets.get(node); e < end; e++) {
+                int next = graph.targets.get(e);
+                double candidate = key + graph.weights.get(e);
+                if (reached[next] != stamp || candidate < distances[next]) {
+                    reach(next, candidate, e, node, distances, reached, edges, previousNodes, heap);
+                }
+            }
+        }
+
+        // 按需停滞：另一张图中存在从本方向已到达的更高层节点过来的更短路径时，该节点不在最短路上
+        private boolean stalled(int node, double key, SearchGraph opposite, double[] distances, int[] reached) {
+            int end = opposite.offsets.get(node + 1);
+            for (int e = opposite.offsets.get(node); e < end; e++) {
+                int higher = opposite.targets.get(e);
+                if (reached[higher] == stamp && distances[higher] + opposite.weights.get(e) < key) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Path assemble(int source, int target, int meeting) {
+            double length = 0;
+            double toll = 0;
+            double time = 0;
+            for (int node = meeting; node != source; node = forwardPrevious[node]) {
+                int e = forwardEdge[node];
+                length += upward.lengths.get(e);
+                toll += upward.tolls.get(e);
+                time += upward.times.get(e);
+            }
+            for (int node = meeting; node != target; node = backwardPrevious[node]) {
+                int e = backwardEdge[node];
+                length += downward.lengths.get(e);
+                toll += downward.tolls.get(e);
+                time += downward.times.get(e);
+            }
+            return new Path(length, toll, time);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        java.nio.file.Path graphFile = java.nio.file.Path.of(getArg(args, "--graph", "roads.txt"));
+        RoadGraph.Metric metric = RoadGraph.Metric.valueOf(getArg(args, "--metric", "TIME").toUpperCase());
+        java.nio.file.Path output = java.nio.file.Path.of(
+            getArg(args, "--output", "roads." + metric.name().toLowerCase() + ".ch"));
+
+        long startTime = System.currentTimeMillis();
+        RoadGraph graph = RoadGraph.load(graphFile);
+        System.out.printf("路网: %d 个节点, %d 条有向边, 加载耗时 %d ms\n",
+            graph.nodeCount(), graph.edgeCount(), System.currentTimeMillis() - startTime);
+
+        startTime = System.currentTimeMillis();
+        ContractionHierarchy hierarchy = build(graph, metric);
+        System.out.printf("收缩层次 (按%s): %d 条边 (原图 %d 条), 预处理耗时 %d ms\n",
+            metric, hierarchy.edgeCount(), graph.edgeCount(), System.currentTimeMillis() - startTime);
+
+        hierarchy.save(output);
+        System.out.printf("已保存到: %s (%d KB)\n", output, Files.size(output) / 1024);
+    }
+
+    private static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
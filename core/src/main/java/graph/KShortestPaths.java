@@ -0,0 +1,120 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Yen算法求前k条无环最短路
+ *
+ * 第i条路径由第i-1条路径的每个偏离点生成候选：保留偏离点之前的根路径，
+ * 禁用已选路径在该偏离点使用过的出边和根路径上的其它节点，再求偏离点到终点的最短路拼接而成。
+ * 候选去重后按总权重取最小者。所有偏离搜索的终点相同，先求一次到终点的反向距离作为A*启发值，
+ * 每次偏离搜索只展开最短路附近的节点。
+ *
+ * 实例内部复用Dijkstra工作区，非线程安全，并行生成时每个线程各用一个实例。
+ */
+public final class KShortestPaths {
+    private final RoadGraph graph;
+    private final RoadGraph.Metric metric;
+    private final ShortestPathSearch search;
+
+    // 候选路径：边序列与按metric计算的总权重
+    private record Candidate(int[] edges, double weight) {
+    }
+
+    public KShortestPaths(RoadGraph graph, RoadGraph.Metric metric) {
+        this.graph = graph;
+        this.metric = metric;
+        this.search = new ShortestPathSearch(graph, metric);
+    }
+
+    /**
+     * @return 最多k条路径的边序列，按权重升序；不可达时返回空列表
+     */
+    public List<int[]> find(int source, int target, int k) {
+        List<int[]> accepted = new ArrayList<>();
+        search.clearBans();
+        search.prepareTarget(target, source);
+        int[] first = search.shortestPath(source, target);
+        if (first == null || k <= 0) {
+            return accepted;
+        }
+        accepted.add(first);
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::weight));
+        Set<List<Integer>> seen = new HashSet<>();
+        seen.add(asList(first));
+
+        while (accepted.size() < k) {
+            int[] previous = accepted.get(accepted.size() - 1);
+            int[] nodes = nodesOf(source, previous);
+            double rootWeight = 0;
+
+            for (int spur = 0; spur < previous.length; spur++) {
+                search.clearBans();
+                // 与当前路径根部相同的已选路径，禁用它们在偏离点的下一条边
+                for (int[] path : accepted) {
+                    if (path.length > spur && samePrefix(path, previous, spur)) {
+                        search.banEdge(path[spur]);
+                    }
+                }
+                // 根路径上偏离点之前的节点不能再经过，保证路径无环
+                for (int i = 0; i < spur; i++) {
+                    search.banNode(nodes[i]);
+                }
+
+                int[] spurPath = search.shortestPath(nodes[spur], target);
+                if (spurPath != null) {
+                    int[] edges = new int[spur + spurPath.length];
+                    System.arraycopy(previous, 0, edges, 0, spur);
+                    System.arraycopy(spurPath, 0, edges, spur, spurPath.length);
+                    if (seen.add(asList(edges))) {
+                        candidates.add(new Candidate(edges, rootWeight + weightOf(spurPath)));
+                    }
+                }
+                rootWeight += graph.weight(previous[spur], metric);
+            }
+
+            Candidate best = candidates.poll();
+            if (best == null) {
+                break;
+            }
+            accepted.add(best.edges());
+        }
+        search.clearBans();
+        return accepted;
+    }
+
+    public double weightOf(int[] edges) {
+        double weight = 0;
+        for (int edge : edges) {
+            weight += graph.weight(edge, metric);
+        }
+        return weight;
+    }
+
+    private int[] nodesOf(int source, int[] edges) {
+        int[] nodes = new int[edges.length + 1];
+        nodes[0] = source;
+        for (int i = 0; i < edges.length; i++) {
+            nodes[i + 1] = graph.target(edges[i]);
+        }
+        return nodes;
+    }
+
+    private static boolean samePrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Integer> asList(int[] edges) {
+        List<Integer> list = new ArrayList<>(edges.length);
+        for (int edge : edges) {
+            list.add(edge);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,179 @@
+package graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * 路网图，邻接关系以CSR（压缩稀疏行）数组保存
+ *
+ * 节点 v 的出边为下标 [offsets[v], offsets[v + 1]) 的边，每条边有目标节点、长度、通行费和行驶时间，
+ * 分别对应 model.Path 的 distance、cost、time。所有数组在构建后不再修改，可被多个线程同时查询。
+ *
+ * 边列表文件格式（空白分隔，# 开头为注释）：
+ *   from to length toll time [oneway]
+ * 节点编号从0开始；默认是双向道路，第6列为1时只添加 from -> to 一个方向。
+ */
+public final class RoadGraph {
+    /**
+     * 最短路搜索使用的边权
+     */
+    public enum Metric { LENGTH, TOLL, TIME }
+
+    private final int nodeCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] lengths;
+    private final double[] tolls;
+    private final double[] times;
+    private volatile RoadGraph reverse;
+
+    RoadGraph(int nodeCount, int[] offsets, int[] targets, double[] lengths, double[] tolls, double[] times) {
+        this.nodeCount = nodeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.lengths = lengths;
+        this.tolls = tolls;
+        this.times = times;
+    }
+
+    public static RoadGraph load(java.nio.file.Path file) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                if (fields.length < 5) {
+                    throw new IOException("Line " + lineNumber + ": expected 'from to length toll time [oneway]'");
+                }
+                try {
+                    int from = Integer.parseInt(fields[0]);
+                    int to = Integer.parseInt(fields[1]);
+                    double length = Double.parseDouble(fields[2]);
+                    double toll = Double.parseDouble(fields[3]);
+                    double time = Double.parseDouble(fields[4]);
+                    boolean oneWay = fields.length > 5 && fields[5].equals("1");
+                    builder.addEdge(from, to, length, toll, time);
+                    if (!oneWay) {
+                        builder.addEdge(to, from, length, toll, time);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public int nodeCount() { return nodeCount; }
+    public int edgeCount() { return targets.length; }
+    public int edgeBegin(int node) { return offsets[node]; }
+    public int edgeEnd(int node) { return offsets[node + 1]; }
+    public int target(int edge) { return targets[edge]; }
+    public double length(int edge) { return lengths[edge]; }
+    public double toll(int edge) { return tolls[edge]; }
+    public double time(int edge) { return times[edge]; }
+
+    /**
+     * 所有边反向后的图，首次调用时构建并缓存；反向图中边的属性与原边相同
+     */
+    public RoadGraph reverse() {
+        RoadGraph result = reverse;
+        if (result == null) {
+            synchronized (this) {
+                result = reverse;
+                if (result == null) {
+                    Builder builder = new Builder();
+                    for (int v = 0; v < nodeCount; v++) {
+                        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                            builder.addEdge(targets[e], v, lengths[e], tolls[e], times[e]);
+                        }
+                    }
+                    builder.maxNode = nodeCount - 1;
+                    result = builder.build();
+                    result.reverse = this;
+                    reverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public double weight(int edge, Metric metric) {
+        return switch (metric) {
+            case LENGTH -> lengths[edge];
+            case TOLL -> tolls[edge];
+            case TIME -> times[edge];
+        };
+    }
+
+    /**
+     * 逐条添加有向边，build() 时按起点做一次计数排序生成CSR数组
+     */
+    public static final class Builder {
+        private int[] froms = new int[16];
+        private int[] tos = new int[16];
+        private double[] edgeLengths = new double[16];
+        private double[] edgeTolls = new double[16];
+        private double[] edgeTimes = new double[16];
+        private int size;
+        private int maxNode = -1;
+
+        public Builder addEdge(int from, int to, double length, double toll, double time) {
+            if (from < 0 || to < 0) {
+                throw new IllegalArgumentException("Negative node id: " + from + " -> " + to);
+            }
+            if (length < 0 || toll < 0 || time < 0) {
+                throw new IllegalArgumentException("Negative edge attribute: " + from + " -> " + to);
+            }
+            if (size == froms.length) {
+                int capacity = size * 2;
+                froms = Arrays.copyOf(froms, capacity);
+                tos = Arrays.copyOf(tos, capacity);
+                edgeLengths = Arrays.copyOf(edgeLengths, capacity);
+                edgeTolls = Arrays.copyOf(edgeTolls, capacity);
+                edgeTimes = Arrays.copyOf(edgeTimes, capacity);
+            }
+            froms[size] = from;
+            tos[size] = to;
+            edgeLengths[size] = length;
+            edgeTolls[size] = toll;
+            edgeTimes[size] = time;
+            size++;
+            maxNode = Math.max(maxNode, Math.max(from, to));
+            return this;
+        }
+
+        public RoadGraph build() {
+            int nodeCount = maxNode + 1;
+            int[] offsets = new int[nodeCount + 1];
+            for (int e = 0; e < size; e++) {
+                offsets[froms[e] + 1]++;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            int[] targets = new int[size];
+            double[] lengths = new double[size];
+            double[] tolls = new double[size];
+            double[] times = new double[size];
+            for (int e = 0; e < size; e++) {
+                int slot = next[froms[e]]++;
+                targets[slot] = tos[e];
+                lengths[slot] = edgeLengths[e];
+                tolls[slot] = edgeTolls[e];
+                times[slot] = edgeTimes[e];
+            }
+            return new RoadGraph(nodeCount, offsets, targets, lengths, tolls, times);
+        }
+    }
+}
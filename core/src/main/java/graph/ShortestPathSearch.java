@@ -0,0 +1,181 @@
+package graph;
+
+/**
+ * 单线程复用的最短路工作区
+ *
+ * 距离、前驱和禁用标记都用"时间戳"数组表示：每次搜索或清除禁用只递增戳记，不需要清零整个数组，
+ * 因此在大图上反复搜索时代价只与实际访问的节点数有关。
+ * 优先队列是允许重复入队的NodeHeap，出队时跳过过期条目。
+ *
+ * prepareTarget 先在反向图上从终点做一次Dijkstra，得到各节点到终点的距离，
+ * 之后到该终点的搜索以此为A*启发值，只沿最短路附近展开。反向搜索在覆盖起点后再扩展到
+ * TARGET_SLACK 倍半径即停止，未覆盖的节点取已覆盖半径作为启发值：
+ * 真实距离不小于该半径，启发函数仍是一致的，禁用节点或边后搜索结果依然精确。
+ */
+final class ShortestPathSearch {
+    private static final double TARGET_SLACK = 1.5;
+
+    private final RoadGraph graph;
+    private final RoadGraph reverseGraph;
+    private final RoadGraph.Metric metric;
+
+    private final double[] distance;
+    private final int[] previousEdge;
+    private final int[] previousNode;
+    private final int[] reached;       // 等于searchStamp时distance有效
+    private final int[] settled;
+    private int searchStamp;
+
+    private final double[] targetDistance;
+    private final int[] targetReached; // 等于targetStamp时targetDistance为到终点的精确距离
+    private int targetStamp;
+    private double targetRadius;       // 未覆盖节点的启发值
+    private int preparedTarget = -1;
+
+    private final int[] bannedNodes;   // 等于banStamp时该节点/边被禁用
+    private final int[] bannedEdges;
+    private int banStamp = 1;
+
+    private final NodeHeap heap = new NodeHeap();
+
+    ShortestPathSearch(RoadGraph graph, RoadGraph.Metric metric) {
+        this.graph = graph;
+        this.reverseGraph = graph.reverse();
+        this.metric = metric;
+        int n = graph.nodeCount();
+        this.distance = new double[n];
+        this.previousEdge = new int[n];
+        this.previousNode = new int[n];
+        this.reached = new int[n];
+        this.settled = new int[n];
+        this.targetDistance = new double[n];
+        this.targetReached = new int[n];
+        this.bannedNodes = new int[n];
+        this.bannedEdges = new int[graph.edgeCount()];
+    }
+
+    void banNode(int node) {
+        bannedNodes[node] = banStamp;
+    }
+
+    void banEdge(int edge) {
+        bannedEdges[edge] = banStamp;
+    }
+
+    void clearBans() {
+        banStamp++;
+    }
+
+    /**
+     * 为到target的后续搜索计算启发值（忽略禁用），source为预计的起点，决定反向搜索的范围
+     */
+    void prepareTarget(int target, int source) {
+        targetStamp++;
+        preparedTarget = target;
+        targetRadius = 0;
+        searchStamp++;
+        heap.clear();
+        targetDistance[target] = 0;
+        targetReached[target] = targetStamp;
+        heap.push(target, 0);
+
+        double stopRadius = Double.POSITIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int node = heap.pop();
+            if (settled[node] == searchStamp || key > targetDistance[node]) {
+                continue;
+            }
+            if (key > stopRadius) {
+                targetReached[node] = targetStamp - 1;
+                break;
+            }
+            settled[node] = searchStamp;
+            targetRadius = key;
+            if (node == source) {
+                stopRadius = key * TARGET_SLACK;
+            }
+            for (int e = reverseGraph.edgeBegin(node); e < reverseGraph.edgeEnd(node); e++) {
+                int next = reverseGraph.target(e);
+                if (settled[next] == searchStamp) {
+                    continue;
+                }
+                double candidate = key + reverseGraph.weight(e, metric);
+                if (targetReached[next] != targetStamp || candidate < targetDistance[next]) {
+                    targetReached[next] = targetStamp;
+                    targetDistance[next] = candidate;
+                    heap.push(next, candidate);
+                }
+            }
+        }
+        // 只有已出队的节点距离是精确的，其余入队未出队的节点退回到半径
+        for (int i = 0; i < heap.size(); i++) {
+            int node = heap.nodeAt(i);
+            if (settled[node] != searchStamp) {
+                targetReached[node] = targetStamp - 1;
+            }
+        }
+    }
+
+    private double heuristic(int node, int target) {
+        if (target != preparedTarget) {
+            return 0;
+        }
+        return targetReached[node] == targetStamp ? targetDistance[node] : targetRadius;
+    }
+
+    /**
+     * source到target的最短路，返回途经的边下标序列；不可达时返回null
+     */
+    int[] shortestPath(int source, int target) {
+        if (bannedNodes[source] == banStamp) {
+            return null;
+        }
+        searchStamp++;
+        heap.clear();
+        distance[source] = 0;
+        previousEdge[source] = -1;
+        reached[source] = searchStamp;
+        heap.push(source, heuristic(source, target));
+
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int node = heap.pop();
+            if (settled[node] == searchStamp || key > distance[node] + heuristic(node, target)) {
+                continue;
+            }
+            settled[node] = searchStamp;
+            if (node == target) {
+                return tracePath(source, target);
+            }
+            double base = distance[node];
+            for (int e = graph.edgeBegin(node); e < graph.edgeEnd(node); e++) {
+                int next = graph.target(e);
+                if (bannedEdges[e] == banStamp || bannedNodes[next] == banStamp || settled[next] == searchStamp) {
+                    continue;
+                }
+                double candidate = base + graph.weight(e, metric);
+                if (reached[next] != searchStamp || candidate < distance[next]) {
+                    reached[next] = searchStamp;
+                    distance[next] = candidate;
+                    previousEdge[next] = e;
+                    previousNode[next] = node;
+                    heap.push(next, candidate + heuristic(next, target));
+                }
+            }
+        }
+        return null;
+    }
+
+    private int[] tracePath(int source, int target) {
+        int length = 0;
+        for (int node = target; node != source; node = previousNode[node]) {
+            length++;
+        }
+        int[] edges = new int[length];
+        for (int node = target; node != source; node = previousNode[node]) {
+            edges[--length] = previousEdge[node];
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,178 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * 平面点集的均匀网格索引，用于查询离某位置最近的k个点（如顾客附近的餐厅）
+ *
+ * 按点集的外包矩形划分为边长相同的正方形格子，平均每格约 POINTS_PER_CELL 个点，
+ * 点编号按格子排序后以CSR形式保存。查询从所在格子开始逐圈向外扩展，
+ * 当已找到k个点且第k近的距离不超过下一圈的最近可能距离时停止，
+ * 点分布大致均匀时每次查询只访问常数个格子，与点总数无关。
+ *
+ * 构建后只读，可被多个线程同时查询。
+ */
+public final class SpatialGrid {
+    private static final double POINTS_PER_CELL = 2.0;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;   // 格子c内的点为 points[cellStart[c], cellStart[c + 1])
+    private final int[] points;
+
+    /**
+     * @param xs 第i个点的横坐标
+     * @param ys 第i个点的纵坐标
+     */
+    public SpatialGrid(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length");
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        int n = xs.length;
+
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(xs[i]) || !Double.isFinite(ys[i])) {
+                throw new IllegalArgumentException("Point " + i + " has no finite coordinates");
+            }
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (n == 0) {
+            minX = maxX = minY = maxY = 0;
+        }
+        double width = maxX - minX;
+        double height = maxY - minY;
+        double cells = Math.max(1, n / POINTS_PER_CELL);
+        double size = Math.sqrt(width * height / cells);
+        if (!(size > 0)) {
+            // 所有点共线或重合时按较长的一边切分
+            size = Math.max(width, height) / cells;
+        }
+        if (!(size > 0)) {
+            size = 1;
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = size;
+        this.columns = (int) Math.min(Math.floor(width / size) + 1, 1 << 15);
+        this.rows = (int) Math.min(Math.floor(height / size) + 1, 1 << 15);
+
+        int[] cellOf = new int[n];
+        this.cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = column(xs[i]) + row(ys[i]) * columns;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] next = Arrays.copyOf(cellStart, columns * rows);
+        this.points = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[next[cellOf[i]]++] = i;
+        }
+    }
+
+    public int size() {
+        return points.length;
+    }
+
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) ((x - minX) / cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / cellSize)));
+    }
+
+    /**
+     * 离 (x, y) 最近的至多k个点的编号，按距离升序，距离相同时编号小的在前
+     */
+    public int[] nearest(double x, double y, int k) {
+        k = Math.min(k, points.length);
+        int[] found = new int[k];
+        double[] foundDistance = new double[k];
+        int count = 0;
+        if (k == 0) {
+            return found;
+        }
+
+        int centerColumn = column(x);
+        int centerRow = row(y);
+        int maxRing = Math.max(Math.max(centerColumn, columns - 1 - centerColumn),
+            Math.max(centerRow, rows - 1 - centerRow));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int top = centerRow - ring;
+            int bottom = centerRow + ring;
+            for (int r = Math.max(top, 0); r <= Math.min(bottom, rows - 1); r++) {
+                // 圈的上下两行取整行，中间各行只取左右两端的格子
+                boolean edgeRow = r == top || r == bottom;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int c = centerColumn - ring; c <= centerColumn + ring; c += Math.max(step, 1)) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    int cell = c + r * columns;
+                    for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                        int point = points[p];
+                        double dx = xs[point] - x;
+                        double dy = ys[point] - y;
+                        count = offer(found, foundDistance, count, point, dx * dx + dy * dy);
+                    }
+                }
+            }
+            if (count == k) {
+                // 未访问的点都在当前圈之外，离查询位置至少为到仍有格子的那几条圈边界的距离
+                double reach = Double.POSITIVE_INFINITY;
+                if (centerColumn - ring > 0) {
+                    reach = Math.min(reach, x - (minX + (centerColumn - ring) * cellSize));
+                }
+                if (centerColumn + ring < columns - 1) {
+                    reach = Math.min(reach, minX + (centerColumn + ring + 1) * cellSize - x);
+                }
+                if (centerRow - ring > 0) {
+                    reach = Math.min(reach, y - (minY + (centerRow - ring) * cellSize));
+                }
+                if (centerRow + ring < rows - 1) {
+                    reach = Math.min(reach, minY + (centerRow + ring + 1) * cellSize - y);
+                }
+                if (reach >= 0 && reach * reach >= foundDistance[k - 1]) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    // 插入排序维护前k近的点
+    private static int offer(int[] found, double[] foundDistance, int count, int point, double distance) {
+        int k = found.length;
+        if (count == k && !closer(distance, point, foundDistance[k - 1], found[k - 1])) {
+            return count;
+        }
+        int i = count == k ? k - 1 : count++;
+        while (i > 0 && closer(distance, point, foundDistance[i - 1], found[i - 1])) {
+            found[i] = found[i - 1];
+            foundDistance[i] = foundDistance[i - 1];
+            i--;
+        }
+        found[i] = point;
+        foundDistance[i] = distance;
+        return count;
+    }
+
+    private static boolean closer(double distance, int point, double otherDistance, int otherPoint) {
+        return distance < otherDistance || (distance == otherDistance && point < otherPoint);
+    }
+}
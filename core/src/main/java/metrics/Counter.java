@@ -0,0 +1,25 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单调递增计数器，多线程高频递增时无锁竞争
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
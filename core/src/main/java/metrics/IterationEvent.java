@@ -0,0 +1,43 @@
+package metrics;
+
+import jdk.jfr.*;
+
+/**
+ * 迭代算法的进度检查点，每 SAMPLE_INTERVAL 次迭代（或遗传算法的代）记录一次当前最优成本
+ *
+ * 采样间隔由 -Dpku.jfr.iterationSample 设置，默认16。
+ * 调用方先用 sampled(iteration) 判断，只有命中采样且事件已开启时才计算最优成本并提交，
+ * 未开启记录时每次迭代只多一次取模和isEnabled判断。
+ */
+@Name("pku.Iteration")
+@Label("Solver Iteration")
+@Category({"PKU Delivery", "Solver"})
+@StackTrace(false)
+public class IterationEvent extends Event {
+    public static final int SAMPLE_INTERVAL = Math.max(1, Integer.getInteger("pku.jfr.iterationSample", 16));
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Iteration")
+    public long iteration;
+
+    @Label("Customers")
+    public int customers;
+
+    @Label("Best Cost")
+    public double bestCost;
+
+    public static boolean sampled(long iteration) {
+        return iteration % SAMPLE_INTERVAL == 0 && new IterationEvent().isEnabled();
+    }
+
+    public static void emit(String algorithm, long iteration, int customers, double bestCost) {
+        IterationEvent event = new IterationEvent();
+        event.algorithm = algorithm;
+        event.iteration = iteration;
+        event.customers = customers;
+        event.bestCost = bestCost;
+        event.commit();
+    }
+}
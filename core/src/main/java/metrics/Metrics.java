@@ -0,0 +1,166 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内指标注册表
+ *
+ * 指标按 名称 + 标签 区分，首次获取时创建，之后返回同一个实例。
+ * 热点路径应把取得的Counter/Histogram保存在字段中，每次记录只是一次LongAdder或数组原子自增。
+ *
+ * 导出：
+ *   toPrometheusText()  Prometheus文本格式快照（计数器为counter，直方图为summary，单位秒），
+ *                       SolveServer在 GET /metrics 返回，批处理可写入文件
+ *   printSummary()      人类可读的汇总，Main与ExperimentRunner结束时打印
+ *   设置 -Dpku.metrics.file=路径 时，writeConfiguredFile() 把快照写入该文件
+ */
+public final class Metrics {
+    public static final String FILE_PROPERTY = "pku.metrics.file";
+    private static final String PREFIX = "pku_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, String> helps = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @param labels 标签键值对，依次为 key1, value1, key2, value2 ...
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        helps.putIfAbsent(name, help);
+        return counters.computeIfAbsent(key(name, labels), k -> new Counter());
+    }
+
+    public static Histogram histogram(String name, String help, String... labels) {
+        helps.putIfAbsent(name, help);
+        return histograms.computeIfAbsent(key(name, labels), k -> new Histogram());
+    }
+
+    /**
+     * 各入口共用的求解耗时分布，按算法类型（GA、SA等）区分
+     */
+    public static Histogram solveDuration(String algorithmType) {
+        return histogram("solve_duration_seconds", "Wall-clock time of a single solve",
+            "algorithm", algorithmType.toUpperCase());
+    }
+
+    // 指标键即Prometheus的序列名，如 solve_duration_seconds{algorithm="GA"}
+    private static String key(String name, String... labels) {
+        if (labels.length == 0) {
+            return name;
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs: " + Arrays.toString(labels));
+        }
+        StringBuilder key = new StringBuilder(name).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(labels[i]).append("=\"")
+                .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\""))
+                .append('"');
+        }
+        return key.append('}').toString();
+    }
+
+    private static String nameOf(String key) {
+        int brace = key.indexOf('{');
+        return brace < 0 ? key : key.substring(0, brace);
+    }
+
+    private static String labelsOf(String key) {
+        int brace = key.indexOf('{');
+        return brace < 0 ? "" : key.substring(brace + 1, key.length() - 1);
+    }
+
+    /**
+     * Prometheus文本格式（0.0.4）快照
+     */
+    public static String toPrometheusText() {
+        StringBuilder out = new StringBuilder();
+        String currentName = null;
+        for (String key : new TreeSet<>(counters.keySet())) {
+            String name = nameOf(key);
+            if (!name.equals(currentName)) {
+                appendHeader(out, name, "counter");
+                currentName = name;
+            }
+            out.append(PREFIX).append(key).append(' ').append(counters.get(key).get()).append('\n');
+        }
+
+        currentName = null;
+        for (String key : new TreeSet<>(histograms.keySet())) {
+            String name = nameOf(key);
+            String labels = labelsOf(key);
+            Histogram histogram = histograms.get(key);
+            if (!name.equals(currentName)) {
+                appendHeader(out, name, "summary");
+                currentName = name;
+            }
+            for (double quantile : QUANTILES) {
+                out.append(PREFIX).append(name).append('{').append(labels).append(labels.isEmpty() ? "" : ",")
+                    .append("quantile=\"").append(quantile).append("\"} ")
+                    .append(histogram.percentile(quantile) / 1e9).append('\n');
+            }
+            String suffixLabels = labels.isEmpty() ? "" : "{" + labels + "}";
+            out.append(PREFIX).append(name).append("_sum").append(suffixLabels).append(' ')
+                .append(histogram.getSumNanos() / 1e9).append('\n');
+            out.append(PREFIX).append(name).append("_count").append(suffixLabels).append(' ')
+                .append(histogram.getCount()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void appendHeader(StringBuilder out, String name, String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ')
+            .append(helps.getOrDefault(name, name)).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    public static void writePrometheus(java.nio.file.Path file) throws IOException {
+        Files.writeString(file, toPrometheusText(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 设置了 -Dpku.metrics.file 时写出快照
+     */
+    public static void writeConfiguredFile() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null) {
+            return;
+        }
+        try {
+            writePrometheus(java.nio.file.Path.of(file));
+            System.out.println("指标快照已写入: " + file);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 打印人类可读的汇总：计数器取值，直方图的次数、分位数与最大值（毫秒）
+     */
+    public static void printSummary() {
+        System.out.println("\n=== 运行指标 ===");
+        for (String key : new TreeSet<>(counters.keySet())) {
+            System.out.printf("%-60s %d\n", key, counters.get(key).get());
+        }
+        for (String key : new TreeSet<>(histograms.keySet())) {
+            Histogram histogram = histograms.get(key);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-60s 次数 %d, 合计 %.1f ms, p50 %.3f ms, p99 %.3f ms, 最大 %.3f ms\n",
+                key, histogram.getCount(), histogram.getSumNanos() / 1e6,
+                histogram.percentile(0.5) / 1e6, histogram.percentile(0.99) / 1e6, histogram.getMaxNanos() / 1e6);
+        }
+    }
+}
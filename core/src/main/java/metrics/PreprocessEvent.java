@@ -0,0 +1,18 @@
+package metrics;
+
+import jdk.jfr.*;
+
+/**
+ * 求解前的预处理，如展开批量评估用的路径表
+ */
+@Name("pku.Preprocess")
+@Label("Preprocess")
+@Category({"PKU Delivery", "Solver"})
+@StackTrace(false)
+public class PreprocessEvent extends Event {
+    @Label("Step")
+    public String step;
+
+    @Label("Customers")
+    public int customers;
+}
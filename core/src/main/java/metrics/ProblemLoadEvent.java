@@ -0,0 +1,18 @@
+package metrics;
+
+import jdk.jfr.*;
+
+/**
+ * 问题实例加载（JSON数据文件或二进制实例）
+ */
+@Name("pku.ProblemLoad")
+@Label("Problem Load")
+@Category({"PKU Delivery", "Data"})
+@StackTrace(false)
+public class ProblemLoadEvent extends Event {
+    @Label("Source")
+    public String source;
+
+    @Label("Customers")
+    public int customers;
+}
@@ -0,0 +1,21 @@
+package metrics;
+
+import jdk.jfr.*;
+
+/**
+ * 实验结果写入Excel（单行记录或保存整个工作簿）
+ */
+@Name("pku.ResultLog")
+@Label("Result Log")
+@Category({"PKU Delivery", "Data"})
+@StackTrace(false)
+public class ResultLogEvent extends Event {
+    @Label("Action")
+    public String action;
+
+    @Label("Sheet")
+    public String sheet;
+
+    @Label("Algorithm")
+    public String algorithm;
+}
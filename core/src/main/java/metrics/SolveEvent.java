@@ -0,0 +1,44 @@
+package metrics;
+
+import jdk.jfr.*;
+
+/**
+ * 一次完整求解，事件的起止时间即求解的开始与结束
+ *
+ * 用法：
+ *   SolveEvent event = SolveEvent.begin("GA", customers);
+ *   Solution solution = algorithm.solve(problem);
+ *   event.end(solution.getTotalCost());
+ * 未开启记录时begin只做一次isEnabled判断，end中shouldCommit直接返回false
+ */
+@Name("pku.Solve")
+@Label("Solve")
+@Category({"PKU Delivery", "Solver"})
+@StackTrace(false)
+public class SolveEvent extends Event {
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Customers")
+    public int customers;
+
+    @Label("Best Cost")
+    public double bestCost;
+
+    public static SolveEvent begin(String algorithm, int customers) {
+        SolveEvent event = new SolveEvent();
+        if (event.isEnabled()) {
+            event.algorithm = algorithm;
+            event.customers = customers;
+            event.begin();
+        }
+        return event;
+    }
+
+    public void end(double bestCost) {
+        if (shouldCommit()) {
+            this.bestCost = bestCost;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+/**
+ * 展开到堆上数组的路径列，每条路径16字节，堆上实例的默认列视图
+ * 数组按引用返回供向量化gather使用，调用方不得修改
+ */
+public final class ArrayPathColumns implements PathColumns {
+    private final int[] offsets;   // 每个顾客的路径在展开数组中的起始位置
+    private final double[] costs;  // 距离 + 费用
+    private final double[] times;
+
+    private ArrayPathColumns(int[] offsets, double[] costs, double[] times) {
+        this.offsets = offsets;
+        this.costs = costs;
+        this.times = times;
+    }
+
+    public static ArrayPathColumns of(PathTable table) {
+        int customerCount = table.customerCount();
+        int[] offsets = new int[customerCount];
+        int total = 0;
+        for (int i = 0; i < customerCount; i++) {
+            offsets[i] = total;
+            total = Math.addExact(total, table.pathCount(i));
+        }
+        double[] costs = new double[total];
+        double[] times = new double[total];
+        for (int i = 0; i < customerCount; i++) {
+            for (int p = 0; p < table.pathCount(i); p++) {
+                costs[offsets[i] + p] = table.distance(i, p) + table.cost(i, p);
+                times[offsets[i] + p] = table.time(i, p);
+            }
+        }
+        return new ArrayPathColumns(offsets, costs, times);
+    }
+
+    @Override
+    public int firstRow(int customer) {
+        return offsets[customer];
+    }
+
+    @Override
+    public double rowCost(int row) {
+        return costs[row];
+    }
+
+    @Override
+    public double rowTime(int row) {
+        return times[row];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public double[] costs() {
+        return costs;
+    }
+
+    public double[] times() {
+        return times;
+    }
+}
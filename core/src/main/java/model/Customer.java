@@ -0,0 +1,24 @@
+package model;
+
+public class Customer {
+    private int id;
+    // 平面坐标（公里），没有位置信息的实例为null，JSON中省略
+    private Double x;
+    private Double y;
+    
+    public Customer(int id) {
+        this.id = id;
+    }
+    
+    public Customer(int id, double x, double y) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+    }
+    
+    // Getters and setters
+    public int getId() { return id; }
+    public boolean hasLocation() { return x != null && y != null; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+} 
@@ -0,0 +1,48 @@
+package model;
+
+import java.util.*;
+
+/**
+ * 以 "customer_i" -> List<Path> 保存的堆上路径表
+ * 构造时按下标取出各顾客的路径列表，之后访问不再拼接键名和查哈希表，构造后不应再修改原Map
+ */
+final class HeapPathTable implements PathTable {
+    private final List<List<Path>> lists;
+
+    HeapPathTable(int customerCount, Map<String, List<Path>> paths) {
+        this.lists = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            lists.add(paths.get("customer_" + i));
+        }
+    }
+
+    // 直接使用按下标排列的路径列表，不复制
+    HeapPathTable(List<List<Path>> lists) {
+        this.lists = lists;
+    }
+
+    @Override
+    public int customerCount() {
+        return lists.size();
+    }
+
+    @Override
+    public int pathCount(int customer) {
+        return lists.get(customer).size();
+    }
+
+    @Override
+    public double distance(int customer, int path) {
+        return lists.get(customer).get(path).getDistance();
+    }
+
+    @Override
+    public double cost(int customer, int path) {
+        return lists.get(customer).get(path).getCost();
+    }
+
+    @Override
+    public double time(int customer, int path) {
+        return lists.get(customer).get(path).getTime();
+    }
+}
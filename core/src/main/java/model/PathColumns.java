@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * 路径表按展开编号的只读列视图，供每轮迭代都要读取路径数值的代码（批量评估、可行化修复、LNS）使用
+ *
+ * 路径按顾客顺序连续编号，顾客i的第p条路径编号为 firstRow(i) + p，成本列为 距离 + 费用。
+ * 通过 Problem.getPathColumns() 获取：堆上实例展开为一份 ArrayPathColumns，由各算法共用；
+ * 堆外实例（OffHeapPathTable）直接读取自己的段，不再复制到堆上。
+ */
+public interface PathColumns {
+    int firstRow(int customer);
+
+    /**
+     * 距离 + 费用
+     */
+    double rowCost(int row);
+
+    double rowTime(int row);
+}
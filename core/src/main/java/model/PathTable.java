@@ -0,0 +1,39 @@
+package model;
+
+/**
+ * 候选路径的按下标访问接口，Problem 的两种存储方式（堆上 Path 对象、堆外列存储）都实现它
+ *
+ * 顾客与路径均为从0开始的下标，路径成本按 distance + cost 计算由调用方完成。
+ * 求解算法应通过 Problem.getPathCount / getPathDistance 等方法读取，
+ * 不要依赖 getPaths() 返回的 Map，以免堆外实例逐个创建 Path 对象。
+ */
+public interface PathTable {
+    int customerCount();
+
+    int pathCount(int customer);
+
+    double distance(int customer, int path);
+
+    double cost(int customer, int path);
+
+    double time(int customer, int path);
+
+    /**
+     * 所有顾客的路径总数
+     */
+    default long totalPathCount() {
+        long total = 0;
+        for (int i = 0; i < customerCount(); i++) {
+            total += pathCount(i);
+        }
+        return total;
+    }
+
+    /**
+     * 按展开编号的列视图，默认复制为堆上数组；已按列存储的实现直接返回自身的列。
+     * 每次调用都可能重新复制，应通过 Problem.getPathColumns() 获取共用的实例
+     */
+    default PathColumns columns() {
+        return ArrayPathColumns.of(this);
+    }
+}
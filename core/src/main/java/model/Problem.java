@@ -0,0 +1,182 @@
+package model;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+public class Problem {
+    private List<Customer> customers;
+    private Map<String, List<Path>> paths;
+    private PathTable pathTable;            // 按下标访问路径，求解算法应通过下面的 getPathXxx 读取
+    private double timeConstraint;
+    private SparseDiscountIndex discounts;  // 可选的路径组合优惠，为null表示无组合优惠
+    private PathColumns pathColumns;        // 首次使用时由路径表创建
+
+    public Problem(List<Customer> customers, Map<String, List<Path>> paths, double timeConstraint) {
+        this(customers, paths, timeConstraint, null);
+    }
+
+    public Problem(List<Customer> customers, Map<String, List<Path>> paths, double timeConstraint,
+                   SparseDiscountIndex discounts) {
+        this.customers = customers;
+        this.paths = paths;
+        this.pathTable = new HeapPathTable(customers.size(), paths);
+        this.timeConstraint = timeConstraint;
+        this.discounts = discounts;
+    }
+
+    /**
+     * 由按下标排列的路径列表构建，不复制列表也不建立 "customer_i" 键的Map，构造后不应再修改两个列表
+     * getPaths() 返回按下标取原路径列表的只读视图
+     */
+    public Problem(List<Customer> customers, List<List<Path>> pathLists, double timeConstraint) {
+        this.customers = customers;
+        this.paths = new PathMapView(pathLists.size(), pathLists::get);
+        this.pathTable = new HeapPathTable(pathLists);
+        this.timeConstraint = timeConstraint;
+    }
+
+    /**
+     * 由路径表（如堆外的 OffHeapPathTable）构建，顾客按下标编号
+     * getCustomers() 与 getPaths() 返回只读视图，每次访问临时创建 Customer / Path 对象，
+     * 只供兼容旧代码，大实例上的求解应使用 getPathCount 等按下标的访问方法
+     */
+    public Problem(PathTable pathTable, double timeConstraint, SparseDiscountIndex discounts) {
+        this.customers = new CustomerView(pathTable.customerCount());
+        this.paths = new PathMapView(pathTable.customerCount(), customer -> tablePaths(pathTable, customer));
+        this.pathTable = pathTable;
+        this.timeConstraint = timeConstraint;
+        this.discounts = discounts;
+    }
+
+    // Getters
+    public List<Customer> getCustomers() { return customers; }
+    public Map<String, List<Path>> getPaths() { return paths; }
+    public PathTable getPathTable() { return pathTable; }
+    public double getTimeConstraint() { return timeConstraint; }
+    public SparseDiscountIndex getDiscounts() { return discounts; }
+    public boolean hasDiscounts() { return discounts != null && discounts.size() > 0; }
+
+    // 按下标访问路径属性，两种存储方式下都不创建对象
+    public int getCustomerCount() { return pathTable.customerCount(); }
+    public int getPathCount(int customer) { return pathTable.pathCount(customer); }
+    public double getPathDistance(int customer, int path) { return pathTable.distance(customer, path); }
+    public double getPathCost(int customer, int path) { return pathTable.cost(customer, path); }
+    public double getPathTime(int customer, int path) { return pathTable.time(customer, path); }
+
+    /**
+     * 按展开编号的路径列，首次调用时创建并在之后共用；堆外实例不复制
+     */
+    public synchronized PathColumns getPathColumns() {
+        if (pathColumns == null) {
+            pathColumns = pathTable.columns();
+        }
+        return pathColumns;
+    }
+
+    private static final class CustomerView extends AbstractList<Customer> {
+        private final int size;
+
+        CustomerView(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Customer get(int index) {
+            Objects.checkIndex(index, size);
+            return new Customer(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // 路径表中顾客i的路径列表视图，每次访问临时创建 Path 对象
+    private static List<Path> tablePaths(PathTable table, int customer) {
+        return new AbstractList<>() {
+            @Override
+            public Path get(int path) {
+                Objects.checkIndex(path, size());
+                return new Path(table.distance(customer, path), table.cost(customer, path),
+                    table.time(customer, path));
+            }
+
+            @Override
+            public int size() {
+                return table.pathCount(customer);
+            }
+        };
+    }
+
+    // "customer_i" -> 顾客i的路径列表视图
+    private static final class PathMapView extends AbstractMap<String, List<Path>> {
+        private static final String PREFIX = "customer_";
+        private final int customerCount;
+        private final IntFunction<List<Path>> pathsOf;
+
+        PathMapView(int customerCount, IntFunction<List<Path>> pathsOf) {
+            this.customerCount = customerCount;
+            this.pathsOf = pathsOf;
+        }
+
+        @Override
+        public List<Path> get(Object key) {
+            int customer = customerOf(key);
+            return customer < 0 ? null : pathsOf.apply(customer);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return customerOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return customerCount;
+        }
+
+        private int customerOf(Object key) {
+            if (!(key instanceof String name) || !name.startsWith(PREFIX)) {
+                return -1;
+            }
+            try {
+                int customer = Integer.parseInt(name.substring(PREFIX.length()));
+                return customer >= 0 && customer < customerCount ? customer : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public Set<Entry<String, List<Path>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, List<Path>>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < customerCount;
+                        }
+
+                        @Override
+                        public Entry<String, List<Path>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int customer = next++;
+                            return new SimpleImmutableEntry<>(PREFIX + customer, pathsOf.apply(customer));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return customerCount;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package model;
+
+public class Restaurant {
+    private int id;
+    // 平面坐标（公里），没有位置信息的实例为null，JSON中省略
+    private Double x;
+    private Double y;
+    
+    public Restaurant(int id) {
+        this.id = id;
+    }
+    
+    public Restaurant(int id, double x, double y) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+    }
+    
+    public int getId() { return id; }
+    public boolean hasLocation() { return x != null && y != null; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+} 
@@ -4,6 +4,8 @@ public class Solution {
     private int[] pathIndices;  // 每个顾客选择的路径索引
     private double totalCost;   // 总成本
     private double totalTime;   // 总时间
+    private double lowerBound = Double.NaN;     // 求解时证明的惩罚成本下界，未计算时为NaN
+    private double optimalityGap = Double.NaN;  // 按含超时惩罚的成本计算的差距，与下界一起设置
     
     public Solution(int numCustomers) {
         this.pathIndices = new int[numCustomers];
@@ -38,11 +40,36 @@ public class Solution {
         this.totalTime = totalTime;
     }
     
+    public double getLowerBound() {
+        return lowerBound;
+    }
+    
+    /**
+     * @param optimalityGap (惩罚成本 - 下界) / |惩罚成本|，由求解算法按问题的时间约束算出
+     */
+    public void setLowerBound(double lowerBound, double optimalityGap) {
+        this.lowerBound = lowerBound;
+        this.optimalityGap = optimalityGap;
+    }
+    
+    public boolean hasLowerBound() {
+        return !Double.isNaN(lowerBound);
+    }
+    
+    /**
+     * 已证明的相对最优性差距 (惩罚成本 - 下界) / |惩罚成本|，没有下界时为NaN
+     * 下界含超时惩罚，差距也按含惩罚的成本计算，超时解不会因总成本不含惩罚而显示为0
+     */
+    public double getOptimalityGap() {
+        return optimalityGap;
+    }
+    
     // 克隆方法
     public Solution clone() {
         Solution clone = new Solution(pathIndices);
         clone.setTotalCost(totalCost);
         clone.setTotalTime(totalTime);
+        clone.setLowerBound(lowerBound, optimalityGap);
         return clone;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,171 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * 组合优惠的稀疏索引（CSR结构）
+ *
+ * 以 (客户, 路径) 为行，行内依次存放与其构成组合优惠的 (伙伴客户, 伙伴路径, 优惠值)。
+ * 每条优惠在两个端点的行中各存一份，因此查询与端点顺序无关。
+ * 内存占用与优惠条数成正比，而不是稠密数组的 客户数² × 路径数²。
+ */
+public class SparseDiscountIndex {
+
+    /**
+     * 遍历某个 (客户, 路径) 相关优惠时的回调
+     */
+    public interface DiscountVisitor {
+        void visit(int partnerCustomer, int partnerPath, int discount);
+    }
+
+    private final int pathsPerCustomer;
+    private final int[] rowStart;         // 行 (customer * pathsPerCustomer + path) 的起始位置，长度为行数+1
+    private final int[] partnerCustomers;
+    private final int[] partnerPaths;
+    private final int[] discountValues;
+
+    private SparseDiscountIndex(int pathsPerCustomer, int[] rowStart,
+                                int[] partnerCustomers, int[] partnerPaths, int[] discountValues) {
+        this.pathsPerCustomer = pathsPerCustomer;
+        this.rowStart = rowStart;
+        this.partnerCustomers = partnerCustomers;
+        this.partnerPaths = partnerPaths;
+        this.discountValues = discountValues;
+    }
+
+    // 查询两条路径之间的组合优惠，没有优惠时返回0
+    public int getDiscount(int customer1, int path1, int customer2, int path2) {
+        int row = customer1 * pathsPerCustomer + path1;
+        for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+            if (partnerCustomers[k] == customer2 && partnerPaths[k] == path2) {
+                return discountValues[k];
+            }
+        }
+        return 0;
+    }
+
+    // 遍历与 (customer, path) 相关的所有优惠
+    public void forEachDiscount(int customer, int path, DiscountVisitor visitor) {
+        int row = customer * pathsPerCustomer + path;
+        for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+            visitor.visit(partnerCustomers[k], partnerPaths[k], discountValues[k]);
+        }
+    }
+
+    // 与 (customer, path) 相关的优惠条数
+    public int degree(int customer, int path) {
+        int row = customer * pathsPerCustomer + path;
+        return rowStart[row + 1] - rowStart[row];
+    }
+
+    // 以下为热点循环使用的行访问方法，条目下标k的范围为 [rowBegin, rowEnd)
+    public int rowBegin(int customer, int path) {
+        return rowStart[customer * pathsPerCustomer + path];
+    }
+
+    public int rowEnd(int customer, int path) {
+        return rowStart[customer * pathsPerCustomer + path + 1];
+    }
+
+    public int partnerCustomer(int k) {
+        return partnerCustomers[k];
+    }
+
+    public int partnerPath(int k) {
+        return partnerPaths[k];
+    }
+
+    public int discountAt(int k) {
+        return discountValues[k];
+    }
+
+    public int getCustomerCount() {
+        return (rowStart.length - 1) / pathsPerCustomer;
+    }
+
+    public int getPathsPerCustomer() {
+        return pathsPerCustomer;
+    }
+
+    // 不同的优惠条数（每条优惠在索引中存两份）
+    public int size() {
+        return discountValues.length / 2;
+    }
+
+    /**
+     * 收集优惠条目后一次性构建CSR索引
+     */
+    public static class Builder {
+        private final int customers;
+        private final int pathsPerCustomer;
+        private int[] entries = new int[5 * 16]; // 每条优惠占5个int：c1, p1, c2, p2, discount
+        private int count;
+
+        public Builder(int customers, int pathsPerCustomer) {
+            this.customers = customers;
+            this.pathsPerCustomer = pathsPerCustomer;
+        }
+
+        public Builder add(int customer1, int path1, int customer2, int path2, int discount) {
+            if (customer1 < 0 || customer1 >= customers || customer2 < 0 || customer2 >= customers
+                    || path1 < 0 || path1 >= pathsPerCustomer || path2 < 0 || path2 >= pathsPerCustomer) {
+                throw new IllegalArgumentException("Discount index out of range: ("
+                    + customer1 + ", " + path1 + ") - (" + customer2 + ", " + path2 + ")");
+            }
+            if (customer1 == customer2) {
+                throw new IllegalArgumentException("Discount must join two different customers: " + customer1);
+            }
+            if (discount == 0) {
+                return this;
+            }
+            if ((count + 1) * 5 > entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            int base = count * 5;
+            entries[base] = customer1;
+            entries[base + 1] = path1;
+            entries[base + 2] = customer2;
+            entries[base + 3] = path2;
+            entries[base + 4] = discount;
+            count++;
+            return this;
+        }
+
+        public SparseDiscountIndex build() {
+            int rows = customers * pathsPerCustomer;
+            int[] rowStart = new int[rows + 1];
+
+            // 计数排序：先统计每行条目数，再前缀和得到起始位置
+            for (int e = 0; e < count; e++) {
+                int base = e * 5;
+                rowStart[entries[base] * pathsPerCustomer + entries[base + 1] + 1]++;
+                rowStart[entries[base + 2] * pathsPerCustomer + entries[base + 3] + 1]++;
+            }
+            for (int r = 0; r < rows; r++) {
+                rowStart[r + 1] += rowStart[r];
+            }
+
+            int[] next = Arrays.copyOf(rowStart, rows);
+            int[] partnerCustomers = new int[count * 2];
+            int[] partnerPaths = new int[count * 2];
+            int[] discountValues = new int[count * 2];
+            for (int e = 0; e < count; e++) {
+                int base = e * 5;
+                int row1 = entries[base] * pathsPerCustomer + entries[base + 1];
+                int row2 = entries[base + 2] * pathsPerCustomer + entries[base + 3];
+
+                int k = next[row1]++;
+                partnerCustomers[k] = entries[base + 2];
+                partnerPaths[k] = entries[base + 3];
+                discountValues[k] = entries[base + 4];
+
+                k = next[row2]++;
+                partnerCustomers[k] = entries[base];
+                partnerPaths[k] = entries[base + 1];
+                discountValues[k] = entries[base + 4];
+            }
+
+            return new SparseDiscountIndex(pathsPerCustomer, rowStart, partnerCustomers, partnerPaths, discountValues);
+        }
+    }
+}
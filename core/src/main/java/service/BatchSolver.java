@@ -0,0 +1,233 @@
+package service;
+
+import algorithm.SolutionCache;
+import com.google.gson.Gson;
+import metrics.Metrics;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 批量求解模式
+ * 读取JSON Lines格式的求解请求文件，在有界线程池上并行求解，结果按行写入输出文件
+ *
+ * 流水线：读取线程 -> 求解线程池 -> 写出线程
+ * 在途请求数由信号量限制：读取线程取得许可后才提交请求，写出线程写完一行才归还许可，
+ * 因此写出变慢或求解变慢时读取会自动阻塞，内存占用不随输入规模增长
+ *
+ * 用法：
+ *   java service.BatchSolver --input requests.jsonl --output results.jsonl
+ *        [--threads N] [--max-in-flight M] [--order input|completion] [--algorithm ACO]
+ *        [--cache-size N] [--cache-ttl-ms T] [--metrics-file metrics.prom]
+ */
+public class BatchSolver {
+    private static final Completed END = new Completed(-1, null);
+
+    private final int threadCount;
+    private final int maxInFlight;
+    private final boolean preserveOrder;
+    private final String defaultAlgorithm;
+    private final Gson gson = new Gson();
+    private SolutionCache cache;
+
+    // 已完成的结果，index为请求在输入文件中的行序号
+    private static class Completed {
+        final long index;
+        final String line;
+
+        Completed(long index, String line) {
+            this.index = index;
+            this.line = line;
+        }
+    }
+
+    public BatchSolver(int threadCount, int maxInFlight, boolean preserveOrder, String defaultAlgorithm) {
+        this.threadCount = threadCount;
+        this.maxInFlight = Math.max(maxInFlight, threadCount);
+        this.preserveOrder = preserveOrder;
+        this.defaultAlgorithm = defaultAlgorithm;
+    }
+
+    /**
+     * 启用结果缓存，批次中重复提交的相同实例只求解一次
+     */
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 处理整个请求文件
+     * @return 处理的请求数
+     */
+    public long run(java.nio.file.Path input, java.nio.file.Path output) throws IOException, InterruptedException {
+        java.nio.file.Path baseDir = input.toAbsolutePath().getParent();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        BlockingQueue<Completed> completed = new LinkedBlockingQueue<>();
+        ExecutorService workers = Executors.newFixedThreadPool(threadCount);
+
+        Writer writer = new Writer(output, completed, inFlight);
+        Thread writerThread = new Thread(writer, "batch-writer");
+        writerThread.start();
+
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                inFlight.acquire();
+                final long index = count++;
+                final String requestLine = line;
+                workers.execute(() -> {
+                    String result;
+                    try {
+                        result = process(index, requestLine, baseDir);
+                    } catch (Throwable e) {
+                        // 每个下标都必须有结果入队，否则按序输出时写出线程会一直等待该下标、读入线程也拿不到许可
+                        result = "{\"index\":" + index + ",\"id\":null,\"status\":\"error\",\"error\":\""
+                            + e.getClass().getSimpleName() + "\"}";
+                    }
+                    completed.add(new Completed(index, result));
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            // 所有结果入队后才放入结束标记，保证写出线程不会提前退出
+            completed.add(END);
+            writerThread.join();
+        }
+
+        if (writer.failure != null) {
+            throw writer.failure;
+        }
+        return count;
+    }
+
+    // 解析并求解一行请求；任何异常和错误（如单个大请求内存不足）都转换为错误结果行，不中断整个批次
+    private String process(long index, String line, java.nio.file.Path baseDir) {
+        String id = null;
+        SolveResult result;
+        try {
+            Map<String, Object> raw = gson.fromJson(line, Map.class);
+            SolveRequest request = SolveRequest.fromJson(raw, baseDir, defaultAlgorithm);
+            id = request.getId();
+            result = request.solve(cache);
+        } catch (Throwable e) {
+            result = SolveResult.failure(id, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        try {
+            return gson.toJson(result.toMap(index));
+        } catch (RuntimeException e) {
+            // 如结果含NaN或无穷大，Gson拒绝序列化
+            return gson.toJson(SolveResult.failure(id, e.getClass().getSimpleName() + ": " + e.getMessage())
+                .toMap(index));
+        }
+    }
+
+    private class Writer implements Runnable {
+        private final java.nio.file.Path output;
+        private final BlockingQueue<Completed> completed;
+        private final Semaphore inFlight;
+        private volatile IOException failure;
+
+        Writer(java.nio.file.Path output, BlockingQueue<Completed> completed, Semaphore inFlight) {
+            this.output = output;
+            this.completed = completed;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public void run() {
+            // 按输入顺序输出时暂存提前完成的结果，大小不超过maxInFlight
+            Map<Long, String> pending = new HashMap<>();
+            long nextIndex = 0;
+
+            try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                while (true) {
+                    Completed item = completed.take();
+                    if (item == END) {
+                        break;
+                    }
+                    if (!preserveOrder) {
+                        writeLine(out, item.line);
+                        continue;
+                    }
+                    pending.put(item.index, item.line);
+                    String next;
+                    while ((next = pending.remove(nextIndex)) != null) {
+                        writeLine(out, next);
+                        nextIndex++;
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+                drain();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void writeLine(BufferedWriter out, String line) throws IOException {
+            out.write(line);
+            out.newLine();
+            inFlight.release();
+        }
+
+        // 写出失败后继续消费队列并归还许可，避免读取线程永久阻塞
+        private void drain() {
+            try {
+                while (completed.take() != END) {
+                    inFlight.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String input = getArg(args, "--input", "requests.jsonl");
+        String output = getArg(args, "--output", "results.jsonl");
+        int threads = Integer.parseInt(getArg(args, "--threads",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int maxInFlight = Integer.parseInt(getArg(args, "--max-in-flight", String.valueOf(threads * 4)));
+        boolean preserveOrder = !"completion".equalsIgnoreCase(getArg(args, "--order", "input"));
+        String algorithm = getArg(args, "--algorithm", "ACO");
+
+        System.out.printf("批量求解: %s -> %s (线程数 %d, 最大在途 %d, %s顺序输出)\n",
+            input, output, threads, maxInFlight, preserveOrder ? "输入" : "完成");
+
+        long startTime = System.currentTimeMillis();
+        BatchSolver solver = new BatchSolver(threads, maxInFlight, preserveOrder, algorithm);
+        int cacheSize = Integer.parseInt(getArg(args, "--cache-size", "0"));
+        if (cacheSize > 0) {
+            solver.setCache(new SolutionCache(cacheSize, Long.parseLong(getArg(args, "--cache-ttl-ms", "600000"))));
+        }
+        long count = solver.run(java.nio.file.Path.of(input), java.nio.file.Path.of(output));
+        long duration = System.currentTimeMillis() - startTime;
+
+        System.out.printf("共处理 %d 个请求，耗时 %d ms (%.1f 个/秒)\n",
+            count, duration, count * 1000.0 / Math.max(duration, 1));
+        if (solver.cache != null) {
+            System.out.println("缓存统计: " + solver.cache.getStatistics());
+        }
+        String metricsFile = getArg(args, "--metrics-file", null);
+        if (metricsFile != null) {
+            Metrics.writePrometheus(java.nio.file.Path.of(metricsFile));
+            System.out.println("指标快照已写入: " + metricsFile);
+        }
+    }
+
+    static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
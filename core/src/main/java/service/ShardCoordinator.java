@@ -0,0 +1,302 @@
+package service;
+
+import algorithm.SolutionEvaluator;
+import com.google.gson.Gson;
+import metrics.Counter;
+import metrics.Metrics;
+import model.*;
+import util.BinaryProblemFormat;
+import util.ProblemFiles;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * 多进程分片求解：顾客按下标切成连续分片，每个分片在本机的一个工作JVM（ShardWorker）中求解，
+ * 全局时间约束由拉格朗日乘子协调
+ *
+ * 时间约束是唯一把各顾客耦合在一起的约束。给定乘子λ，min Σ(成本 + λ·耗时) 按顾客完全可分，
+ * 各分片独立求出λ下的选择，只回报 (总耗时, 总成本)。总耗时随λ单调不增，
+ * 次梯度 Σ耗时 - 时间约束 在可行与不可行之间变号，协调进程先倍增找到可行的λ，再二分到满足约束的最小λ。
+ * 之后把剩余时间按顾客数分给各分片作为预算，各分片在预算内用指定算法继续优化；
+ * 每个分片的结果都不超出自己的预算，合并后的解对整个实例可行。
+ * 过程中记录拉格朗日对偶下界 max_λ [Σ成本(λ) + λ·(Σ耗时(λ) - 时间约束)]，用于报告合并解与最优解的差距上限。
+ *
+ * 分片写成临时目录中的 BinaryProblemFormat 文件交给工作进程，每个工作进程只持有自己的分片；
+ * 通信走子进程的标准输入输出管道，不依赖网络或外部服务。
+ * 跨分片的组合优惠无法在分片内考虑，分片求解时忽略组合优惠，合并解的成本按完整实例重新计算。
+ *
+ * 用法：
+ *   java service.ShardCoordinator --input 实例.json|.bin|.cols --shards 4 [--algorithm LNS]
+ *        [--worker-heap 1g] [--rounds 60] [--time-constraint 120] [--output result.json]
+ */
+public class ShardCoordinator {
+    private static final String WORKER_CLASS = "service.ShardWorker";
+    private static final double MAX_LAMBDA = 1e12;
+    private static final Counter multiplierUpdates = Metrics.counter("shard_multiplier_updates_total",
+        "Lagrangian multipliers broadcast to shard workers");
+
+    private final int shardCount;
+    private final String algorithmType;
+    private final List<String> jvmOptions;
+    private final int rounds;
+
+    private double lambda;
+    private double lowerBound;
+    private int evaluatedMultipliers;
+
+    /**
+     * @param algorithmType 各分片在预算内继续优化使用的算法，ShardWorker.NO_ALGORITHM 表示只用乘子给出的选择
+     * @param jvmOptions 工作进程的JVM参数，如 -Xmx1g
+     * @param rounds 二分乘子的最大轮数
+     */
+    public ShardCoordinator(int shardCount, String algorithmType, List<String> jvmOptions, int rounds) {
+        this.shardCount = shardCount;
+        this.algorithmType = algorithmType;
+        this.jvmOptions = jvmOptions;
+        this.rounds = rounds;
+    }
+
+    public double getLambda() { return lambda; }
+    public double getLowerBound() { return lowerBound; }
+    public int getEvaluatedMultipliers() { return evaluatedMultipliers; }
+
+    // 工作进程的句柄：顾客区间 [start, end)，命令写入其标准输入，回复从其标准输出读取
+    private static final class Shard {
+        final int start;
+        final int end;
+        final java.nio.file.Path output;
+        final Process process;
+        final BufferedWriter commands;
+        final BufferedReader replies;
+        double time;
+        double cost;
+
+        Shard(int start, int end, java.nio.file.Path output, Process process) {
+            this.start = start;
+            this.end = end;
+            this.output = output;
+            this.process = process;
+            this.commands = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.replies = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(String command) throws IOException {
+            commands.write(command);
+            commands.newLine();
+            commands.flush();
+        }
+
+        // 读取 "SUMMARY 耗时 成本" 或 "DONE 耗时 成本"；之前的 "ERROR 原因" 只打印，分片已改用初始解
+        void receive(String expected) throws IOException {
+            String line = replies.readLine();
+            while (line != null && line.startsWith("ERROR ")) {
+                System.err.println("分片 [" + start + ", " + end + ") 求解失败，使用拉格朗日乘子下的初始解: "
+                    + line.substring(6));
+                line = replies.readLine();
+            }
+            if (line == null) {
+                throw new IOException("Shard worker for customers [" + start + ", " + end + ") exited");
+            }
+            String[] parts = line.split(" ");
+            if (!parts[0].equals(expected) || parts.length != 3) {
+                throw new IOException("Unexpected reply from shard worker: " + line);
+            }
+            time = Double.parseDouble(parts[1]);
+            cost = Double.parseDouble(parts[2]);
+        }
+
+        void close() {
+            try {
+                send("QUIT");
+            } catch (IOException e) {
+                // 进程已退出
+            }
+            process.destroy();
+        }
+    }
+
+    // 原实例中顾客 [start, end) 的路径表视图，写分片文件时不复制路径
+    private static final class RangeView implements PathTable {
+        private final PathTable table;
+        private final int start;
+        private final int count;
+
+        RangeView(PathTable table, int start, int end) {
+            this.table = table;
+            this.start = start;
+            this.count = end - start;
+        }
+
+        @Override public int customerCount() { return count; }
+        @Override public int pathCount(int customer) { return table.pathCount(start + customer); }
+        @Override public double distance(int customer, int path) { return table.distance(start + customer, path); }
+        @Override public double cost(int customer, int path) { return table.cost(start + customer, path); }
+        @Override public double time(int customer, int path) { return table.time(start + customer, path); }
+    }
+
+    public Solution solve(Problem problem) throws IOException {
+        int n = problem.getCustomerCount();
+        int shards = Math.max(1, Math.min(shardCount, n));
+        double timeConstraint = problem.getTimeConstraint();
+        // 各分片耗时分别累加，与整体累加的舍入误差不同，留出微小余量
+        double target = timeConstraint - 1e-9 * Math.max(1, Math.abs(timeConstraint));
+        lowerBound = Double.NEGATIVE_INFINITY;
+        evaluatedMultipliers = 0;
+
+        java.nio.file.Path directory = Files.createTempDirectory("pku-shards");
+        List<Shard> workers = new ArrayList<>();
+        try {
+            for (int s = 0; s < shards; s++) {
+                int start = (int) ((long) n * s / shards);
+                int end = (int) ((long) n * (s + 1) / shards);
+                java.nio.file.Path input = directory.resolve("shard-" + s + ".bin");
+                try (OutputStream out = Files.newOutputStream(input)) {
+                    BinaryProblemFormat.write(new Problem(new RangeView(problem.getPathTable(), start, end),
+                        timeConstraint, null), out);
+                }
+                workers.add(new Shard(start, end, directory.resolve("shard-" + s + ".paths"),
+                    startWorker(input, directory.resolve("shard-" + s + ".paths"))));
+            }
+
+            // 倍增找到可行的乘子，再二分到可行的最小乘子
+            double low = 0;
+            double high = 0;
+            double highTime = evaluate(workers, high, timeConstraint);
+            if (highTime > target) {
+                high = 1;
+                while ((highTime = evaluate(workers, high, timeConstraint)) > target && high < MAX_LAMBDA) {
+                    low = high;
+                    high *= 2;
+                }
+                for (int round = 0; round < rounds && highTime <= target; round++) {
+                    double middle = (low + high) / 2;
+                    if (middle <= low || middle >= high) {
+                        break;
+                    }
+                    double time = evaluate(workers, middle, timeConstraint);
+                    if (time <= target) {
+                        high = middle;
+                        highTime = time;
+                    } else {
+                        low = middle;
+                    }
+                }
+            }
+            lambda = high;
+
+            // 以最小可行乘子的选择为基础，剩余时间按顾客数分给各分片
+            double total = 0;
+            for (Shard shard : workers) {
+                shard.send("LAMBDA " + lambda);
+            }
+            for (Shard shard : workers) {
+                shard.receive("SUMMARY");
+                total += shard.time;
+            }
+            double slack = Math.max(0, target - total);
+            for (Shard shard : workers) {
+                double budget = shard.time + slack * (shard.end - shard.start) / n;
+                shard.send("SOLVE " + budget + " " + lambda);
+            }
+            Solution solution = new Solution(n);
+            for (Shard shard : workers) {
+                shard.receive("DONE");
+                int[] paths = ShardWorker.readPaths(shard.output);
+                for (int i = 0; i < paths.length; i++) {
+                    solution.setPathIndex(shard.start + i, paths[i]);
+                }
+            }
+            SolutionEvaluator.updateMetrics(solution, problem);
+            return solution;
+        } finally {
+            for (Shard shard : workers) {
+                shard.close();
+            }
+            try (var files = Files.list(directory)) {
+                for (java.nio.file.Path file : (Iterable<java.nio.file.Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    // 向所有分片广播乘子后汇总，同时更新对偶下界；返回总耗时
+    private double evaluate(List<Shard> workers, double multiplier, double timeConstraint) throws IOException {
+        multiplierUpdates.increment();
+        evaluatedMultipliers++;
+        for (Shard shard : workers) {
+            shard.send("LAMBDA " + multiplier);
+        }
+        double time = 0;
+        double cost = 0;
+        for (Shard shard : workers) {
+            shard.receive("SUMMARY");
+            time += shard.time;
+            cost += shard.cost;
+        }
+        lowerBound = Math.max(lowerBound, cost + multiplier * (time - timeConstraint));
+        return time;
+    }
+
+    private Process startWorker(java.nio.file.Path input, java.nio.file.Path output) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(java.nio.file.Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(WORKER_CLASS);
+        command.add("--input");
+        command.add(input.toString());
+        command.add("--output");
+        command.add(output.toString());
+        command.add("--algorithm");
+        command.add(algorithmType);
+        return new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String input = BatchSolver.getArg(args, "--input", "delivery_data.json");
+        int shards = Integer.parseInt(BatchSolver.getArg(args, "--shards",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        String algorithm = BatchSolver.getArg(args, "--algorithm", "LNS");
+        String heap = BatchSolver.getArg(args, "--worker-heap", null);
+        int rounds = Integer.parseInt(BatchSolver.getArg(args, "--rounds", "60"));
+        double timeConstraint = Double.parseDouble(BatchSolver.getArg(args, "--time-constraint", "120"));
+        String output = BatchSolver.getArg(args, "--output", null);
+
+        Problem problem = ProblemFiles.load(input, timeConstraint);
+        if (problem == null) {
+            System.out.println("数据加载失败！");
+            return;
+        }
+        System.out.printf("分片求解: %s (顾客 %d, 分片 %d, 算法 %s)\n",
+            input, problem.getCustomerCount(), shards, algorithm);
+
+        ShardCoordinator coordinator = new ShardCoordinator(shards, algorithm,
+            heap == null ? List.of() : List.of("-Xmx" + heap), rounds);
+        long startTime = System.nanoTime();
+        Solution solution = coordinator.solve(problem);
+        long solvingNanos = System.nanoTime() - startTime;
+
+        System.out.printf("乘子 λ = %.6g（共评估 %d 次）\n", coordinator.getLambda(), coordinator.getEvaluatedMultipliers());
+        System.out.println("总配送成本: " + solution.getTotalCost());
+        System.out.println("总配送时间: " + solution.getTotalTime() + " 分钟");
+        System.out.println("是否可行解: " + (solution.getTotalTime() <= problem.getTimeConstraint() ? "是" : "否"));
+        if (!problem.hasDiscounts()) {
+            System.out.printf("拉格朗日下界: %.6f（差距不超过 %.4f%%）\n", coordinator.getLowerBound(),
+                100 * (solution.getTotalCost() - coordinator.getLowerBound()) / Math.abs(solution.getTotalCost()));
+        }
+        System.out.println("求解耗时: " + solvingNanos / 1_000_000 + " 毫秒");
+
+        if (output != null) {
+            SolveResult result = SolveResult.success(null, "SHARDED", "分片" + algorithm, problem, solution, solvingNanos);
+            Files.writeString(java.nio.file.Path.of(output), new Gson().toJson(result.toMap(-1)));
+            System.out.println("结果已写入: " + output);
+        }
+    }
+}
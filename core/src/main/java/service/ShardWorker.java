@@ -0,0 +1,168 @@
+package service;
+
+import algorithm.AlgorithmFactory;
+import algorithm.OptimizationAlgorithm;
+import algorithm.SolutionEvaluator;
+import algorithm.WarmStartable;
+import model.*;
+import util.AlgorithmConfig;
+import util.BinaryProblemFormat;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 分片求解的工作进程，由 ShardCoordinator 在本机启动，通过标准输入输出管道与协调进程通信
+ *
+ * 协议（每行一条文本）：
+ *   协调进程 -> 工作进程        工作进程 -> 协调进程
+ *   LAMBDA λ                   SUMMARY 总耗时 总成本
+ *   SOLVE 时间预算 λ            DONE 总耗时 总成本（路径选择写入 --output 文件）
+ *   QUIT
+ * LAMBDA 令每个顾客独立选择 距离+费用+λ·耗时 最小的路径，相同时取耗时短的，只回报汇总值；
+ * SOLVE 以λ下的选择为初始解，在分到的时间预算内用 --algorithm 指定的算法继续优化，
+ * 结果超出预算或不优于初始解时保留初始解。--algorithm NONE 时直接使用初始解。
+ * 算法抛出异常时先回报一行 "ERROR 原因"，再以初始解照常回报 DONE，单个分片的失败不影响整体求解。
+ * 标准输出只用于协议，求解过程中的打印被重定向到标准错误。
+ *
+ * 用法（通常由协调进程启动）：
+ *   java service.ShardWorker --input shard.bin --output shard.paths [--algorithm LNS]
+ */
+public class ShardWorker {
+    public static final String NO_ALGORITHM = "NONE";
+
+    private final Problem problem;
+    private final String algorithmType;
+    private final Map<String, Object> parameters;
+    private String lastError;   // 上一次SOLVE中算法抛出的异常，没有时为null
+
+    ShardWorker(Problem problem, String algorithmType, Map<String, Object> parameters) {
+        this.problem = problem;
+        this.algorithmType = algorithmType;
+        this.parameters = parameters;
+    }
+
+    /**
+     * 乘子为lambda时每个顾客的最优路径
+     */
+    int[] choose(double lambda) {
+        int n = problem.getCustomerCount();
+        int[] paths = new int[n];
+        for (int i = 0; i < n; i++) {
+            int best = 0;
+            double bestValue = Double.POSITIVE_INFINITY;
+            double bestTime = Double.POSITIVE_INFINITY;
+            for (int p = 0; p < problem.getPathCount(i); p++) {
+                double time = problem.getPathTime(i, p);
+                double value = problem.getPathDistance(i, p) + problem.getPathCost(i, p) + lambda * time;
+                if (value < bestValue || (value == bestValue && time < bestTime)) {
+                    best = p;
+                    bestValue = value;
+                    bestTime = time;
+                }
+            }
+            paths[i] = best;
+        }
+        return paths;
+    }
+
+    /**
+     * 在时间预算内从lambda下的选择出发继续优化，算法失败时返回lambda下的选择，失败原因记入lastError
+     */
+    Solution solve(double budget, double lambda) {
+        lastError = null;
+        Problem shard = new Problem(problem.getPathTable(), budget, null);
+        Solution initial = new Solution(choose(lambda));
+        SolutionEvaluator.updateMetrics(initial, shard);
+        if (NO_ALGORITHM.equalsIgnoreCase(algorithmType) || initial.getTotalTime() > budget) {
+            return initial;
+        }
+        Solution improved;
+        try {
+            OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, parameters);
+            improved = algorithm instanceof WarmStartable warmStartable
+                ? warmStartable.solve(shard, initial.clone())
+                : algorithm.solve(shard);
+        } catch (RuntimeException e) {
+            // 初始解在预算内可行，算法失败时保留它
+            lastError = e.toString();
+            System.err.println("Error solving shard: " + e.getMessage());
+            return initial;
+        }
+        if (improved == null) {
+            return initial;
+        }
+        SolutionEvaluator.updateMetrics(improved, shard);
+        boolean better = improved.getTotalTime() <= budget && improved.getTotalCost() < initial.getTotalCost();
+        return better ? improved : initial;
+    }
+
+    private Solution summarize(int[] paths) {
+        Solution solution = new Solution(paths);
+        SolutionEvaluator.updateMetrics(solution, problem);
+        return solution;
+    }
+
+    private static void writePaths(int[] paths, java.nio.file.Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(java.nio.file.Files.newOutputStream(file)))) {
+            out.writeInt(paths.length);
+            for (int path : paths) {
+                out.writeInt(path);
+            }
+        }
+    }
+
+    static int[] readPaths(java.nio.file.Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(java.nio.file.Files.newInputStream(file)))) {
+            int[] paths = new int[in.readInt()];
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = in.readInt();
+            }
+            return paths;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // 协议独占标准输出，算法的打印改到标准错误
+        PrintStream protocol = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+
+        String input = BatchSolver.getArg(args, "--input", null);
+        java.nio.file.Path output = java.nio.file.Path.of(BatchSolver.getArg(args, "--output", input + ".paths"));
+        String algorithmType = BatchSolver.getArg(args, "--algorithm", "LNS");
+        Problem problem;
+        try (InputStream in = new FileInputStream(input)) {
+            problem = BinaryProblemFormat.read(in, new File(input).length());
+        }
+        Map<String, Object> parameters = NO_ALGORITHM.equalsIgnoreCase(algorithmType)
+            ? new HashMap<>()
+            : AlgorithmConfig.loadParameters(algorithmType);
+        ShardWorker worker = new ShardWorker(problem, algorithmType, parameters);
+
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = commands.readLine()) != null) {
+            String[] parts = line.trim().split(" ");
+            switch (parts[0]) {
+                case "LAMBDA" -> {
+                    Solution solution = worker.summarize(worker.choose(Double.parseDouble(parts[1])));
+                    protocol.println("SUMMARY " + solution.getTotalTime() + " " + solution.getTotalCost());
+                }
+                case "SOLVE" -> {
+                    Solution solution = worker.solve(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                    if (worker.lastError != null) {
+                        protocol.println("ERROR " + worker.lastError.replace('\n', ' '));
+                    }
+                    writePaths(solution.getPathIndices(), output);
+                    protocol.println("DONE " + solution.getTotalTime() + " " + solution.getTotalCost());
+                }
+                case "QUIT" -> {
+                    return;
+                }
+                default -> protocol.println("ERROR unknown command: " + parts[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package service;
+
+import algorithm.AlgorithmFactory;
+import algorithm.OptimizationAlgorithm;
+import algorithm.SolutionCache;
+import metrics.Metrics;
+import metrics.SolveEvent;
+import model.*;
+import util.DataGenerator;
+import java.util.*;
+
+/**
+ * 单个求解请求
+ * 由一行JSON描述：实例可以内联(instance)或引用数据文件(instanceFile)，并指定算法与参数
+ */
+public class SolveRequest {
+    private static final double DEFAULT_TIME_CONSTRAINT = 120.0;
+    
+    private final String id;
+    private final String algorithmType;
+    private final Map<String, Object> parameters;
+    private final Problem problem;
+    
+    public SolveRequest(String id, String algorithmType, Map<String, Object> parameters, Problem problem) {
+        this.id = id;
+        this.algorithmType = algorithmType;
+        this.parameters = parameters;
+        this.problem = problem;
+    }
+    
+    /**
+     * 从Gson解析出的请求对象构建
+     * @param raw 请求字段：id, algorithm, parameters, timeConstraint, instance | instanceFile
+     * @param baseDir instanceFile为相对路径时的解析目录
+     * @param defaultAlgorithm 请求未指定算法时使用的算法类型
+     */
+    public static SolveRequest fromJson(Map<String, Object> raw, java.nio.file.Path baseDir, String defaultAlgorithm) {
+        String id = formatId(raw.get("id"));
+        String algorithmType = (String) raw.getOrDefault("algorithm", defaultAlgorithm);
+        Map<String, Object> parameters = (Map<String, Object>) raw.getOrDefault("parameters", new HashMap<>());
+        double timeConstraint = raw.get("timeConstraint") instanceof Number
+            ? ((Number) raw.get("timeConstraint")).doubleValue()
+            : DEFAULT_TIME_CONSTRAINT;
+        
+        Map<String, Object> data;
+        if (raw.get("instance") instanceof Map) {
+            data = DataGenerator.convertTestData((Map<String, Object>) raw.get("instance"));
+        } else if (raw.get("instanceFile") instanceof String) {
+            java.nio.file.Path file = baseDir.resolve((String) raw.get("instanceFile"));
+            data = DataGenerator.loadTestData(file.toString());
+            if (data == null) {
+                throw new IllegalArgumentException("Cannot load instance file: " + file);
+            }
+        } else {
+            throw new IllegalArgumentException("Request must contain 'instance' or 'instanceFile'");
+        }
+        
+        Problem problem = new Problem(
+            (List<Customer>) data.get("customers"),
+            (Map<String, List<Path>>) data.get("paths"),
+            timeConstraint,
+            (SparseDiscountIndex) data.get("discounts")
+        );
+        return new SolveRequest(id, algorithmType, parameters, problem);
+    }
+    
+    // Gson把数字统一解析为Double，整数id还原为"12"而不是"12.0"
+    private static String formatId(Object rawId) {
+        if (rawId instanceof Double && ((Double) rawId) == Math.rint((Double) rawId)) {
+            return String.valueOf(((Double) rawId).longValue());
+        }
+        return rawId == null ? null : rawId.toString();
+    }
+    
+    /**
+     * 创建算法实例并求解，记录求解耗时
+     */
+    public SolveResult solve() {
+        return solve(null);
+    }
+    
+    /**
+     * 经过结果缓存求解，cache为null时等同于solve()
+     */
+    public SolveResult solve(SolutionCache cache) {
+        OptimizationAlgorithm algorithm = cache == null
+            ? AlgorithmFactory.createAlgorithm(algorithmType, parameters)
+            : AlgorithmFactory.createCachedAlgorithm(algorithmType, parameters, cache, true);
+        SolveEvent event = SolveEvent.begin(algorithmType, problem.getCustomers().size());
+        long startTime = System.nanoTime();
+        Solution solution = algorithm.solve(problem);
+        long solvingNanos = System.nanoTime() - startTime;
+        event.end(solution == null ? Double.NaN : solution.getTotalCost());
+        Metrics.solveDuration(algorithmType).record(solvingNanos);
+        return SolveResult.success(id, algorithmType, algorithm.getName(), problem, solution, solvingNanos);
+    }
+    
+    public String getId() { return id; }
+    public String getAlgorithmType() { return algorithmType; }
+    public Map<String, Object> getParameters() { return parameters; }
+    public Problem getProblem() { return problem; }
+}
@@ -0,0 +1,78 @@
+package service;
+
+import model.Problem;
+import model.Solution;
+import java.util.*;
+
+/**
+ * 单个求解请求的结果，序列化为一行JSON输出
+ */
+public class SolveResult {
+    private final String id;
+    private final String algorithmType;
+    private final String algorithmName;
+    private final Solution solution;
+    private final boolean feasible;
+    private final long solvingNanos;
+    private final String error;
+    
+    private SolveResult(String id, String algorithmType, String algorithmName, Solution solution,
+                        boolean feasible, long solvingNanos, String error) {
+        this.id = id;
+        this.algorithmType = algorithmType;
+        this.algorithmName = algorithmName;
+        this.solution = solution;
+        this.feasible = feasible;
+        this.solvingNanos = solvingNanos;
+        this.error = error;
+    }
+    
+    public static SolveResult success(String id, String algorithmType, String algorithmName,
+                                      Problem problem, Solution solution, long solvingNanos) {
+        boolean feasible = solution != null && solution.getTotalTime() <= problem.getTimeConstraint();
+        return new SolveResult(id, algorithmType, algorithmName, solution, feasible, solvingNanos, null);
+    }
+    
+    public static SolveResult failure(String id, String error) {
+        return new SolveResult(id, null, null, null, false, 0, error);
+    }
+    
+    public boolean isSuccess() { return error == null; }
+    public String getId() { return id; }
+    public Solution getSolution() { return solution; }
+    public boolean isFeasible() { return feasible; }
+    public long getSolvingNanos() { return solvingNanos; }
+    public String getError() { return error; }
+    
+    /**
+     * 转换为有序字段表，便于Gson输出稳定的字段顺序
+     * @param index 请求在输入中的序号，-1表示不输出
+     */
+    public Map<String, Object> toMap(long index) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (index >= 0) {
+            map.put("index", index);
+        }
+        map.put("id", id);
+        if (error != null) {
+            map.put("status", "error");
+            map.put("error", error);
+            return map;
+        }
+        map.put("status", "ok");
+        map.put("algorithm", algorithmType);
+        map.put("algorithmName", algorithmName);
+        if (solution != null) {
+            map.put("totalCost", solution.getTotalCost());
+            map.put("totalTime", solution.getTotalTime());
+            map.put("pathIndices", solution.getPathIndices());
+            if (solution.hasLowerBound()) {
+                map.put("lowerBound", solution.getLowerBound());
+                map.put("optimalityGap", solution.getOptimalityGap());
+            }
+        }
+        map.put("feasible", feasible);
+        map.put("solveTimeMs", solvingNanos / 1_000_000.0);
+        return map;
+    }
+}
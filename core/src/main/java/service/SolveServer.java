@@ -0,0 +1,275 @@
+package service;
+
+import algorithm.SolutionCache;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import metrics.Metrics;
+import model.Problem;
+import util.BinaryProblemFormat;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 常驻求解服务，基于JDK内置的com.sun.net.httpserver，只监听本机回环地址
+ *
+ * 每个HTTP请求在独立的虚拟线程中处理（解析、等待、写回），
+ * 实际求解提交到固定大小的CPU线程池，排队已满时直接返回503，避免请求无限堆积。
+ * 请求体超过 --max-body-mb（默认256MB）时返回413，二进制实例中的计数按请求体长度校验
+ *
+ * 接口：
+ *   POST /solve  Content-Type: application/json          请求体与批处理模式的一行请求相同，但实例必须内联（instance），
+ *                                                        不接受instanceFile，避免客户端读取服务器上的任意文件
+ *                Content-Type: application/octet-stream  请求体为二进制实例，算法与参数通过查询串传入，
+ *                                                        例如 /solve?algorithm=GA&populationSize=50
+ *                两种请求的参数中都会去掉检查点参数（checkpointFile 等），客户端不能让服务器读写任意路径
+ *   GET  /health 健康检查，启用缓存时附带命中统计
+ *   GET  /metrics Prometheus文本格式的运行指标（求解耗时分布、评估次数、缓存命中等）
+ *
+ * 用法：
+ *   java service.SolveServer [--port 8080] [--threads N] [--queue 64] [--algorithm ACO]
+ *        [--cache-size N] [--cache-ttl-ms T] [--max-body-mb 256]
+ */
+public class SolveServer {
+    private final HttpServer server;
+    private final ExecutorService ioExecutor;
+    private final ThreadPoolExecutor solverPool;
+    private final String defaultAlgorithm;
+    private final Gson gson = new Gson();
+    private SolutionCache cache;
+    private long maxBodyBytes = 256L << 20;
+
+    public SolveServer(int port, int solverThreads, int queueCapacity, String defaultAlgorithm) throws IOException {
+        this.defaultAlgorithm = defaultAlgorithm;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.solverPool = new ThreadPoolExecutor(solverThreads, solverThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+
+        server.setExecutor(ioExecutor);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/health", this::handleHealth);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    /**
+     * 启用结果缓存，需在start()之前调用
+     */
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 请求体字节数上限，需在start()之前调用
+     */
+    public void setMaxBodyBytes(long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        solverPool.shutdownNow();
+        ioExecutor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        long receivedAt = System.nanoTime();
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            respond(exchange, 405, error("Only POST is supported"));
+            return;
+        }
+
+        String lengthHeader = exchange.getRequestHeaders().getFirst("Content-Length");
+        long contentLength = lengthHeader == null ? -1 : Long.parseLong(lengthHeader.trim());
+        if (contentLength > maxBodyBytes) {
+            respond(exchange, 413, error("Request body exceeds " + maxBodyBytes + " bytes"));
+            return;
+        }
+
+        SolveRequest request;
+        long length = contentLength >= 0 ? contentLength : maxBodyBytes;
+        try (InputStream body = new BoundedInputStream(exchange.getRequestBody(), length)) {
+            request = parseRequest(exchange, body, length);
+        } catch (Exception e) {
+            respond(exchange, 400, error(e.getClass().getSimpleName() + ": " + e.getMessage()));
+            return;
+        }
+
+        Future<SolveResult> future;
+        try {
+            future = solverPool.submit(() -> request.solve(cache));
+        } catch (RejectedExecutionException e) {
+            respond(exchange, 503, error("Solver queue is full"));
+            return;
+        }
+
+        try {
+            SolveResult result = future.get();
+            Map<String, Object> response = result.toMap(-1);
+            response.put("requestTimeMs", (System.nanoTime() - receivedAt) / 1_000_000.0);
+            respond(exchange, 200, gson.toJson(response));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            respond(exchange, 500, error(cause.getClass().getSimpleName() + ": " + cause.getMessage()));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, error("Interrupted"));
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "ok");
+        if (cache != null) {
+            response.put("cache", cache.getStatistics());
+        }
+        respond(exchange, 200, gson.toJson(response));
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] bytes = Metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private SolveRequest parseRequest(HttpExchange exchange, InputStream body, long length) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith(BinaryProblemFormat.CONTENT_TYPE)) {
+            Problem problem = BinaryProblemFormat.read(body, length);
+            Map<String, Object> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            String algorithmType = (String) Objects.requireNonNullElse(parameters.remove("algorithm"), defaultAlgorithm);
+            Object id = parameters.remove("id");
+            return new SolveRequest(id == null ? null : id.toString(), algorithmType,
+                withoutServerSideParameters(parameters), problem);
+        }
+
+        String json = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, Object> raw = gson.fromJson(json, Map.class);
+        if (raw == null) {
+            throw new IllegalArgumentException("Empty request body");
+        }
+        if (raw.containsKey("instanceFile")) {
+            throw new IllegalArgumentException("instanceFile is not accepted by the server, send the instance inline");
+        }
+        if (raw.get("parameters") instanceof Map) {
+            raw.put("parameters", withoutServerSideParameters((Map<?, ?>) raw.get("parameters")));
+        }
+        return SolveRequest.fromJson(raw, java.nio.file.Path.of("").toAbsolutePath(), defaultAlgorithm);
+    }
+
+    // 检查点参数会让服务器在任意路径写入、删除文件并注册关闭钩子，只供命令行和批处理使用
+    private static Map<String, Object> withoutServerSideParameters(Map<?, ?> parameters) {
+        Map<String, Object> filtered = new HashMap<>();
+        parameters.forEach((key, value) -> filtered.put(String.valueOf(key), value));
+        filtered.remove("checkpointFile");
+        filtered.remove("checkpointIntervalMs");
+        return filtered;
+    }
+
+    // 查询串中的数值参数转换为Double，与JSON请求中的参数类型一致
+    private static Map<String, Object> parseQuery(String query) {
+        Map<String, Object> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String key = URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            try {
+                parameters.put(key, Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                parameters.put(key, value);
+            }
+        }
+        return parameters;
+    }
+
+    private String error(String message) {
+        return gson.toJson(Map.of("status", "error", "error", message));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // 读取超过上限的字节时抛出IOException，用于没有Content-Length的分块请求体
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining + 1));
+            if (n > 0) {
+                consume(n);
+            }
+            return n;
+        }
+
+        private void consume(long n) throws IOException {
+            remaining -= n;
+            if (remaining < 0) {
+                throw new IOException("Request body exceeds the size limit");
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(BatchSolver.getArg(args, "--port", "8080"));
+        int threads = Integer.parseInt(BatchSolver.getArg(args, "--threads",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int queueCapacity = Integer.parseInt(BatchSolver.getArg(args, "--queue", "64"));
+        String algorithm = BatchSolver.getArg(args, "--algorithm", "ACO");
+
+        SolveServer server = new SolveServer(port, threads, queueCapacity, algorithm);
+        server.setMaxBodyBytes(Long.parseLong(BatchSolver.getArg(args, "--max-body-mb", "256")) << 20);
+        int cacheSize = Integer.parseInt(BatchSolver.getArg(args, "--cache-size", "0"));
+        if (cacheSize > 0) {
+            server.setCache(new SolutionCache(cacheSize,
+                Long.parseLong(BatchSolver.getArg(args, "--cache-ttl-ms", "600000"))));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.printf("求解服务已启动: http://127.0.0.1:%d/solve (求解线程数 %d, 队列容量 %d)\n",
+            server.getPort(), threads, queueCapacity);
+    }
+}
@@ -0,0 +1,44 @@
+package session;
+
+import java.util.*;
+
+/**
+ * 一次调度周期中发生变化的分配
+ * ASSIGNED：新顾客首次分配；CHANGED：窗口内顾客改选路径；COMMITTED：顾客离开窗口，分配最终确定；
+ * CANCELLED：窗口内顾客取消
+ */
+public class AssignmentDelta {
+    public enum Type { ASSIGNED, CHANGED, COMMITTED, CANCELLED }
+
+    private final long tick;
+    private final Type type;
+    private final int customerId;
+    private final int pathIndex;
+    private final int previousPathIndex;
+
+    public AssignmentDelta(long tick, Type type, int customerId, int pathIndex, int previousPathIndex) {
+        this.tick = tick;
+        this.type = type;
+        this.customerId = customerId;
+        this.pathIndex = pathIndex;
+        this.previousPathIndex = previousPathIndex;
+    }
+
+    public long getTick() { return tick; }
+    public Type getType() { return type; }
+    public int getCustomerId() { return customerId; }
+    public int getPathIndex() { return pathIndex; }
+    public int getPreviousPathIndex() { return previousPathIndex; }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("tick", tick);
+        map.put("type", type.name().toLowerCase());
+        map.put("customerId", customerId);
+        map.put("pathIndex", pathIndex);
+        if (previousPathIndex >= 0) {
+            map.put("previousPathIndex", previousPathIndex);
+        }
+        return map;
+    }
+}
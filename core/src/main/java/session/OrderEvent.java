@@ -0,0 +1,56 @@
+package session;
+
+import model.Path;
+import java.util.*;
+
+/**
+ * 订单事件流中的一条事件
+ * JSON Lines格式：{"time": 1200, "type": "add|update|cancel", "customerId": 5,
+ *                 "paths": [{"distance": 3.2, "cost": 3.5, "time": 12.0}, ...]}
+ */
+public class OrderEvent {
+    public enum Type { ADD, UPDATE, CANCEL, END }
+
+    /** 实时模式下的结束标记 */
+    public static final OrderEvent END = new OrderEvent(Long.MAX_VALUE, Type.END, -1, null);
+
+    private final long time;
+    private final Type type;
+    private final int customerId;
+    private final List<Path> paths;
+
+    public OrderEvent(long time, Type type, int customerId, List<Path> paths) {
+        this.time = time;
+        this.type = type;
+        this.customerId = customerId;
+        this.paths = paths;
+    }
+
+    public static OrderEvent fromJson(Map<String, Object> raw) {
+        long time = ((Number) raw.get("time")).longValue();
+        Type type = Type.valueOf(((String) raw.get("type")).toUpperCase());
+        int customerId = ((Number) raw.get("customerId")).intValue();
+
+        List<Path> paths = null;
+        List<Map<String, Object>> rawPaths = (List<Map<String, Object>>) raw.get("paths");
+        if (rawPaths != null) {
+            paths = new ArrayList<>();
+            for (Map<String, Object> pathMap : rawPaths) {
+                paths.add(new Path(
+                    ((Number) pathMap.get("distance")).doubleValue(),
+                    ((Number) pathMap.get("cost")).doubleValue(),
+                    ((Number) pathMap.get("time")).doubleValue()
+                ));
+            }
+        }
+        if (type != Type.CANCEL && (paths == null || paths.isEmpty())) {
+            throw new IllegalArgumentException("Event " + type + " for customer " + customerId + " has no paths");
+        }
+        return new OrderEvent(time, type, customerId, paths);
+    }
+
+    public long getTime() { return time; }
+    public Type getType() { return type; }
+    public int getCustomerId() { return customerId; }
+    public List<Path> getPaths() { return paths; }
+}
@@ -0,0 +1,200 @@
+package session;
+
+import algorithm.OptimizationAlgorithm;
+import algorithm.Reoptimizable;
+import algorithm.WarmStartable;
+import model.*;
+import java.util.*;
+
+/**
+ * 增量重新优化会话
+ * 持有一个可变的问题实例及其当前解，顾客增删、路径更新或时间约束调整后，
+ * 从上一次的解出发、在与变化规模成正比的时间预算内重新优化，而不是从头求解。
+ *
+ * 算法实现Reoptimizable时复用其内部状态（GA种群、ACO信息素、TS禁忌表、RL Q表）；
+ * 仅实现WarmStartable时以上一次解为初始解；否则退化为完整求解。
+ *
+ * 多个变更可放入batch中一次性应用，只触发一次重新优化。非线程安全。
+ * 顾客按id索引，删除时由最后一个顾客填补空位，增删改和构建问题都不随顾客总数增长；
+ * 问题直接引用会话内的列表，getProblem() 返回的问题只在下一次变更前有效。
+ * 组合优惠按顾客下标索引，增删顾客后无法保持，因此不支持含组合优惠的问题。
+ */
+public class ReoptimizationSession {
+    private final OptimizationAlgorithm algorithm;
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<List<Path>> pathLists = new ArrayList<>();
+    // 当前每个顾客在上一次求解时的下标，新增或路径被更新的顾客为-1
+    private final List<Integer> origins = new ArrayList<>();
+    private final Map<Integer, Integer> indexById = new HashMap<>();
+    private double timeConstraint;
+
+    private Problem problem;
+    private Solution solution;
+    private int pendingChanges;
+    private boolean inBatch;
+
+    private long baseBudgetMillis = 5;
+    private long perChangeBudgetMillis = 5;
+    private long maxBudgetMillis = 200;
+
+    public ReoptimizationSession(OptimizationAlgorithm algorithm, Problem initialProblem) {
+        if (initialProblem.hasDiscounts()) {
+            throw new IllegalArgumentException("Reoptimization sessions do not support combination discounts");
+        }
+        this.algorithm = algorithm;
+        this.timeConstraint = initialProblem.getTimeConstraint();
+        for (int i = 0; i < initialProblem.getCustomers().size(); i++) {
+            Customer customer = initialProblem.getCustomers().get(i);
+            indexById.put(customer.getId(), i);
+            customers.add(customer);
+            pathLists.add(new ArrayList<>(initialProblem.getPaths().get("customer_" + i)));
+            origins.add(i);
+        }
+        this.problem = buildProblem();
+        this.solution = customers.isEmpty() ? new Solution(0) : algorithm.solve(problem);
+    }
+
+    /**
+     * 设置重新优化的时间预算：base + perChange * 变更数，且不超过max
+     */
+    public void setBudget(long baseMillis, long perChangeMillis, long maxMillis) {
+        this.baseBudgetMillis = baseMillis;
+        this.perChangeBudgetMillis = perChangeMillis;
+        this.maxBudgetMillis = maxMillis;
+    }
+
+    public Solution addCustomer(Customer customer, List<Path> paths) {
+        if (indexById.putIfAbsent(customer.getId(), customers.size()) != null) {
+            throw new IllegalArgumentException("Duplicate customer: " + customer.getId());
+        }
+        customers.add(customer);
+        pathLists.add(new ArrayList<>(paths));
+        origins.add(-1);
+        return changed();
+    }
+
+    public Solution removeCustomer(int customerId) {
+        int index = indexOf(customerId);
+        indexById.remove(customerId);
+        // 最后一个顾客移到被删除的位置
+        int last = customers.size() - 1;
+        if (index != last) {
+            indexById.put(customers.get(last).getId(), index);
+            customers.set(index, customers.get(last));
+            pathLists.set(index, pathLists.get(last));
+            origins.set(index, origins.get(last));
+        }
+        customers.remove(last);
+        pathLists.remove(last);
+        origins.remove(last);
+        return changed();
+    }
+
+    public Solution updatePaths(int customerId, List<Path> paths) {
+        int index = indexOf(customerId);
+        pathLists.set(index, new ArrayList<>(paths));
+        origins.set(index, -1);
+        return changed();
+    }
+
+    public Solution setTimeConstraint(double timeConstraint) {
+        this.timeConstraint = timeConstraint;
+        return changed();
+    }
+
+    /**
+     * 在一次重新优化中应用多个变更
+     */
+    public Solution batch(Runnable changes) {
+        inBatch = true;
+        try {
+            changes.run();
+        } finally {
+            inBatch = false;
+        }
+        return pendingChanges > 0 ? reoptimize() : solution;
+    }
+
+    private Solution changed() {
+        pendingChanges++;
+        return inBatch ? solution : reoptimize();
+    }
+
+    /**
+     * 按累计的变更重新优化当前问题
+     */
+    public Solution reoptimize() {
+        int customerCount = customers.size();
+        int[] mapping = new int[customerCount];
+        for (int i = 0; i < customerCount; i++) {
+            mapping[i] = origins.get(i);
+        }
+        problem = buildProblem();
+
+        if (customerCount == 0) {
+            solution = new Solution(0);
+        } else {
+            Solution previous = alignPreviousSolution(mapping);
+            long budget = Math.min(maxBudgetMillis, baseBudgetMillis + perChangeBudgetMillis * pendingChanges);
+            if (algorithm instanceof Reoptimizable) {
+                solution = ((Reoptimizable) algorithm).reoptimize(problem, previous, mapping, budget);
+            } else if (algorithm instanceof WarmStartable) {
+                solution = ((WarmStartable) algorithm).solve(problem, previous);
+            } else {
+                solution = algorithm.solve(problem);
+            }
+        }
+
+        for (int i = 0; i < customerCount; i++) {
+            origins.set(i, i);
+        }
+        pendingChanges = 0;
+        return solution;
+    }
+
+    // 把上一次的解对齐到新下标；新增或变化的顾客先选成本最低的路径
+    private Solution alignPreviousSolution(int[] mapping) {
+        Solution previous = new Solution(mapping.length);
+        for (int i = 0; i < mapping.length; i++) {
+            if (mapping[i] >= 0) {
+                previous.setPathIndex(i, solution.getPathIndices()[mapping[i]]);
+            } else {
+                previous.setPathIndex(i, cheapestPath(pathLists.get(i)));
+            }
+        }
+        return previous;
+    }
+
+    private static int cheapestPath(List<Path> paths) {
+        int best = 0;
+        for (int j = 1; j < paths.size(); j++) {
+            Path path = paths.get(j);
+            Path current = paths.get(best);
+            if (path.getDistance() + path.getCost() < current.getDistance() + current.getCost()) {
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    private Problem buildProblem() {
+        return new Problem(Collections.unmodifiableList(customers), Collections.unmodifiableList(pathLists),
+            timeConstraint);
+    }
+
+    public boolean containsCustomer(int customerId) {
+        return indexById.containsKey(customerId);
+    }
+
+    private int indexOf(int customerId) {
+        Integer index = indexById.get(customerId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown customer: " + customerId);
+        }
+        return index;
+    }
+
+    public Problem getProblem() { return problem; }
+    public Solution getSolution() { return solution; }
+    public List<Customer> getCustomers() { return Collections.unmodifiableList(customers); }
+}
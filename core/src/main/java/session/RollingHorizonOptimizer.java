@@ -0,0 +1,275 @@
+package session;
+
+import algorithm.AlgorithmFactory;
+import algorithm.OptimizationAlgorithm;
+import com.google.gson.Gson;
+import model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 滚动时域流式优化器
+ * 订单事件持续到达，优化器维护一个未确定顾客的窗口，按固定周期在截止时间内重新优化窗口，
+ * 只输出发生变化的分配；顾客到达后经过horizon即确定分配并移出窗口。
+ *
+ * 支持两种驱动方式：
+ *   replay：按事件时间回放事件文件，周期由事件时间戳划分，尽可能快地运行
+ *   run：从进程内队列实时消费事件，周期由墙钟时间划分，收到OrderEvent.END后不再接收事件，
+ *        窗口内的顾客继续按周期优化，全部确定后结束
+ *
+ * 用法：
+ *   java session.RollingHorizonOptimizer --events events.jsonl [--output deltas.jsonl] [--algorithm TS]
+ *        [--tick-ms 1000] [--horizon-ms 5000] [--deadline-ms 200] [--time-constraint 120]
+ */
+public class RollingHorizonOptimizer {
+    private final ReoptimizationSession session;
+    private final long tickMillis;
+    private final long horizonMillis;
+
+    // 窗口内顾客的到达时间与上一周期输出的路径
+    private final Map<Integer, Long> arrivalTimes = new HashMap<>();
+    private final Map<Integer, Integer> publishedPaths = new HashMap<>();
+    // 上一周期已确定、将在下一周期从会话中移除的顾客
+    private final List<Integer> committedPendingRemoval = new ArrayList<>();
+
+    private final List<Long> tickLatencies = new ArrayList<>();
+    private long eventCount;
+    private long deltaCount;
+    private long runNanos;
+
+    public RollingHorizonOptimizer(OptimizationAlgorithm algorithm, double timeConstraint,
+                                   long tickMillis, long horizonMillis, long deadlineMillis) {
+        this.session = new ReoptimizationSession(algorithm,
+            new Problem(new ArrayList<>(), new HashMap<>(), timeConstraint));
+        this.session.setBudget(Math.min(5, deadlineMillis), Math.max(1, deadlineMillis / 20), deadlineMillis);
+        this.tickMillis = tickMillis;
+        this.horizonMillis = horizonMillis;
+    }
+
+    /**
+     * 按事件时间回放已排序的事件，所有顾客确定后返回
+     */
+    public void replay(List<OrderEvent> events, Consumer<AssignmentDelta> sink) {
+        long startNanos = System.nanoTime();
+        if (!events.isEmpty()) {
+            long tickTime = events.get(0).getTime() + tickMillis;
+            int next = 0;
+            while (next < events.size() || !arrivalTimes.isEmpty()) {
+                // 窗口为空时跳过没有事件的周期
+                if (arrivalTimes.isEmpty() && committedPendingRemoval.isEmpty()
+                        && events.get(next).getTime() >= tickTime) {
+                    tickTime += (events.get(next).getTime() - tickTime) / tickMillis * tickMillis;
+                }
+                List<OrderEvent> due = new ArrayList<>();
+                while (next < events.size() && events.get(next).getTime() < tickTime) {
+                    due.add(events.get(next++));
+                }
+                tick(tickTime, due, sink);
+                tickTime += tickMillis;
+            }
+            // 最后一个周期确定的顾客也从会话中移除
+            tick(tickTime, Collections.emptyList(), sink);
+        }
+        runNanos += System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 从队列实时消费事件，每tickMillis毫秒处理一个周期；收到OrderEvent.END后与replay一样继续周期直到窗口为空，
+     * 窗口内每个顾客都会输出COMMITTED
+     */
+    public void run(BlockingQueue<OrderEvent> queue, Consumer<AssignmentDelta> sink) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        long tickTime = startMillis + tickMillis;
+        boolean finished = false;
+        while (!finished || !arrivalTimes.isEmpty()) {
+            List<OrderEvent> due = new ArrayList<>();
+            long wait;
+            while ((wait = tickTime - System.currentTimeMillis()) > 0) {
+                if (finished) {
+                    // 已收到END，只等待周期到来，让窗口内的顾客到期确定
+                    Thread.sleep(wait);
+                    break;
+                }
+                OrderEvent event = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    break;
+                }
+                if (event == OrderEvent.END) {
+                    finished = true;
+                    break;
+                }
+                // 实时模式以接收时刻作为到达时间
+                due.add(new OrderEvent(System.currentTimeMillis(), event.getType(),
+                    event.getCustomerId(), event.getPaths()));
+            }
+            tick(tickTime, due, sink);
+            tickTime += tickMillis;
+        }
+        // 最后一个周期确定的顾客也从会话中移除
+        tick(tickTime, Collections.emptyList(), sink);
+        runNanos += System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 一个调度周期：应用事件并重新优化窗口，输出变化的分配，确定到期的顾客
+     */
+    private void tick(long tickTime, List<OrderEvent> events, Consumer<AssignmentDelta> sink) {
+        long startNanos = System.nanoTime();
+        List<AssignmentDelta> deltas = new ArrayList<>();
+
+        Solution solution = session.batch(() -> {
+            for (int customerId : committedPendingRemoval) {
+                session.removeCustomer(customerId);
+            }
+            committedPendingRemoval.clear();
+            for (OrderEvent event : events) {
+                apply(event, tickTime, deltas);
+            }
+        });
+        eventCount += events.size();
+
+        List<Customer> customers = session.getCustomers();
+        int[] pathIndices = solution.getPathIndices();
+        for (int i = 0; i < customers.size(); i++) {
+            int customerId = customers.get(i).getId();
+            Integer previous = publishedPaths.put(customerId, pathIndices[i]);
+            if (previous == null) {
+                deltas.add(new AssignmentDelta(tickTime, AssignmentDelta.Type.ASSIGNED, customerId, pathIndices[i], -1));
+            } else if (previous != pathIndices[i]) {
+                deltas.add(new AssignmentDelta(tickTime, AssignmentDelta.Type.CHANGED, customerId, pathIndices[i], previous));
+            }
+
+            if (arrivalTimes.get(customerId) + horizonMillis <= tickTime) {
+                deltas.add(new AssignmentDelta(tickTime, AssignmentDelta.Type.COMMITTED, customerId, pathIndices[i], -1));
+                committedPendingRemoval.add(customerId);
+                arrivalTimes.remove(customerId);
+                publishedPaths.remove(customerId);
+            }
+        }
+
+        tickLatencies.add(System.nanoTime() - startNanos);
+        deltaCount += deltas.size();
+        deltas.forEach(sink);
+    }
+
+    private void apply(OrderEvent event, long tickTime, List<AssignmentDelta> deltas) {
+        int customerId = event.getCustomerId();
+        boolean inWindow = arrivalTimes.containsKey(customerId);
+        switch (event.getType()) {
+            case ADD -> {
+                if (inWindow) {
+                    session.updatePaths(customerId, event.getPaths());
+                } else if (!session.containsCustomer(customerId)) {
+                    session.addCustomer(new Customer(customerId), event.getPaths());
+                    arrivalTimes.put(customerId, event.getTime());
+                }
+            }
+            case UPDATE -> {
+                if (inWindow) {
+                    session.updatePaths(customerId, event.getPaths());
+                }
+            }
+            case CANCEL -> {
+                if (inWindow) {
+                    session.removeCustomer(customerId);
+                    arrivalTimes.remove(customerId);
+                    Integer previous = publishedPaths.remove(customerId);
+                    deltas.add(new AssignmentDelta(tickTime, AssignmentDelta.Type.CANCELLED, customerId, -1,
+                        previous == null ? -1 : previous));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 每周期处理延迟的分位数与吞吐量
+     */
+    public Map<String, Object> getStatistics() {
+        long[] sorted = tickLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = Math.max(runNanos, 1) / 1e9;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ticks", sorted.length);
+        stats.put("events", eventCount);
+        stats.put("deltas", deltaCount);
+        stats.put("p50TickMs", percentile(sorted, 0.50));
+        stats.put("p90TickMs", percentile(sorted, 0.90));
+        stats.put("p99TickMs", percentile(sorted, 0.99));
+        stats.put("maxTickMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        stats.put("eventsPerSecond", eventCount / seconds);
+        stats.put("ticksPerSecond", sorted.length / seconds);
+        return stats;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    public static List<OrderEvent> loadEvents(java.nio.file.Path file) throws IOException {
+        Gson gson = new Gson();
+        List<OrderEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    events.add(OrderEvent.fromJson(gson.fromJson(line, Map.class)));
+                }
+            }
+        }
+        events.sort(Comparator.comparingLong(OrderEvent::getTime));
+        return events;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String eventsFile = getArg(args, "--events", "events.jsonl");
+        String output = getArg(args, "--output", null);
+        String algorithmType = getArg(args, "--algorithm", "TS");
+        long tickMillis = Long.parseLong(getArg(args, "--tick-ms", "1000"));
+        long horizonMillis = Long.parseLong(getArg(args, "--horizon-ms", "5000"));
+        long deadlineMillis = Long.parseLong(getArg(args, "--deadline-ms", "200"));
+        double timeConstraint = Double.parseDouble(getArg(args, "--time-constraint", "120"));
+
+        List<OrderEvent> events = loadEvents(java.nio.file.Path.of(eventsFile));
+        OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
+        RollingHorizonOptimizer optimizer = new RollingHorizonOptimizer(
+            algorithm, timeConstraint, tickMillis, horizonMillis, deadlineMillis);
+
+        Gson gson = new Gson();
+        PrintWriter out = output == null
+            ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+            : new PrintWriter(Files.newBufferedWriter(java.nio.file.Path.of(output), StandardCharsets.UTF_8));
+        try {
+            optimizer.replay(events, delta -> out.println(gson.toJson(delta.toMap())));
+        } finally {
+            // 输出到标准输出时只刷新不关闭
+            if (output == null) {
+                out.flush();
+            } else {
+                out.close();
+            }
+        }
+
+        System.out.println("滚动优化统计: " + optimizer.getStatistics());
+    }
+
+    private static String getArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,62 @@
+package util;
+
+import org.yaml.snakeyaml.Yaml;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * 读取config.yml中的算法配置
+ *
+ * algorithm.parameters 下按算法类型分组（GA、SA、ACO ...），
+ * loadParameters 返回指定算法的参数副本，配置文件或对应分组不存在时返回空Map（各算法使用内置默认值）。
+ */
+public final class AlgorithmConfig {
+    public static final String DEFAULT_FILE = "config.yml";
+
+    private AlgorithmConfig() {
+    }
+
+    public static Map<String, Object> loadParameters(String algorithmType) {
+        return loadParameters(DEFAULT_FILE, algorithmType);
+    }
+
+    public static Map<String, Object> loadParameters(String file, String algorithmType) {
+        return parameters(load(file), algorithmType);
+    }
+
+    /**
+     * 从已读取的配置中取指定算法的参数副本，同一次运行需要多个配置段时只解析一次文件
+     */
+    public static Map<String, Object> parameters(Map<String, Object> config, String algorithmType) {
+        return new HashMap<>(section(config, "algorithm", "parameters", algorithmType.toUpperCase()));
+    }
+
+    /**
+     * 读取整个配置文件，文件不存在或无法解析时返回空Map
+     */
+    public static Map<String, Object> load(String file) {
+        try (InputStream input = new FileInputStream(file)) {
+            Map<String, Object> config = new Yaml().load(input);
+            return config == null ? new HashMap<>() : config;
+        } catch (Exception e) {
+            System.out.println("使用默认参数配置");
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * 按键路径取嵌套的配置段，任一层缺失时返回空Map
+     */
+    public static Map<String, Object> section(Map<String, Object> config, String... keys) {
+        Map<String, Object> current = config;
+        for (String key : keys) {
+            Object value = current.get(key);
+            if (!(value instanceof Map)) {
+                return Collections.emptyMap();
+            }
+            current = (Map<String, Object>) value;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,145 @@
+package util;
+
+import metrics.ProblemLoadEvent;
+import model.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * 问题实例的紧凑二进制格式，避免JSON解析开销
+ *
+ * 布局（大端序）：
+ *   int    魔数 0x504B5544 ("PKUD")
+ *   int    版本号 2
+ *   double 时间约束
+ *   int    顾客数 n
+ *   n 次： int 路径数 k，随后 k 组 (double 距离, double 成本, double 时间)
+ *   int    组合优惠条数 m（版本1没有此段）
+ *   m 次： (int 顾客1, int 路径1, int 顾客2, int 路径2, int 优惠值)
+ *
+ * 读取时已知输入长度的，顾客数、路径数、优惠条数都先与剩余字节数核对，
+ * 伪造的计数直接以IOException拒绝，不会按计数预分配过大的内存。
+ */
+public class BinaryProblemFormat {
+    public static final String CONTENT_TYPE = "application/octet-stream";
+    private static final int MAGIC = 0x504B5544;
+    private static final int VERSION = 2;
+
+    public static void write(Problem problem, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        int customerCount = problem.getCustomerCount();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeDouble(problem.getTimeConstraint());
+        out.writeInt(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            int pathCount = problem.getPathCount(i);
+            out.writeInt(pathCount);
+            for (int p = 0; p < pathCount; p++) {
+                out.writeDouble(problem.getPathDistance(i, p));
+                out.writeDouble(problem.getPathCost(i, p));
+                out.writeDouble(problem.getPathTime(i, p));
+            }
+        }
+        writeDiscounts(problem, out);
+        out.flush();
+    }
+
+    public static Problem read(InputStream input) throws IOException {
+        return read(input, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param length 输入的总字节数，未知时传 Long.MAX_VALUE
+     */
+    public static Problem read(InputStream input, long length) throws IOException {
+        ProblemLoadEvent event = new ProblemLoadEvent();
+        event.begin();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary problem stream");
+        }
+        int version = in.readInt();
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Unsupported binary problem version: " + version);
+        }
+        double timeConstraint = in.readDouble();
+        int customerCount = in.readInt();
+        long remaining = length - 20;
+        checkCount("customer", customerCount, 4, remaining);
+
+        List<Customer> customers = new ArrayList<>(customerCount);
+        Map<String, List<Path>> paths = new HashMap<>();
+        for (int i = 0; i < customerCount; i++) {
+            int pathCount = in.readInt();
+            remaining -= 4;
+            checkCount("path", pathCount, 24, remaining);
+            remaining -= 24L * pathCount;
+            List<Path> customerPaths = new ArrayList<>(pathCount);
+            for (int j = 0; j < pathCount; j++) {
+                customerPaths.add(new Path(in.readDouble(), in.readDouble(), in.readDouble()));
+            }
+            customers.add(new Customer(i));
+            paths.put("customer_" + i, customerPaths);
+        }
+        SparseDiscountIndex discounts = version >= 2 ? readDiscounts(in, paths, remaining) : null;
+        if (event.shouldCommit()) {
+            event.source = "binary";
+            event.customers = customerCount;
+            event.commit();
+        }
+        return new Problem(customers, paths, timeConstraint, discounts);
+    }
+
+    // 每条优惠只从编号较小的顾客一侧写出一次
+    static void writeDiscounts(Problem problem, DataOutputStream out) throws IOException {
+        if (!problem.hasDiscounts()) {
+            out.writeInt(0);
+            return;
+        }
+        SparseDiscountIndex index = problem.getDiscounts();
+        out.writeInt(index.size());
+        for (int c = 0; c < index.getCustomerCount(); c++) {
+            for (int p = 0; p < index.getPathsPerCustomer(); p++) {
+                for (int k = index.rowBegin(c, p); k < index.rowEnd(c, p); k++) {
+                    if (index.partnerCustomer(k) > c) {
+                        out.writeInt(c);
+                        out.writeInt(p);
+                        out.writeInt(index.partnerCustomer(k));
+                        out.writeInt(index.partnerPath(k));
+                        out.writeInt(index.discountAt(k));
+                    }
+                }
+            }
+        }
+    }
+
+    private static SparseDiscountIndex readDiscounts(DataInputStream in, Map<String, List<Path>> paths,
+                                                     long remaining) throws IOException {
+        int discountCount = in.readInt();
+        checkCount("discount", discountCount, 20, remaining - 4);
+        if (discountCount == 0) {
+            return null;
+        }
+        int maxPaths = 0;
+        for (List<Path> customerPaths : paths.values()) {
+            maxPaths = Math.max(maxPaths, customerPaths.size());
+        }
+        SparseDiscountIndex.Builder builder = new SparseDiscountIndex.Builder(paths.size(), maxPaths);
+        for (int i = 0; i < discountCount; i++) {
+            try {
+                builder.add(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    // 计数为负或所需字节超过剩余输入时拒绝
+    private static void checkCount(String what, int count, long bytesEach, long remaining) throws IOException {
+        if (count < 0 || count * bytesEach > remaining) {
+            throw new IOException("Invalid " + what + " count " + count + " for the remaining input");
+        }
+    }
+}
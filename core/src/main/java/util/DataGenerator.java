@@ -0,0 +1,349 @@
+package util;
+
+import graph.SpatialGrid;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.ProblemLoadEvent;
+import model.*;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.*;
+import java.util.*;
+import org.yaml.snakeyaml.Yaml;
+
+public class DataGenerator {
+    private static final Random random = new Random();
+    private static final Histogram generatePhase = Metrics.histogram("phase_duration_seconds",
+        "Time spent in non-solver phases", "phase", "generate");
+    private static final Histogram loadPhase = Metrics.histogram("phase_duration_seconds",
+        "Time spent in non-solver phases", "phase", "load");
+    
+    public static void generateAndSaveTestData(int restaurantCount, int customerCount, int pathsPerCustomer, String filename) {
+        generateAndSaveTestData(restaurantCount, customerCount, pathsPerCustomer, filename, loadConfig());
+    }
+    
+    /**
+     * @param config 已读取的 dataGeneration 配置段，调用方已解析过config.yml时传入以免重复读取
+     */
+    public static void generateAndSaveTestData(int restaurantCount, int customerCount, int pathsPerCustomer,
+                                               String filename, Map<String, Object> config) {
+        long startTime = System.nanoTime();
+        try {
+            String strategy = (String) config.getOrDefault("strategy", "B");
+            
+            Map<String, Object> data;
+            if (strategy.equals("C")) {
+                data = generateSpatialData(restaurantCount, customerCount, pathsPerCustomer, config);
+            } else {
+                Map<String, List<Path>> paths;
+                if (strategy.equals("A")) {
+                    paths = generateRandomPaths(customerCount, pathsPerCustomer);
+                } else {
+                    paths = generateFeasiblePaths(customerCount, pathsPerCustomer, 120.0);
+                }
+                
+                data = new HashMap<>();
+                
+                // 生成餐厅和顾客数据保持不变
+                List<Restaurant> restaurants = new ArrayList<>();
+                for (int i = 0; i < restaurantCount; i++) {
+                    restaurants.add(new Restaurant(i));
+                }
+                data.put("restaurants", restaurants);
+                
+                List<Customer> customers = new ArrayList<>();
+                for (int i = 0; i < customerCount; i++) {
+                    customers.add(new Customer(i));
+                }
+                data.put("customers", customers);
+                
+                data.put("paths", paths);
+            }
+            
+            // 保存到JSON文件
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            try (FileWriter writer = new FileWriter(filename)) {
+                gson.toJson(data, writer);
+            }
+            
+        } catch (IOException e) {
+            System.err.println("Error generating test data: " + e.getMessage());
+        } finally {
+            generatePhase.recordSince(startTime);
+        }
+    }
+    
+    private static Map<String, List<Path>> generateFeasiblePaths(int customerCount, int pathsPerCustomer, double timeConstraint) {
+        Map<String, List<Path>> paths = new HashMap<>();
+        
+        // 首先生成一个确保可行的解
+        double remainingTime = timeConstraint;
+        double[] feasibleTimes = new double[customerCount];
+        
+        // 为每个顾客分配合理的时间
+        for (int i = 0; i < customerCount - 1; i++) {
+            double maxTime = remainingTime * 0.5; // 留出足够的时间给其他顾客
+            feasibleTimes[i] = 2 + random.nextDouble() * Math.min(maxTime - 2, 8); // 2-10分钟之间
+            remainingTime -= feasibleTimes[i];
+        }
+        feasibleTimes[customerCount - 1] = remainingTime;
+        
+        // 为每个顾客生成路径，确保包含可行路径
+        for (int i = 0; i < customerCount; i++) {
+            List<Path> customerPaths = new ArrayList<>();
+            
+            // 首先添加一条可行的路径
+            double feasibleDistance = feasibleTimes[i] / 4.0; // 假设平均速度为4分钟/公里
+            double feasibleCost = feasibleDistance * (0.8 + random.nextDouble() * 0.4);
+            customerPaths.add(new Path(feasibleDistance, feasibleCost, feasibleTimes[i]));
+            
+            // 然后生成其他随机路径
+            for (int j = 1; j < pathsPerCustomer; j++) {
+                double distance = 1 + random.nextDouble() * 9; // 1-10公里
+                double costFactor = 0.8 + random.nextDouble() * 0.4; // 0.8-1.2的随机系数
+                double cost = distance * costFactor;
+                double timePerKm = 3 + random.nextDouble() * 2; // 3-5分钟/公里
+                double time = distance * timePerKm;
+                
+                customerPaths.add(new Path(distance, cost, time));
+            }
+            
+            // 随机打乱路径顺序
+            Collections.shuffle(customerPaths);
+            paths.put("customer_" + i, customerPaths);
+        }
+        
+        return paths;
+    }
+    
+    /**
+     * 策略C：餐厅和顾客均匀分布在 areaSize x areaSize 公里的区域内，
+     * 每个顾客只从最近的 nearestRestaurants 家餐厅取候选路径（第j条路径来自第 j % k 近的餐厅），
+     * 路径长度为直线距离乘以1.1-1.6的绕行系数，候选规模与 顾客数 x 路径数 成正比，与餐厅总数无关
+     */
+    private static Map<String, Object> generateSpatialData(int restaurantCount, int customerCount,
+                                                           int pathsPerCustomer, Map<String, Object> config) {
+        double areaSize = ((Number) config.getOrDefault("areaSize", 10.0)).doubleValue();
+        int nearest = ((Number) config.getOrDefault("nearestRestaurants", 3)).intValue();
+        if (restaurantCount <= 0) {
+            throw new IllegalArgumentException("Spatial data generation needs at least one restaurant");
+        }
+        
+        List<Restaurant> restaurants = new ArrayList<>();
+        double[] xs = new double[restaurantCount];
+        double[] ys = new double[restaurantCount];
+        for (int i = 0; i < restaurantCount; i++) {
+            xs[i] = random.nextDouble() * areaSize;
+            ys[i] = random.nextDouble() * areaSize;
+            restaurants.add(new Restaurant(i, xs[i], ys[i]));
+        }
+        SpatialGrid grid = new SpatialGrid(xs, ys);
+        
+        List<Customer> customers = new ArrayList<>();
+        Map<String, List<Path>> paths = new HashMap<>();
+        for (int i = 0; i < customerCount; i++) {
+            double x = random.nextDouble() * areaSize;
+            double y = random.nextDouble() * areaSize;
+            customers.add(new Customer(i, x, y));
+            
+            int[] nearby = grid.nearest(x, y, nearest);
+            List<Path> customerPaths = new ArrayList<>();
+            for (int j = 0; j < pathsPerCustomer; j++) {
+                int restaurant = nearby[j % nearby.length];
+                double straight = Math.hypot(xs[restaurant] - x, ys[restaurant] - y);
+                double distance = Math.max(0.1, straight * (1.1 + random.nextDouble() * 0.5));
+                double cost = distance * (0.8 + random.nextDouble() * 0.4);
+                double time = distance * (3 + random.nextDouble() * 2);
+                customerPaths.add(new Path(distance, cost, time));
+            }
+            paths.put("customer_" + i, customerPaths);
+        }
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("restaurants", restaurants);
+        data.put("customers", customers);
+        data.put("paths", paths);
+        return data;
+    }
+    
+    private static Map<String, List<Path>> generateRandomPaths(int customerCount, int pathsPerCustomer) {
+        Map<String, List<Path>> paths = new HashMap<>();
+        for (int i = 0; i < customerCount; i++) {
+            List<Path> customerPaths = new ArrayList<>();
+            for (int j = 0; j < pathsPerCustomer; j++) {
+                double distance = 1 + random.nextDouble() * 9;
+                double costFactor = 0.8 + random.nextDouble() * 0.4;
+                double cost = distance * costFactor;
+                double timePerKm = 3 + random.nextDouble() * 2;
+                double time = distance * timePerKm;
+                
+                customerPaths.add(new Path(distance, cost, time));
+            }
+            paths.put("customer_" + i, customerPaths);
+        }
+        return paths;
+    }
+    
+    // 验证数据集是否包含可行解
+    public static boolean validateDataset(Map<String, Object> data, double timeConstraint) {
+        Map<String, List<Path>> paths = (Map<String, List<Path>>) data.get("paths");
+        int customerCount = ((List<Customer>) data.get("customers")).size();
+        
+        // 尝试找到一个可行解
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            double totalTime = 0;
+            boolean feasible = true;
+            
+            for (int i = 0; i < customerCount; i++) {
+                List<Path> customerPaths = paths.get("customer_" + i);
+                double minTime = Double.MAX_VALUE;
+                
+                // 找到该顾客的最短时间路径
+                for (Path path : customerPaths) {
+                    minTime = Math.min(minTime, path.getTime());
+                }
+                
+                totalTime += minTime;
+                if (totalTime > timeConstraint) {
+                    feasible = false;
+                    break;
+                }
+            }
+            
+            if (feasible) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    public static Map<String, Object> loadTestData(String filename) {
+        long startTime = System.nanoTime();
+        ProblemLoadEvent event = new ProblemLoadEvent();
+        event.begin();
+        try {
+            Gson gson = new Gson();
+            
+            try (FileReader reader = new FileReader(filename)) {
+                Map<String, Object> rawData = gson.fromJson(reader, Map.class);
+                Map<String, Object> data = convertTestData(rawData);
+                if (event.shouldCommit()) {
+                    event.source = filename;
+                    event.customers = ((List<?>) data.get("customers")).size();
+                    event.commit();
+                }
+                return data;
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading test data: " + e.getMessage());
+            return null;
+        } finally {
+            loadPhase.recordSince(startTime);
+        }
+    }
+    
+    // 将Gson解析出的原始数据转换为模型对象，供文件加载和内联实例(批处理/服务模式)共用
+    public static Map<String, Object> convertTestData(Map<String, Object> rawData) {
+        Map<String, Object> convertedData = new HashMap<>();
+        
+        // 转换餐厅数据（内联实例可省略；带 x/y 时保留坐标）
+        List<Map<String, Object>> rawRestaurants = (List<Map<String, Object>>) rawData.get("restaurants");
+        List<Restaurant> restaurants = new ArrayList<>();
+        if (rawRestaurants != null) {
+            for (Map<String, Object> map : rawRestaurants) {
+                int id = ((Double) map.get("id")).intValue();
+                restaurants.add(map.get("x") instanceof Number x && map.get("y") instanceof Number y
+                    ? new Restaurant(id, x.doubleValue(), y.doubleValue())
+                    : new Restaurant(id));
+            }
+        }
+        convertedData.put("restaurants", restaurants);
+        
+        // 转换路径数据
+        Map<String, List<Map<String, Object>>> rawPaths = (Map<String, List<Map<String, Object>>>) rawData.get("paths");
+        Map<String, List<Path>> paths = new HashMap<>();
+        
+        for (Map.Entry<String, List<Map<String, Object>>> entry : rawPaths.entrySet()) {
+            List<Path> pathList = new ArrayList<>();
+            for (Map<String, Object> pathMap : entry.getValue()) {
+                pathList.add(new Path(
+                    (Double) pathMap.get("distance"),
+                    (Double) pathMap.get("cost"),
+                    (Double) pathMap.get("time")
+                ));
+            }
+            paths.put(entry.getKey(), pathList);
+        }
+        convertedData.put("paths", paths);
+        
+        // 转换顾客数据（缺省时按路径表的顾客数生成）
+        List<Map<String, Object>> rawCustomers = (List<Map<String, Object>>) rawData.get("customers");
+        List<Customer> customers = new ArrayList<>();
+        if (rawCustomers != null) {
+            for (Map<String, Object> map : rawCustomers) {
+                int id = ((Double) map.get("id")).intValue();
+                customers.add(map.get("x") instanceof Number x && map.get("y") instanceof Number y
+                    ? new Customer(id, x.doubleValue(), y.doubleValue())
+                    : new Customer(id));
+            }
+        } else {
+            for (int i = 0; i < paths.size(); i++) {
+                customers.add(new Customer(i));
+            }
+        }
+        convertedData.put("customers", customers);
+        
+        // 转换路径组合优惠（可选）：[{customer1, path1, customer2, path2, discount}]，顾客和路径均为下标
+        List<Map<String, Object>> rawDiscounts = (List<Map<String, Object>>) rawData.get("discounts");
+        if (rawDiscounts != null && !rawDiscounts.isEmpty()) {
+            int maxPaths = 0;
+            for (List<Path> pathList : paths.values()) {
+                maxPaths = Math.max(maxPaths, pathList.size());
+            }
+            SparseDiscountIndex.Builder builder = new SparseDiscountIndex.Builder(customers.size(), maxPaths);
+            for (Map<String, Object> map : rawDiscounts) {
+                builder.add(((Number) map.get("customer1")).intValue(), ((Number) map.get("path1")).intValue(),
+                    ((Number) map.get("customer2")).intValue(), ((Number) map.get("path2")).intValue(),
+                    ((Number) map.get("discount")).intValue());
+            }
+            convertedData.put("discounts", builder.build());
+        }
+        
+        return convertedData;
+    }
+    
+    private static Map<String, Object> loadConfig() {
+        try (InputStream input = new FileInputStream("config.yml")) {
+            Yaml yaml = new Yaml();
+            Map<String, Object> config = yaml.load(input);
+            return (Map<String, Object>) config.getOrDefault("dataGeneration", 
+                new HashMap<String, Object>() {{
+                    put("strategy", "B");
+                    put("timeConstraint", 120.0);
+                    put("minTimePerCustomer", 2.0);
+                    put("maxTimePerCustomer", 10.0);
+                    put("minDistance", 1.0);
+                    put("maxDistance", 10.0);
+                    put("costFactor", new HashMap<String, Double>() {{
+                        put("min", 0.8);
+                        put("max", 1.2);
+                    }});
+                }});
+        } catch (Exception e) {
+            System.out.println("使用默认数据生成配置");
+            return new HashMap<String, Object>() {{
+                put("strategy", "B");
+                put("timeConstraint", 120.0);
+                put("minTimePerCustomer", 2.0);
+                put("maxTimePerCustomer", 10.0);
+                put("minDistance", 1.0);
+                put("maxDistance", 10.0);
+                put("costFactor", new HashMap<String, Double>() {{
+                    put("min", 0.8);
+                    put("max", 1.2);
+                }});
+            }};
+        }
+    }
+} 
\ No newline at end of file
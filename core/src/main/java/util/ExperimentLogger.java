@@ -1,5 +1,8 @@
 package util;
 
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.ResultLogEvent;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -15,6 +18,10 @@ public class ExperimentLogger {
     private static Sheet currentSheet;
     private static Map<String, Integer> sheetRowNums = new HashMap<>();
     private static Set<String> headerKeys = new HashSet<>();
+    private static final Histogram logPhase = Metrics.histogram("phase_duration_seconds",
+        "Time spent in non-solver phases", "phase", "log");
+    private static final Histogram savePhase = Metrics.histogram("phase_duration_seconds",
+        "Time spent in non-solver phases", "phase", "save");
     
     public static void initializeExperiment(String experimentName) {
         workbook = new XSSFWorkbook();
@@ -31,6 +38,9 @@ public class ExperimentLogger {
         if (currentSheet == null) {
             return;
         }
+        long startTime = System.nanoTime();
+        ResultLogEvent event = new ResultLogEvent();
+        event.begin();
         
         String sheetName = currentSheet.getSheetName();
         int rowNum = sheetRowNums.get(sheetName);
@@ -65,6 +75,13 @@ public class ExperimentLogger {
         for (int i = 0; i < headerKeys.size(); i++) {
             currentSheet.autoSizeColumn(i);
         }
+        logPhase.recordSince(startTime);
+        if (event.shouldCommit()) {
+            event.action = "row";
+            event.sheet = sheetName;
+            event.algorithm = Objects.toString(result.get("算法类型"), null);
+            event.commit();
+        }
     }
     
     private static void createHeader(Set<String> keys) {
@@ -80,6 +97,9 @@ public class ExperimentLogger {
     }
     
     public static void saveResults() {
+        long startTime = System.nanoTime();
+        ResultLogEvent event = new ResultLogEvent();
+        event.begin();
         try {
             // 确保目录存在
             File dir = new File(RESULTS_DIR);
@@ -100,6 +120,12 @@ public class ExperimentLogger {
             
         } catch (IOException e) {
             System.err.println("保存实验结果失败: " + e.getMessage());
+        } finally {
+            savePhase.recordSince(startTime);
+            if (event.shouldCommit()) {
+                event.action = "save";
+                event.commit();
+            }
         }
     }
 } 
\ No newline at end of file
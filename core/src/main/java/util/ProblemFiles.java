@@ -0,0 +1,55 @@
+package util;
+
+import model.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * 按扩展名读取实例文件，供命令行入口共用
+ *   .bin  BinaryProblemFormat 二进制实例，使用文件中的时间约束
+ *   .cols ColumnarProblemFormat 列式实例，映射到堆外，使用文件中的时间约束；
+ *         依赖FFM预览API，只在 -P ffm 构建时存在，因此反射加载
+ *   其余  JSON实例，使用传入的时间约束
+ */
+public final class ProblemFiles {
+    private static final String COLUMNAR_FORMAT = "util.ColumnarProblemFormat";
+
+    private ProblemFiles() {
+    }
+
+    /**
+     * @return 读取失败时打印原因并返回null
+     */
+    public static Problem load(String file, double timeConstraint) {
+        if (file.endsWith(".cols")) {
+            try {
+                return (Problem) Class.forName(COLUMNAR_FORMAT)
+                    .getMethod("open", java.nio.file.Path.class)
+                    .invoke(null, java.nio.file.Path.of(file));
+            } catch (java.lang.reflect.InvocationTargetException e) {
+                System.err.println("Error loading test data: " + e.getCause().getMessage());
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("列式实例需要用 -P ffm 构建，并以 --enable-preview 运行");
+            }
+            return null;
+        }
+        if (file.endsWith(".bin")) {
+            try (InputStream input = new FileInputStream(file)) {
+                return BinaryProblemFormat.read(input, new File(file).length());
+            } catch (IOException e) {
+                System.err.println("Error loading test data: " + e.getMessage());
+                return null;
+            }
+        }
+        Map<String, Object> data = DataGenerator.loadTestData(file);
+        if (data == null) {
+            return null;
+        }
+        return new Problem(
+            (List<Customer>) data.get("customers"),
+            (Map<String, List<Path>>) data.get("paths"),
+            timeConstraint,
+            (SparseDiscountIndex) data.get("discounts")
+        );
+    }
+}
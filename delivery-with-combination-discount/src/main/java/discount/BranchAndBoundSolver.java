@@ -0,0 +1,380 @@
+package discount;
+
+import model.SparseDiscountIndex;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带组合优惠问题的精确分支定界求解器
+ *
+ * 目标函数与GeneticAlgorithmSolver的适应度一致：
+ *   总费用 + 生效的组合优惠之和 + max(0, 总耗时 - TIME_LIMIT) * EXTRA_TIME_COST
+ *
+ * 按固定顺序逐个确定客户的路径。下界对每个未确定的客户乐观地计入其最好的剩余优惠：
+ * 与已确定客户的优惠只在路径匹配时计入，两个未确定客户之间的优惠只计入排序靠前的一方，
+ * 因此每条优惠最多计入一次。超时惩罚取两种下界中的较大者：
+ *   按最小耗时之和计算的惩罚，以及把惩罚按 EXTRA_TIME_COST 线性化后的拉格朗日下界。
+ *
+ * 搜索树的上层在ForkJoin线程池中并行展开，子树内部顺序深度优先搜索，
+ * 各子树共享当前最优值用于剪枝。未超时结束时返回的解是经过证明的最优解。
+ */
+public class BranchAndBoundSolver {
+
+    private static final int SEQUENTIAL_DEPTH = 12; // 剩余客户数不超过该值时不再拆分子树
+    private static final int DEADLINE_CHECK_INTERVAL = 4096; // 每访问多少个节点检查一次时间
+
+    private final TestDataSet testDataSet;
+    private final long timeLimitMillis;
+    private final int parallelism;
+
+    // 以搜索顺序(位置)重新编号后的数据
+    private int n;
+    private int paths;
+    private int[] order;          // 位置 -> 客户
+    private long[] costs;         // [位置 * paths + 路径]
+    private long[] times;
+    private long[] forwardCredit; // 与排在后面的客户之间所有优惠之和（乐观计入）
+    private int[][] laterPartners; // 与排在后面的客户之间的优惠：{伙伴位置, 伙伴路径, 优惠值}...
+
+    private final AtomicLong bestValue = new AtomicLong(Long.MAX_VALUE);
+    private int[] bestPositions;
+    private final LongAdder nodeCount = new LongAdder();
+    private volatile boolean aborted;
+    private long deadlineNanos;
+
+    public BranchAndBoundSolver(TestDataSet testDataSet) {
+        this(testDataSet, 0, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param timeLimitMillis 超过该时间后停止搜索并返回当前最优解，≤0 表示不限时
+     * @param parallelism     ForkJoin线程池的并行度
+     */
+    public BranchAndBoundSolver(TestDataSet testDataSet, long timeLimitMillis, int parallelism) {
+        this.testDataSet = testDataSet;
+        this.timeLimitMillis = timeLimitMillis;
+        this.parallelism = parallelism;
+    }
+
+    // 主方法：求解并返回每个客户选择的路径
+    public int[] solve() {
+        prepare();
+        deadlineNanos = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+
+        // 以贪心加局部搜索得到的解作为初始上界
+        int[] initial = improveLocally(greedySolution());
+        int[] initialPositions = new int[n];
+        for (int pos = 0; pos < n; pos++) {
+            initialPositions[pos] = initial[order[pos]];
+        }
+        offer(objective(testDataSet, initial), initialPositions);
+
+        if (n > 0) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new Subtree(0, new int[n], new long[n * paths], 0, 0));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        int[] solution = new int[n];
+        for (int pos = 0; pos < n; pos++) {
+            solution[order[pos]] = bestPositions[pos];
+        }
+        return solution;
+    }
+
+    // 按路径选择对目标影响的差异从大到小排序客户，差异大的先分支，并把数据换到位置编号下
+    private void prepare() {
+        n = testDataSet.getCustomerCount();
+        paths = TestDataSet.PATHS_PER_CUSTOMER;
+        SparseDiscountIndex index = testDataSet.getDiscountIndex();
+
+        Integer[] sorted = new Integer[n];
+        long[] spread = new long[n];
+        for (int c = 0; c < n; c++) {
+            sorted[c] = c;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int p = 0; p < paths; p++) {
+                long weight = testDataSet.getCost(c, p) + (long) testDataSet.getTime(c, p) * TestDataSet.EXTRA_TIME_COST;
+                for (int k = index.rowBegin(c, p); k < index.rowEnd(c, p); k++) {
+                    weight += index.discountAt(k);
+                }
+                min = Math.min(min, weight);
+                max = Math.max(max, weight);
+            }
+            spread[c] = max - min;
+        }
+        Arrays.sort(sorted, (a, b) -> Long.compare(spread[b], spread[a]));
+
+        order = new int[n];
+        int[] position = new int[n];
+        for (int pos = 0; pos < n; pos++) {
+            order[pos] = sorted[pos];
+            position[sorted[pos]] = pos;
+        }
+
+        costs = new long[n * paths];
+        times = new long[n * paths];
+        forwardCredit = new long[n * paths];
+        laterPartners = new int[n * paths][];
+        for (int pos = 0; pos < n; pos++) {
+            int c = order[pos];
+            for (int p = 0; p < paths; p++) {
+                int row = pos * paths + p;
+                costs[row] = testDataSet.getCost(c, p);
+                times[row] = testDataSet.getTime(c, p);
+
+                int[] partners = new int[3 * index.degree(c, p)];
+                int count = 0;
+                for (int k = index.rowBegin(c, p); k < index.rowEnd(c, p); k++) {
+                    int partnerPos = position[index.partnerCustomer(k)];
+                    if (partnerPos > pos) {
+                        partners[count++] = partnerPos;
+                        partners[count++] = index.partnerPath(k);
+                        partners[count++] = index.discountAt(k);
+                        forwardCredit[row] += Math.min(0, index.discountAt(k));
+                    }
+                }
+                laterPartners[row] = Arrays.copyOf(partners, count);
+            }
+        }
+    }
+
+    /**
+     * 一棵子树：前depth个位置已确定
+     * pending[位置 * paths + 路径] 为该位置选择该路径时与已确定客户之间生效的优惠之和
+     */
+    private class Subtree extends RecursiveAction {
+        private final int depth;
+        private final int[] assignment;
+        private final long[] pending;
+        private final long fixedCost; // 已确定部分的费用与优惠之和
+        private final long fixedTime;
+
+        private int[][] childOrder;
+        private long localNodes;
+
+        Subtree(int depth, int[] assignment, long[] pending, long fixedCost, long fixedTime) {
+            this.depth = depth;
+            this.assignment = assignment;
+            this.pending = pending;
+            this.fixedCost = fixedCost;
+            this.fixedTime = fixedTime;
+        }
+
+        @Override
+        protected void compute() {
+            childOrder = new int[n][paths];
+            if (n - depth > SEQUENTIAL_DEPTH && getSurplusQueuedTaskCount() < 4) {
+                split();
+            } else {
+                search(depth, fixedCost, fixedTime);
+            }
+            nodeCount.add(localNodes);
+        }
+
+        // 展开一层，每个子节点携带自己的状态副本并行搜索
+        private void split() {
+            localNodes++;
+            if (aborted || lowerBound(depth, fixedCost, fixedTime) >= bestValue.get()) {
+                return;
+            }
+            List<Subtree> children = new ArrayList<>(paths);
+            for (int p : sortChildren(depth)) {
+                int[] childAssignment = assignment.clone();
+                long[] childPending = pending.clone();
+                childAssignment[depth] = p;
+                int row = depth * paths + p;
+                int[] partners = laterPartners[row];
+                for (int k = 0; k < partners.length; k += 3) {
+                    childPending[partners[k] * paths + partners[k + 1]] += partners[k + 2];
+                }
+                children.add(new Subtree(depth + 1, childAssignment, childPending,
+                        fixedCost + costs[row] + pending[row], fixedTime + times[row]));
+            }
+            invokeAll(children);
+        }
+
+        // 顺序深度优先搜索，原地修改assignment和pending并在回溯时恢复
+        private void search(int pos, long cost, long time) {
+            if (++localNodes % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                aborted = true;
+            }
+            if (aborted) {
+                return;
+            }
+            if (pos == n) {
+                long value = cost + penalty(time);
+                if (value < bestValue.get()) {
+                    offer(value, assignment);
+                }
+                return;
+            }
+            if (lowerBound(pos, cost, time) >= bestValue.get()) {
+                return;
+            }
+
+            for (int p : sortChildren(pos)) {
+                int row = pos * paths + p;
+                int[] partners = laterPartners[row];
+                for (int k = 0; k < partners.length; k += 3) {
+                    pending[partners[k] * paths + partners[k + 1]] += partners[k + 2];
+                }
+                assignment[pos] = p;
+                search(pos + 1, cost + costs[row] + pending[row], time + times[row]);
+                for (int k = 0; k < partners.length; k += 3) {
+                    pending[partners[k] * paths + partners[k + 1]] -= partners[k + 2];
+                }
+            }
+        }
+
+        // 先尝试局部代价小的路径，尽早得到好的上界
+        private int[] sortChildren(int pos) {
+            int[] sorted = childOrder[pos];
+            for (int p = 0; p < paths; p++) {
+                long key = localWeight(pos, p);
+                int i = p;
+                while (i > 0 && localWeight(pos, sorted[i - 1]) > key) {
+                    sorted[i] = sorted[i - 1];
+                    i--;
+                }
+                sorted[i] = p;
+            }
+            return sorted;
+        }
+
+        private long localWeight(int pos, int p) {
+            int row = pos * paths + p;
+            return costs[row] + pending[row] + forwardCredit[row] + times[row] * TestDataSet.EXTRA_TIME_COST;
+        }
+
+        // 从位置pos开始的所有客户尚未确定时的目标下界
+        private long lowerBound(int pos, long cost, long time) {
+            long minCostSum = 0;
+            long minTimeSum = 0;
+            long lagrangianSum = 0;
+            for (int q = pos; q < n; q++) {
+                long minCost = Long.MAX_VALUE;
+                long minTime = Long.MAX_VALUE;
+                long minLagrangian = Long.MAX_VALUE;
+                for (int p = 0; p < paths; p++) {
+                    int row = q * paths + p;
+                    long optimistic = costs[row] + pending[row] + forwardCredit[row];
+                    minCost = Math.min(minCost, optimistic);
+                    minTime = Math.min(minTime, times[row]);
+                    minLagrangian = Math.min(minLagrangian, optimistic + times[row] * TestDataSet.EXTRA_TIME_COST);
+                }
+                minCostSum += minCost;
+                minTimeSum += minTime;
+                lagrangianSum += minLagrangian;
+            }
+            // max(0, T - L) * E ≥ (T - L) * E，两种估计都不超过真实惩罚
+            long separate = cost + minCostSum + penalty(time + minTimeSum);
+            long lagrangian = cost + lagrangianSum + (time - TestDataSet.TIME_LIMIT) * TestDataSet.EXTRA_TIME_COST;
+            return Math.max(separate, lagrangian);
+        }
+    }
+
+    private synchronized void offer(long value, int[] positions) {
+        if (value < bestValue.get()) {
+            bestPositions = positions.clone();
+            bestValue.set(value);
+        }
+    }
+
+    private static long penalty(long totalTime) {
+        return totalTime > TestDataSet.TIME_LIMIT ? (totalTime - TestDataSet.TIME_LIMIT) * TestDataSet.EXTRA_TIME_COST : 0;
+    }
+
+    // 贪心：按原编号依次为每个客户选择当前代价最小的路径
+    private int[] greedySolution() {
+        int[] solution = new int[n];
+        DiscountEvaluator evaluator = new DiscountEvaluator(testDataSet);
+        DiscountEvaluator.Totals totals = evaluator.evaluate(solution);
+        DiscountEvaluator.Totals candidate = new DiscountEvaluator.Totals();
+        for (int c = 0; c < n; c++) {
+            int bestPath = solution[c];
+            long bestCost = objective(totals);
+            for (int p = 0; p < paths; p++) {
+                evaluator.preview(solution, totals, c, p, candidate);
+                if (objective(candidate) < bestCost) {
+                    bestCost = objective(candidate);
+                    bestPath = p;
+                }
+            }
+            evaluator.move(solution, totals, c, bestPath);
+        }
+        return solution;
+    }
+
+    // 单客户改路径的局部搜索，直到没有改进
+    private int[] improveLocally(int[] solution) {
+        DiscountEvaluator evaluator = new DiscountEvaluator(testDataSet);
+        DiscountEvaluator.Totals totals = evaluator.evaluate(solution);
+        DiscountEvaluator.Totals candidate = new DiscountEvaluator.Totals();
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int c = 0; c < n; c++) {
+                for (int p = 0; p < paths; p++) {
+                    evaluator.preview(solution, totals, c, p, candidate);
+                    if (objective(candidate) < objective(totals)) {
+                        evaluator.move(solution, totals, c, p);
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return solution;
+    }
+
+    private static long objective(DiscountEvaluator.Totals totals) {
+        return totals.getCost() + totals.getDiscount() + penalty(totals.getTime());
+    }
+
+    // 按本求解器的目标函数计算一个方案的总成本
+    public static long objective(TestDataSet testDataSet, int[] solution) {
+        return objective(new DiscountEvaluator(testDataSet).evaluate(solution));
+    }
+
+    public long getBestCost() {
+        return bestValue.get();
+    }
+
+    public long getNodeCount() {
+        return nodeCount.sum();
+    }
+
+    // 搜索在时间限制内完成时，返回的解为已证明的最优解
+    public boolean isOptimal() {
+        return !aborted;
+    }
+
+    public static void main(String[] args) {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        TestDataSet testDataSet = new TestDataSet(customers);
+
+        long startTime = System.currentTimeMillis();
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(testDataSet);
+        int[] solution = solver.solve();
+        long duration = System.currentTimeMillis() - startTime;
+
+        System.out.println("Customers: " + customers + ", Discounts: " + testDataSet.getDiscountIndex().size());
+        for (int i = 0; i < solution.length; i++) {
+            System.out.println("Customer: " + (i + 1) + ", Path: " + (solution[i] + 1));
+        }
+        System.out.println("Total Cost: " + solver.getBestCost() + (solver.isOptimal() ? " (optimal)" : " (time limit reached)"));
+        System.out.println("Nodes: " + solver.getNodeCount() + ", Time: " + duration + " ms");
+
+        // 与启发式算法对比，给出相对最优值的差距
+        long heuristicCost = objective(testDataSet, new GeneticAlgorithmSolver(testDataSet).solve());
+        System.out.printf("Genetic Algorithm Cost: %d, Gap: %.2f%%\n", heuristicCost,
+                100.0 * (heuristicCost - solver.getBestCost()) / Math.max(1, Math.abs(solver.getBestCost())));
+    }
+}
@@ -0,0 +1,78 @@
+package discount;
+
+import algorithm.*;
+import model.*;
+import util.ExperimentLogger;
+import java.util.*;
+
+/**
+ * 组合优惠问题与普通问题的统一对比实验
+ *
+ * 每个规模随机生成一个实例，分别构造含组合优惠和去掉优惠的两个版本，
+ * 让AlgorithmFactory中的所有算法和本模块的遗传算法在两个版本上求解。
+ * 成本统一由SolutionEvaluator计算（距离 + 费用 + 生效的组合优惠），结果写入Excel。
+ *
+ * 用法：java discount.DiscountBenchmark [顾客数 ...]
+ */
+public class DiscountBenchmark {
+    private static final String[] ALGORITHMS = {"GA", "SA", "ACO", "TS", "RL", "BK"};
+    private static final int BACKTRACKING_MAX_CUSTOMERS = 12; // 回溯算法只在小规模上运行
+    private static final double TIME_PER_CUSTOMER = 30.0;      // 时间约束 = 顾客数 * 每顾客平均耗时
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {5, 10, 12};
+
+        ExperimentLogger.initializeExperiment("组合优惠对比实验");
+        ExperimentLogger.addSheet("组合优惠对比实验");
+
+        for (int size : sizes) {
+            TestDataSet testDataSet = new TestDataSet(size);
+            double timeConstraint = size * TIME_PER_CUSTOMER;
+            System.out.printf("\n顾客数 %d，组合优惠 %d 条，时间约束 %.0f\n",
+                size, testDataSet.getDiscountIndex().size(), timeConstraint);
+
+            for (boolean withDiscounts : new boolean[] {true, false}) {
+                Problem problem = testDataSet.toProblem(timeConstraint, withDiscounts);
+                String variant = withDiscounts ? "组合优惠" : "无优惠";
+
+                for (String algorithmType : ALGORITHMS) {
+                    if (algorithmType.equals("BK") && size > BACKTRACKING_MAX_CUSTOMERS) {
+                        continue;
+                    }
+                    long startTime = System.currentTimeMillis();
+                    OptimizationAlgorithm algorithm = AlgorithmFactory.createAlgorithm(algorithmType, new HashMap<>());
+                    Solution solution = algorithm.solve(problem);
+                    record(problem, variant, algorithmType, solution, System.currentTimeMillis() - startTime);
+                }
+
+                // 本模块的遗传算法只求解组合优惠版本，按主框架的目标重新评估
+                if (withDiscounts) {
+                    long startTime = System.currentTimeMillis();
+                    Solution solution = new Solution(new GeneticAlgorithmSolver(testDataSet).solve());
+                    record(problem, variant, "DiscountGA", solution, System.currentTimeMillis() - startTime);
+                }
+            }
+        }
+
+        ExperimentLogger.saveResults();
+    }
+
+    private static void record(Problem problem, String variant, String algorithmType, Solution solution, long duration) {
+        SolutionEvaluator.updateMetrics(solution, problem);
+        boolean feasible = solution.getTotalTime() <= problem.getTimeConstraint();
+        System.out.printf("[%s] %s: 成本 %.2f, 时间 %.2f%s, 耗时 %d ms\n", variant, algorithmType,
+            solution.getTotalCost(), solution.getTotalTime(), feasible ? "" : " (超时)", duration);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("问题类型", variant);
+        result.put("顾客数量", problem.getCustomers().size());
+        result.put("算法类型", algorithmType);
+        result.put("总成本", solution.getTotalCost());
+        result.put("总时间", solution.getTotalTime());
+        result.put("是否可行", feasible ? "是" : "否");
+        result.put("耗时(ms)", duration);
+        ExperimentLogger.logResult(result);
+    }
+}
@@ -0,0 +1,124 @@
+package discount;
+
+import model.SparseDiscountIndex;
+
+/**
+ * 带组合优惠的增量评估器
+ *
+ * 维护一个分配方案的各项累计值（费用、距离、时间、优惠），
+ * 改变单个客户的路径时只访问与该客户新旧路径相关的优惠，代价与其优惠度数成正比，
+ * 不再需要每次扫描全部 O(n²) 个客户对。各求解器再由累计值组合出自己的目标函数。
+ */
+public class DiscountEvaluator {
+
+    /**
+     * 分配方案的累计值
+     */
+    public static class Totals {
+        private long cost;
+        private long distance;
+        private long time;
+        private long discount;
+
+        public long getCost() { return cost; }
+        public long getDistance() { return distance; }
+        public long getTime() { return time; }
+        public long getDiscount() { return discount; }
+
+        public Totals copy() {
+            Totals copy = new Totals();
+            copy.copyFrom(this);
+            return copy;
+        }
+
+        public void copyFrom(Totals other) {
+            cost = other.cost;
+            distance = other.distance;
+            time = other.time;
+            discount = other.discount;
+        }
+    }
+
+    private final TestDataSet data;
+    private final SparseDiscountIndex index;
+
+    public DiscountEvaluator(TestDataSet data) {
+        this.data = data;
+        this.index = data.getDiscountIndex();
+    }
+
+    // 完整评估，代价为 O(客户数 + 所选路径的优惠度数之和)
+    public Totals evaluate(int[] assignment) {
+        Totals totals = new Totals();
+        for (int i = 0; i < assignment.length; i++) {
+            int path = assignment[i];
+            totals.cost += data.getCost(i, path);
+            totals.distance += data.getDistance(i, path);
+            totals.time += data.getTime(i, path);
+        }
+        totals.discount = discountTotal(assignment);
+        return totals;
+    }
+
+    // 所有生效优惠之和，每条优惠只从编号较小的客户一侧计入一次
+    public long discountTotal(int[] assignment) {
+        long total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            int end = index.rowEnd(i, assignment[i]);
+            for (int k = index.rowBegin(i, assignment[i]); k < end; k++) {
+                int j = index.partnerCustomer(k);
+                if (j > i && assignment[j] == index.partnerPath(k)) {
+                    total += index.discountAt(k);
+                }
+            }
+        }
+        return total;
+    }
+
+    // 把customer改为newPath时优惠总和的变化量，不修改assignment
+    public long discountDelta(int[] assignment, int customer, int newPath) {
+        int oldPath = assignment[customer];
+        if (oldPath == newPath) {
+            return 0;
+        }
+        return activeDiscount(assignment, customer, newPath) - activeDiscount(assignment, customer, oldPath);
+    }
+
+    // customer选择path时，与其他客户当前路径组合生效的优惠之和
+    private long activeDiscount(int[] assignment, int customer, int path) {
+        long sum = 0;
+        int end = index.rowEnd(customer, path);
+        for (int k = index.rowBegin(customer, path); k < end; k++) {
+            if (assignment[index.partnerCustomer(k)] == index.partnerPath(k)) {
+                sum += index.discountAt(k);
+            }
+        }
+        return sum;
+    }
+
+    // 原地把customer改为newPath，并同步更新累计值
+    public void move(int[] assignment, Totals totals, int customer, int newPath) {
+        int oldPath = assignment[customer];
+        if (oldPath == newPath) {
+            return;
+        }
+        totals.discount += discountDelta(assignment, customer, newPath);
+        totals.cost += data.getCost(customer, newPath) - data.getCost(customer, oldPath);
+        totals.distance += data.getDistance(customer, newPath) - data.getDistance(customer, oldPath);
+        totals.time += data.getTime(customer, newPath) - data.getTime(customer, oldPath);
+        assignment[customer] = newPath;
+    }
+
+    // 计算单步移动后的累计值但不修改原方案，结果写入target
+    public void preview(int[] assignment, Totals totals, int customer, int newPath, Totals target) {
+        target.copyFrom(totals);
+        int oldPath = assignment[customer];
+        if (oldPath == newPath) {
+            return;
+        }
+        target.discount += discountDelta(assignment, customer, newPath);
+        target.cost += data.getCost(customer, newPath) - data.getCost(customer, oldPath);
+        target.distance += data.getDistance(customer, newPath) - data.getDistance(customer, oldPath);
+        target.time += data.getTime(customer, newPath) - data.getTime(customer, oldPath);
+    }
+}
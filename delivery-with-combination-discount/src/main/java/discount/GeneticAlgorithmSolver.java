@@ -1,3 +1,4 @@
+package discount;
 
 import java.util.*;
 
@@ -9,28 +10,48 @@ public class GeneticAlgorithmSolver {
     private static final double CROSSOVER_RATE = 0.8; // 交叉率
 
     private TestDataSet testDataSet;
+    private DiscountEvaluator evaluator;
+
+    // 个体：基因、累计值与缓存的适应度，基因变化时通过增量评估同步更新
+    private static class Individual {
+        final int[] genes;
+        final DiscountEvaluator.Totals totals;
+        double fitness;
+
+        Individual(int[] genes, DiscountEvaluator.Totals totals) {
+            this.genes = genes;
+            this.totals = totals;
+        }
+
+        Individual copy() {
+            Individual copy = new Individual(genes.clone(), totals.copy());
+            copy.fitness = fitness;
+            return copy;
+        }
+    }
 
     public GeneticAlgorithmSolver(TestDataSet testDataSet) {
         this.testDataSet = testDataSet;
+        this.evaluator = new DiscountEvaluator(testDataSet);
     }
 
     // 主方法：运行遗传算法
     public int[] solve() {
-        List<int[]> population = initializePopulation();
+        List<Individual> population = initializePopulation();
         int[] bestSolution = null;
         double bestFitness = Double.MAX_VALUE;
 
         for (int generation = 0; generation < GENERATIONS; generation++) {
-            List<int[]> newPopulation = new ArrayList<>();
+            List<Individual> newPopulation = new ArrayList<>();
 
             // 选择和生成新一代
             while (newPopulation.size() < POPULATION_SIZE) {
-                int[] parent1 = select(population);
-                int[] parent2 = select(population);
+                Individual parent1 = select(population);
+                Individual parent2 = select(population);
 
                 // 交叉
                 if (Math.random() < CROSSOVER_RATE) {
-                    int[][] offspring = crossover(parent1, parent2);
+                    Individual[] offspring = crossover(parent1, parent2);
                     newPopulation.add(offspring[0]);
                     newPopulation.add(offspring[1]);
                 } else {
@@ -40,7 +61,7 @@ public class GeneticAlgorithmSolver {
             }
 
             // 变异
-            for (int[] individual : newPopulation) {
+            for (Individual individual : newPopulation) {
                 if (Math.random() < MUTATION_RATE) {
                     mutate(individual);
                 }
@@ -50,11 +71,10 @@ public class GeneticAlgorithmSolver {
             population = newPopulation;
 
             // 找到当前代最优解
-            for (int[] individual : population) {
-                double fitness = calculateFitness(individual);
-                if (fitness < bestFitness) {
-                    bestFitness = fitness;
-                    bestSolution = individual.clone();
+            for (Individual individual : population) {
+                if (individual.fitness < bestFitness) {
+                    bestFitness = individual.fitness;
+                    bestSolution = individual.genes.clone();
                 }
             }
 
@@ -66,87 +86,79 @@ public class GeneticAlgorithmSolver {
     }
 
     // 初始化种群
-    private List<int[]> initializePopulation() {
-        List<int[]> population = new ArrayList<>();
+    private List<Individual> initializePopulation() {
+        List<Individual> population = new ArrayList<>();
         for (int i = 0; i < POPULATION_SIZE; i++) {
-            int[] individual = new int[TestDataSet.CUSTOMERS];
-            for (int j = 0; j < TestDataSet.CUSTOMERS; j++) {
-                individual[j] = (int) (Math.random() * TestDataSet.PATHS_PER_CUSTOMER);
+            int[] genes = new int[testDataSet.getCustomerCount()];
+            for (int j = 0; j < genes.length; j++) {
+                genes[j] = (int) (Math.random() * TestDataSet.PATHS_PER_CUSTOMER);
             }
+            Individual individual = new Individual(genes, evaluator.evaluate(genes));
+            individual.fitness = calculateFitness(individual.totals);
             population.add(individual);
         }
         return population;
     }
 
-    // 适应度函数
-    private double calculateFitness(int[] individual) {
-        int totalCost = 0;
-        int totalTime = 0;
-
-        // 计算路径费用和时间
-        for (int i = 0; i < individual.length; i++) {
-            int path = individual[i];
-            totalCost += testDataSet.getCost(i, path);
-            totalTime += testDataSet.getTime(i, path);
-        }
+    // 适应度函数：由累计值直接计算，O(1)
+    private double calculateFitness(DiscountEvaluator.Totals totals) {
+        long totalCost = totals.getCost();
+        long totalTime = totals.getTime();
 
         // 超时惩罚
         if (totalTime > TestDataSet.TIME_LIMIT) {
             totalCost += (totalTime - TestDataSet.TIME_LIMIT) * TestDataSet.EXTRA_TIME_COST;
         }
 
-        // 计算路径优惠
-        for (int i = 0; i < individual.length; i++) {
-            for (int j = i + 1; j < individual.length; j++) {
-                int discount = testDataSet.getDiscount(i, individual[i], j, individual[j]);
-                totalCost += discount;
-            }
-        }
+        // 路径优惠
+        totalCost += totals.getDiscount();
 
         return totalCost; // 适应度值越小越好
     }
 
-    // 选择（锦标赛选择）
-    private int[] select(List<int[]> population) {
+    // 选择（锦标赛选择），使用缓存的适应度
+    private Individual select(List<Individual> population) {
         int tournamentSize = 5; // 锦标赛规模
-        int[] bestIndividual = null;
+        Individual bestIndividual = null;
         double bestFitness = Double.MAX_VALUE;
 
         for (int i = 0; i < tournamentSize; i++) {
-            int[] individual = population.get((int) (Math.random() * population.size()));
-            double fitness = calculateFitness(individual);
-            if (fitness < bestFitness) {
-                bestFitness = fitness;
+            Individual individual = population.get((int) (Math.random() * population.size()));
+            if (individual.fitness < bestFitness) {
+                bestFitness = individual.fitness;
                 bestIndividual = individual;
             }
         }
 
-        return bestIndividual.clone();
+        return bestIndividual.copy();
     }
 
-    // 交叉操作（单点交叉）
-    private int[][] crossover(int[] parent1, int[] parent2) {
-        int crossoverPoint = (int) (Math.random() * parent1.length);
-        int[] offspring1 = new int[parent1.length];
-        int[] offspring2 = new int[parent2.length];
-
-        for (int i = 0; i < parent1.length; i++) {
-            if (i < crossoverPoint) {
-                offspring1[i] = parent1[i];
-                offspring2[i] = parent2[i];
-            } else {
-                offspring1[i] = parent2[i];
-                offspring2[i] = parent1[i];
+    // 交叉操作（单点交叉）：select返回的亲本已是副本，直接原地交换交叉点之后不同的基因并增量更新
+    private Individual[] crossover(Individual parent1, Individual parent2) {
+        int crossoverPoint = (int) (Math.random() * parent1.genes.length);
+        Individual offspring1 = parent1;
+        Individual offspring2 = parent2;
+
+        for (int i = crossoverPoint; i < offspring1.genes.length; i++) {
+            int gene1 = offspring1.genes[i];
+            int gene2 = offspring2.genes[i];
+            if (gene1 != gene2) {
+                evaluator.move(offspring1.genes, offspring1.totals, i, gene2);
+                evaluator.move(offspring2.genes, offspring2.totals, i, gene1);
             }
         }
+        offspring1.fitness = calculateFitness(offspring1.totals);
+        offspring2.fitness = calculateFitness(offspring2.totals);
 
-        return new int[][] { offspring1, offspring2 };
+        return new Individual[] { offspring1, offspring2 };
     }
 
     // 变异操作
-    private void mutate(int[] individual) {
-        int index = (int) (Math.random() * individual.length);
-        individual[index] = (int) (Math.random() * TestDataSet.PATHS_PER_CUSTOMER);
+    private void mutate(Individual individual) {
+        int index = (int) (Math.random() * individual.genes.length);
+        int newPath = (int) (Math.random() * TestDataSet.PATHS_PER_CUSTOMER);
+        evaluator.move(individual.genes, individual.totals, index, newPath);
+        individual.fitness = calculateFitness(individual.totals);
     }
 
     // 主程序入口
@@ -1,3 +1,5 @@
+package discount;
+
 import java.util.Random;
 
 public class SimulatedAnnealing {
@@ -18,15 +20,25 @@ public class SimulatedAnnealing {
     }
 
     public int[] solve() {
+        // 每步只改变一个客户的路径，用增量评估代替整解重算
+        DiscountEvaluator evaluator = new DiscountEvaluator(testData);
+        DiscountEvaluator.Totals currentTotals = evaluator.evaluate(currentSolution);
+        DiscountEvaluator.Totals newTotals = new DiscountEvaluator.Totals();
+        double currentCost = costOf(currentTotals);
+        double bestCost = costOf(evaluator.evaluate(bestSolution));
+
         while (temperature > minTemperature) {
-            int[] newSolution = generateNewSolution(currentSolution);
-            double currentCost = calculateTotalCost(currentSolution);
-            double newCost = calculateTotalCost(newSolution);
+            int customer = new Random().nextInt(currentSolution.length);
+            int newPath = new Random().nextInt(TestDataSet.PATHS_PER_CUSTOMER);
+            evaluator.preview(currentSolution, currentTotals, customer, newPath, newTotals);
+            double newCost = costOf(newTotals);
 
             if (newCost < currentCost || Math.random() < Math.exp((currentCost - newCost) / temperature)) {
-                currentSolution = newSolution;
-                if (newCost < calculateTotalCost(bestSolution)) {
-                    bestSolution = newSolution.clone();
+                evaluator.move(currentSolution, currentTotals, customer, newPath);
+                currentCost = newCost;
+                if (newCost < bestCost) {
+                    bestCost = newCost;
+                    bestSolution = currentSolution.clone();
                 }
             }
             temperature *= coolingRate;
@@ -42,30 +54,15 @@ public class SimulatedAnnealing {
         return solution;
     }
 
-    private int[] generateNewSolution(int[] solution) {
-        int[] newSolution = solution.clone();
-        int i = new Random().nextInt(newSolution.length);
-        newSolution[i] = new Random().nextInt(TestDataSet.PATHS_PER_CUSTOMER);
-        return newSolution;
+    private double calculateTotalCost(int[] solution) {
+        return costOf(new DiscountEvaluator(testData).evaluate(solution));
     }
 
-    private double calculateTotalCost(int[] solution) {
-        double totalCost = 0;
-        int totalTime = 0;
-        for (int i = 0; i < solution.length; i++) {
-            int customer = i;
-            int path = solution[i];
-            totalTime += testData.getTime(customer, path);
-            totalCost += testData.getDistance(customer, path);
-            totalCost += testData.getCost(customer, path);
-            for (int j = i + 1; j < solution.length; j++) {
-                int customer2 = j;
-                int path2 = solution[j];
-                totalCost += testData.getDiscount(customer, path, customer2, path2);
-            }
-        }
+    // 目标函数：(距离 + 费用 + 优惠) / (客户数 * 2)，超时加固定额外费用
+    private double costOf(DiscountEvaluator.Totals totals) {
+        double totalCost = totals.getDistance() + totals.getCost() + totals.getDiscount();
         totalCost /= (TestDataSet.CUSTOMERS * 2);
-        if (totalTime > TestDataSet.TIME_LIMIT) {
+        if (totals.getTime() > TestDataSet.TIME_LIMIT) {
             totalCost += TestDataSet.EXTRA_TIME_COST;
         }
         return totalCost;
@@ -83,17 +80,17 @@ public class SimulatedAnnealing {
 
     private void printAllDiscounts() {
         for (int i = 0; i < TestDataSet.CUSTOMERS; i++) {
-            for (int j = 0; j < TestDataSet.CUSTOMERS; j++) {
-                for (int k = 0; k < TestDataSet.PATHS_PER_CUSTOMER; k++) {
-                    for (int l = 0; l < TestDataSet.PATHS_PER_CUSTOMER; l++) {
-                        if (testData.discounts[i][j][k][l] != 0) {
-                            // 打印组合优惠
-                            System.out.println("Discount from Customer " + (i + 1) +
-                                    " Path " + (k + 1) + " and Customer " + (j + 1) +
-                                    " Path " + (l + 1) + ": " + testData.discounts[i][j][k][l]);
-                        }
+            for (int k = 0; k < TestDataSet.PATHS_PER_CUSTOMER; k++) {
+                final int customer = i;
+                final int path = k;
+                testData.forEachDiscount(i, k, (j, l, discount) -> {
+                    // 每条优惠在两端各存一份，只从编号较小的客户一侧打印
+                    if (j > customer) {
+                        System.out.println("Discount from Customer " + (customer + 1) +
+                                " Path " + (path + 1) + " and Customer " + (j + 1) +
+                                " Path " + (l + 1) + ": " + discount);
                     }
-                }
+                });
             }
         }
     }
@@ -0,0 +1,124 @@
+package discount;
+
+import model.*;
+import java.util.*;
+
+public class TestDataSet {
+
+    public static final int CUSTOMERS = 5; // 客户地点数量
+    public static final int PATHS_PER_CUSTOMER = 3; // 每个客户地点的候选路径数量
+    public static final int TIME_LIMIT = 150; // 时间限制
+    private static final int DISCOUNT_MAX = 500; // 最大优惠值
+    public static final int EXTRA_TIME_COST = 100; // 超时额外费用
+
+    private final int customers; // 本实例的客户数
+    private int[][] distances;
+    public int[][] costs;
+    public int[][] times;
+    private SparseDiscountIndex discounts; // 组合优惠的稀疏索引，绝大多数路径组合没有优惠
+
+    public TestDataSet() {
+        this(CUSTOMERS);
+    }
+
+    // 生成指定客户数的实例，用于精确求解与启发式算法的对比
+    public TestDataSet(int customers) {
+        this.customers = customers;
+        generateTestData();
+    }
+
+    private void generateTestData() {
+        Random random = new Random();
+        distances = new int[customers][PATHS_PER_CUSTOMER];
+        costs = new int[customers][PATHS_PER_CUSTOMER];
+        times = new int[customers][PATHS_PER_CUSTOMER];
+        SparseDiscountIndex.Builder discountBuilder = new SparseDiscountIndex.Builder(customers, PATHS_PER_CUSTOMER);
+        boolean[] usedPaths = new boolean[customers * PATHS_PER_CUSTOMER]; // 每条路径最多参与一个组合优惠
+
+        // 生成路径属性
+        for (int i = 0; i < customers; i++) {
+            for (int j = 0; j < PATHS_PER_CUSTOMER; j++) {
+                distances[i][j] = random.nextInt(100); // 随机生成距离
+                costs[i][j] = random.nextInt(1000); // 随机生成费用
+                times[i][j] = random.nextInt(60); // 随机生成耗时
+            }
+        }
+
+        // 生成组合优惠
+        for (int i = 0; i < customers; i++) {
+            int unusedOfI = 0;
+            for (int k = 0; k < PATHS_PER_CUSTOMER; k++) {
+                if (!usedPaths[i * PATHS_PER_CUSTOMER + k]) {
+                    unusedOfI++;
+                }
+            }
+            // 客户i的路径都已使用时后续组合不会再消耗随机数，可直接跳过
+            for (int j = i + 1; j < customers && unusedOfI > 0; j++) { // 确保i和j是不同的客户地点
+                for (int k = 0; k < PATHS_PER_CUSTOMER; k++) {
+                    int pathKey1 = i * PATHS_PER_CUSTOMER + k;
+                    for (int l = 0; l < PATHS_PER_CUSTOMER && !usedPaths[pathKey1]; l++) {
+                        int pathKey2 = j * PATHS_PER_CUSTOMER + l;
+                        if (!usedPaths[pathKey2] && random.nextBoolean()) {
+                            discountBuilder.add(i, k, j, l, -random.nextInt(DISCOUNT_MAX));
+                            usedPaths[pathKey1] = true;
+                            usedPaths[pathKey2] = true;
+                            unusedOfI--;
+                        }
+                    }
+                }
+            }
+        }
+        discounts = discountBuilder.build();
+    }
+
+    public int getCustomerCount() {
+        return customers;
+    }
+
+    // 公共方法访问路径属性
+    public int getDistance(int customer, int path) {
+        return distances[customer][path];
+    }
+
+    public int getCost(int customer, int path) {
+        return costs[customer][path];
+    }
+
+    public int getTime(int customer, int path) {
+        return times[customer][path];
+    }
+
+    // 公共方法访问组合优惠（与两端顺序无关）
+    public int getDiscount(int customer1, int path1, int customer2, int path2) {
+        return discounts.getDiscount(customer1, path1, customer2, path2);
+    }
+
+    // 遍历与 (customer, path) 相关的所有组合优惠
+    public void forEachDiscount(int customer, int path, SparseDiscountIndex.DiscountVisitor visitor) {
+        discounts.forEachDiscount(customer, path, visitor);
+    }
+
+    public SparseDiscountIndex getDiscountIndex() {
+        return discounts;
+    }
+
+    /**
+     * 转换为主框架的问题实例，AlgorithmFactory中的算法可直接求解
+     * @param withDiscounts 为false时去掉组合优惠，得到同一实例的普通版本
+     */
+    public Problem toProblem(double timeConstraint, boolean withDiscounts) {
+        List<Customer> customerList = new ArrayList<>();
+        Map<String, List<Path>> paths = new HashMap<>();
+        for (int i = 0; i < customers; i++) {
+            customerList.add(new Customer(i));
+            List<Path> pathList = new ArrayList<>();
+            for (int j = 0; j < PATHS_PER_CUSTOMER; j++) {
+                pathList.add(new Path(distances[i][j], costs[i][j], times[i][j]));
+            }
+            paths.put("customer_" + i, pathList);
+        }
+        return new Problem(customerList, paths, timeConstraint, withDiscounts ? discounts : null);
+    }
+
+    // 其他需要的公共方法...
+}
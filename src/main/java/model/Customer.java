@@ -1,12 +0,0 @@
-package model;
-
-public class Customer {
-    private int id;
-    
-    public Customer(int id) {
-        this.id = id;
-    }
-    
-    // Getters and setters
-    public int getId() { return id; }
-} 
\ No newline at end of file
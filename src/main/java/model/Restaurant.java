@@ -1,11 +0,0 @@
-package model;
-
-public class Restaurant {
-    private int id;
-    
-    public Restaurant(int id) {
-        this.id = id;
-    }
-    
-    public int getId() { return id; }
-} 
\ No newline at end of file